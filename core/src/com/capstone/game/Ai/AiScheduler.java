@@ -0,0 +1,159 @@
+package com.capstone.game.Ai;
+
+import com.badlogic.gdx.ai.sched.LoadBalancingScheduler;
+import com.badlogic.gdx.ai.sched.Schedulable;
+import com.badlogic.gdx.utils.Array;
+
+/*
+ * Spreads chicken brains over the frames with gdx-ai's load balancing
+ * scheduler: with a think interval of n, each brain runs once every n steps
+ * and the brains are phased so every step runs about 1/n of them. Which
+ * brains run depends only on the step count, never on the clock, so
+ * seeded matches stay reproducible. The time spent is measured against the
+ * budget and reported, not used to skip work.
+ */
+public class AiScheduler {
+    public static final int DEFAULT_THINK_INTERVAL = 6;
+    public static final long DEFAULT_BUDGET_NANOS = 1000000L;
+
+    private final FrameScheduler scheduler;
+    private final int thinkInterval;
+    private final long budgetNanos;
+
+    private int brainCount;
+    private long lastFrameNanos;
+    private long maxFrameNanos;
+    private long totalNanos;
+    private int frames;
+    private int overBudgetFrames;
+
+    public AiScheduler() {
+        this(DEFAULT_THINK_INTERVAL, DEFAULT_BUDGET_NANOS);
+    }
+
+    public AiScheduler(int thinkInterval, long budgetNanos) {
+        // every brain shares one interval, so two periods of dry run show the whole pattern
+        this.scheduler = new FrameScheduler(2 * thinkInterval);
+        this.thinkInterval = thinkInterval;
+        this.budgetNanos = budgetNanos;
+    }
+
+    public void add(ChickenBrain brain) {
+        scheduler.addWithAutomaticPhasing(brain, thinkInterval);
+        brainCount++;
+    }
+
+    public void remove(ChickenBrain brain) {
+        scheduler.remove(brain);
+        brainCount--;
+    }
+
+    // run this step's share of brains and record how long it took
+    public void update() {
+        long start = System.nanoTime();
+        scheduler.run(budgetNanos);
+        lastFrameNanos = System.nanoTime() - start;
+
+        maxFrameNanos = Math.max(maxFrameNanos, lastFrameNanos);
+        totalNanos += lastFrameNanos;
+        frames++;
+        if (lastFrameNanos > budgetNanos)
+            overBudgetFrames++;
+    }
+
+    // which brains think on a step follows from the scheduler's frame counter, a restored match needs it back
+    public int getFrame() {
+        return scheduler.getFrame();
+    }
+
+    public void setFrame(int frame) {
+        scheduler.setFrame(frame);
+    }
+
+    public void resetStats() {
+        lastFrameNanos = 0;
+        maxFrameNanos = 0;
+        totalNanos = 0;
+        frames = 0;
+        overBudgetFrames = 0;
+    }
+
+
+    /* REPORTING */
+    // share of the budget the last step used, above 1 means over budget
+    public float getBudgetUsed() {
+        return (float) lastFrameNanos / budgetNanos;
+    }
+
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    public long getMaxFrameNanos() {
+        return maxFrameNanos;
+    }
+
+    public long getAverageFrameNanos() {
+        return frames == 0 ? 0 : totalNanos / frames;
+    }
+
+    public int getOverBudgetFrames() {
+        return overBudgetFrames;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public int getBrainCount() {
+        return brainCount;
+    }
+
+    public int getThinkInterval() {
+        return thinkInterval;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ai: %d brains, avg %.3f ms, max %.3f ms of %.3f ms budget, %d/%d steps over",
+                brainCount, getAverageFrameNanos() / 1e6, maxFrameNanos / 1e6, budgetNanos / 1e6, overBudgetFrames, frames);
+    }
+
+
+    // exposes the frame counter gdx-ai keeps protected and adds the remove it doesn't have
+    private static class FrameScheduler extends LoadBalancingScheduler {
+        // in the order of gdx-ai's records, which only ever appends
+        private final Array<Schedulable> schedulables = new Array<>();
+
+        FrameScheduler(int dryRunFrames) {
+            super(dryRunFrames);
+        }
+
+        @Override
+        public void add(Schedulable schedulable, int frequency, int phase) {
+            super.add(schedulable, frequency, phase);
+            schedulables.add(schedulable);
+        }
+
+        void remove(Schedulable schedulable) {
+            int index = schedulables.indexOf(schedulable, true);
+            if (index < 0)
+                return;
+
+            schedulables.removeIndex(index);
+            schedulableRecords.removeIndex(index);
+        }
+
+        int getFrame() {
+            return frame;
+        }
+
+        void setFrame(int frame) {
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.capstone.game.Ai;
+
+import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
+import com.badlogic.gdx.ai.fsm.StateMachine;
+import com.badlogic.gdx.ai.sched.Schedulable;
+
+import java.util.Random;
+
+/*
+ * A chicken's decision making, driven by an AiScheduler. The scheduler runs
+ * a brain only every few steps; in between act() replays the last decision,
+ * so thinking can be spread out without the chicken standing still.
+ */
+public abstract class ChickenBrain implements Schedulable {
+    final Random random;
+    private final StateMachine<ChickenBrain, ChickenState> stateMachine;
+
+    protected ChickenBrain(Random random) {
+        this.random = random;
+        this.stateMachine = new DefaultStateMachine<ChickenBrain, ChickenState>(this, ChickenState.IDLE);
+    }
+
+    // called by the scheduler on this brain's turn
+    @Override
+    public void run(long nanoTimeToRun) {
+        think();
+        stateMachine.update();
+    }
+
+    // called every step
+    public void act() {
+        stateMachine.getCurrentState().act(this);
+    }
+
+    // extra work done only on this brain's turn, before the state machine decides
+    protected void think() {
+    }
+
+    public StateMachine<ChickenBrain, ChickenState> getStateMachine() {
+        return stateMachine;
+    }
+
+    // puts a restored brain back on its last decision, enter and exit do not run
+    public void restoreState(ChickenState state) {
+        stateMachine.setInitialState(state);
+    }
+
+    /* WHAT THE STATES NEED */
+    public abstract boolean isAlive();
+
+    public abstract boolean hasTarget();
+
+    public abstract boolean isAttacking();
+
+    public abstract void moveForward(float speedMultiplier);
+
+    public abstract void moveBackward(float speedMultiplier);
+}
@@ -0,0 +1,64 @@
+package com.capstone.game.Ai;
+
+import com.badlogic.gdx.ai.fsm.State;
+import com.badlogic.gdx.ai.msg.Telegram;
+
+/*
+ * What a chicken is trying to do between two thoughts. update() is the
+ * thought and only runs when the scheduler gives the brain its turn, act()
+ * runs every step and keeps the chicken moving the way it last decided.
+ */
+public enum ChickenState implements State<ChickenBrain> {
+    // run at the enemy
+    CHARGE {
+        @Override
+        public void act(ChickenBrain brain) {
+            brain.moveForward(2.0f);
+        }
+    },
+
+    // back off a little
+    RETREAT {
+        @Override
+        public void act(ChickenBrain brain) {
+            brain.moveBackward(0.5f);
+        }
+    },
+
+    // nobody to fight, or dead
+    IDLE {
+        @Override
+        public void act(ChickenBrain brain) {
+        }
+    };
+
+    public abstract void act(ChickenBrain brain);
+
+    // the coin flip the chickens used to make every frame, now once per thought
+    @Override
+    public void update(ChickenBrain brain) {
+        ChickenState next;
+        if (!brain.isAlive() || !brain.hasTarget())
+            next = IDLE;
+        else if (brain.random.nextBoolean() && !brain.isAttacking())
+            next = CHARGE;
+        else
+            next = RETREAT;
+
+        if (next != this)
+            brain.getStateMachine().changeState(next);
+    }
+
+    @Override
+    public void enter(ChickenBrain brain) {
+    }
+
+    @Override
+    public void exit(ChickenBrain brain) {
+    }
+
+    @Override
+    public boolean onMessage(ChickenBrain brain, Telegram telegram) {
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.capstone.game.Ai;
+
+import com.capstone.game.Sprites.Chicken;
+
+// the brain of one side of a Match, its target is always the other chicken
+public class DuelBrain extends ChickenBrain {
+    private final Chicken chicken;
+    private final Chicken enemy;
+
+    public DuelBrain(Chicken chicken, Chicken enemy) {
+        super(chicken.getRandom());
+        this.chicken = chicken;
+        this.enemy = enemy;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return chicken.isAlive();
+    }
+
+    @Override
+    public boolean hasTarget() {
+        return enemy.isAlive();
+    }
+
+    @Override
+    public boolean isAttacking() {
+        return chicken.currentState == Chicken.State.ATTACKING;
+    }
+
+    @Override
+    public void moveForward(float speedMultiplier) {
+        if (chicken.isFaceRight())
+            chicken.moveRight(speedMultiplier);
+        else
+            chicken.moveLeft(speedMultiplier);
+    }
+
+    @Override
+    public void moveBackward(float speedMultiplier) {
+        if (chicken.isFaceRight())
+            chicken.moveLeft(speedMultiplier);
+        else
+            chicken.moveRight(speedMultiplier);
+    }
+}
@@ -1,12 +1,26 @@
 package com.capstone.game;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.capstone.game.Events.CombatLog;
+import com.capstone.game.Network.RollbackSession;
+import com.capstone.game.Network.SpectatorServer;
+import com.capstone.game.Persistence.ResultWriter;
+import com.capstone.game.Screens.ArenaScreen;
+import com.capstone.game.Screens.LoadingScreen;
 import com.capstone.game.Screens.PlayScreen;
-import com.capstone.game.Sprites.Chicken;
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchSetup;
+import com.capstone.game.Simulation.Replay;
+import com.capstone.game.Tools.Assets;
+import com.capstone.game.Tools.RenderStats;
+
+import java.io.IOException;
+import java.util.Random;
 
 public class CockfightGame extends Game {
 	public static final int V_WIDTH = 640;
@@ -14,41 +28,224 @@ public class CockfightGame extends Game {
 	public static final float PPM = 100;
 	public static final float worldWidth = V_WIDTH / PPM;
 	public static final float worldHeight = V_HEIGHT / PPM;
-	private final float mapWidth = 936 / CockfightGame.PPM;
-	private static final float WORLD_GRAVITY = -28f;
+	public static final float MAP_WIDTH = 936 / PPM;
+	public static final int ARENA_COLUMNS = 9;
+	public static final float WORLD_GRAVITY = -28f;
 
 	public SpriteBatch spriteBatch;
+	public Assets assets;
+	public RenderStats renderStats;
+
+	private static final String CHICKEN1_SKIN = Assets.BLACK_CHICKEN;
+	private static final String CHICKEN2_SKIN = Assets.WHITE_CHICKEN;
+	private static final String REPLAY_DIRECTORY = "replays/";
+	private static final String[] FREE_FOR_ALL_SKINS = {Assets.BLACK_CHICKEN, Assets.WHITE_CHICKEN, Assets.DARK_BROWN_CHICKEN, Assets.LIGHT_BROWN_CHICKEN};
+
+	// zero plays the usual one on one match
+	private final int freeForAllChickens;
+
+	// a replay file plays back a recorded match instead of a new one
+	private final String replayPath;
+	private Replay replay;
+
+	// an online match against a peer the launcher already connected to
+	private final RollbackSession rollbackSession;
+
+	// zero streams nothing, otherwise spectators connect to this port
+	private int spectatorPort;
+	private SpectatorServer spectatorServer;
+
+	// finished one on one matches are stored through it, closed with the game
+	private ResultWriter resultWriter;
+
+	// every combat event of the one on one matches is written to this file, null writes nothing
+	private String combatLogPath;
+	private CombatLog combatLog;
+
+	// wider than ARENA_COLUMNS streams the arena in chunks around the chickens
+	private int arenaColumns = ARENA_COLUMNS;
+
+	public CockfightGame () {
+		this(0);
+	}
+
+	public CockfightGame (int freeForAllChickens) {
+		this(freeForAllChickens, null);
+	}
+
+	public CockfightGame (String replayPath) {
+		this(0, replayPath);
+	}
+
+	public CockfightGame (RollbackSession rollbackSession) {
+		this(0, null, rollbackSession);
+	}
+
+	private CockfightGame (int freeForAllChickens, String replayPath) {
+		this(freeForAllChickens, replayPath, null);
+	}
+
+	private CockfightGame (int freeForAllChickens, String replayPath, RollbackSession rollbackSession) {
+		this.freeForAllChickens = freeForAllChickens;
+		this.replayPath = replayPath;
+		this.rollbackSession = rollbackSession;
+	}
+
+	// before create, the one on one matches of this game are streamed to spectators
+	public void setSpectatorPort (int spectatorPort) {
+		this.spectatorPort = spectatorPort;
+	}
+
+	public void setResultWriter (ResultWriter resultWriter) {
+		this.resultWriter = resultWriter;
+	}
+
+	public void setCombatLogPath (String combatLogPath) {
+		this.combatLogPath = combatLogPath;
+	}
+
+	public void setArenaColumns (int arenaColumns) {
+		this.arenaColumns = arenaColumns;
+	}
+
+	// the default one on one match, also what a host sends to the player joining it
+	public static MatchSetup createMatchSetup (long seed) {
+		return createMatchSetup(seed, ARENA_COLUMNS);
+	}
+
+	public static MatchSetup createMatchSetup (long seed, int arenaColumns) {
+		return new MatchSetup(seed,
+				ChickenSpec.left(100, 20, 1), CHICKEN1_SKIN,
+				ChickenSpec.right(100, 10, 1), CHICKEN2_SKIN,
+				arenaColumns);
+	}
 
 	@Override
 	public void create () {
 		spriteBatch = new SpriteBatch();
-		World world = new World(new Vector2(0, WORLD_GRAVITY), true);
-
-		// create the chickens
-		TextureAtlas chicken1Atlas = new TextureAtlas("chicken_pack/black_chicken.txt");
-		TextureAtlas.AtlasRegion chicken1Region = chicken1Atlas.findRegion("chicken_attack");
-		Chicken chicken1 = new Chicken.ChickenBuilder(world, chicken1Region)
-				.setPosX((2 * mapWidth - worldWidth) / 4f)
-				.setPosY(64 / CockfightGame.PPM)
-				.setDamage(20)
-				.build();
-
-		TextureAtlas chicken2Atlas = new TextureAtlas("chicken_pack/white_chicken.txt");
-		TextureAtlas.AtlasRegion chicken2Region = chicken2Atlas.findRegion("chicken_attack");
-		Chicken chicken2 = new Chicken.ChickenBuilder(world, chicken2Region)
-				.setPosX((2 * mapWidth + worldWidth) / 4f)
-				.setPosY(64 / CockfightGame.PPM)
-				.setIsFaceRight(false)
-				.build();
-
-		PlayScreen playScreen = new PlayScreen(this, world, chicken1, chicken2);
+		renderStats = new RenderStats(spriteBatch);
+
+		// one reference per chicken and one for the arena, shared skins load only once
+		assets = new Assets();
+		if (freeForAllChickens > 0) {
+			for (String skin : FREE_FOR_ALL_SKINS)
+				assets.queueChicken(skin);
+		} else if (replayPath != null) {
+			replay = readReplay(replayPath);
+			assets.queueChicken(replay.getSetup().chicken1Skin);
+			assets.queueChicken(replay.getSetup().chicken2Skin);
+		} else if (rollbackSession != null) {
+			assets.queueChicken(rollbackSession.getSetup().chicken1Skin);
+			assets.queueChicken(rollbackSession.getSetup().chicken2Skin);
+		} else {
+			assets.queueChicken(CHICKEN1_SKIN);
+			assets.queueChicken(CHICKEN2_SKIN);
+		}
+		assets.queueMap(Assets.MAP_FILE);
+		setScreen(new LoadingScreen(this));
+	}
+
+	public void startMatch () {
+		if (freeForAllChickens > 0) {
+			setScreen(new ArenaScreen(this, freeForAllChickens, FREE_FOR_ALL_SKINS));
+			return;
+		}
+
+		// both peers step the same world on this thread, it has to come back exactly from a keyframe
+		if (rollbackSession != null) {
+			PlayScreen playScreen = new PlayScreen(this, Match.createWorld(), rollbackSession.getSetup(), false);
+			playScreen.playOnline(rollbackSession);
+			startSpectatorServer(playScreen, rollbackSession.getSetup());
+			startCombatLog(playScreen);
+			setScreen(playScreen);
+			return;
+		}
+
+		World world = Match.createWorld();
+
+		// a recorded match is stepped on this thread so the replay can feed every step
+		if (replay != null) {
+			PlayScreen playScreen = new PlayScreen(this, world, replay.getSetup(), false);
+			playScreen.playReplay(replay);
+			startSpectatorServer(playScreen, replay.getSetup());
+			startCombatLog(playScreen);
+			setScreen(playScreen);
+			return;
+		}
+
+		// every match is seeded and recorded, a disputed result can be played back later
+		long seed = new Random().nextLong();
+		MatchSetup setup = createMatchSetup(seed, arenaColumns);
+		PlayScreen playScreen = new PlayScreen(this, world, setup, true);
+		playScreen.recordReplay(Gdx.files.local(REPLAY_DIRECTORY + System.currentTimeMillis() + "-" + Long.toHexString(seed) + ".replay"));
+		if (resultWriter != null)
+			playScreen.recordResult(resultWriter);
+		startSpectatorServer(playScreen, setup);
+		startCombatLog(playScreen);
 		setScreen(playScreen);
 	}
 
+	private void startSpectatorServer (PlayScreen playScreen, MatchSetup setup) {
+		if (spectatorPort == 0)
+			return;
+
+		SpectatorServer server = new SpectatorServer(spectatorPort);
+		server.setMatchInfo(setup);
+		try {
+			server.start();
+		} catch (IOException e) {
+			System.out.println("Error starting the spectator server: " + e.getMessage());
+			return;
+		}
+		spectatorServer = server;
+		playScreen.setSpectatorServer(server);
+		System.out.println("Spectators can connect on port " + spectatorPort);
+	}
+
+	private void startCombatLog (PlayScreen playScreen) {
+		if (combatLogPath == null)
+			return;
+
+		combatLog = new CombatLog(playScreen.getCombatEvents(), Gdx.files.local(combatLogPath).writer(false, "UTF-8"));
+		combatLog.start();
+	}
+
+	private static Replay readReplay (String path) {
+		try {
+			return Replay.read(Gdx.files.local(path));
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error reading replay: " + path, e);
+		}
+	}
+
 	@Override
 	public void render () {
 		super.render();
 	}
+
+	@Override
+	public void dispose () {
+		if (getScreen() != null)
+			getScreen().dispose();
+		if (spectatorServer != null)
+			spectatorServer.stop();
+		if (combatLog != null)
+			combatLog.stop();
+		if (resultWriter != null)
+			resultWriter.close();
+		assets.dispose();
+		spriteBatch.dispose();
+		if (rollbackSession != null)
+			closeSession();
+	}
+
+	private void closeSession () {
+		try {
+			rollbackSession.close();
+		} catch (IOException e) {
+			System.out.println("Error closing the connection: " + e.getMessage());
+		}
+	}
 }
 
 
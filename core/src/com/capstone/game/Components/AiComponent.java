@@ -0,0 +1,12 @@
+package com.capstone.game.Components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.capstone.game.Ai.ChickenBrain;
+
+public class AiComponent implements Component {
+    public Entity target;
+
+    // created and scheduled by the AiSystem while the chicken is alive
+    public ChickenBrain brain;
+}
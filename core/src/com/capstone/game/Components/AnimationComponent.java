@@ -0,0 +1,10 @@
+package com.capstone.game.Components;
+
+import com.badlogic.ashley.core.Component;
+import com.capstone.game.Sprites.ChickenAnimations;
+
+// only chickens that are drawn have one, headless arenas skip it entirely
+public class AnimationComponent implements Component {
+    public ChickenAnimations rightAnimations;
+    public ChickenAnimations leftAnimations;
+}
@@ -0,0 +1,13 @@
+package com.capstone.game.Components;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+public final class Mappers {
+    public static final ComponentMapper<PhysicsComponent> physics = ComponentMapper.getFor(PhysicsComponent.class);
+    public static final ComponentMapper<StatsComponent> stats = ComponentMapper.getFor(StatsComponent.class);
+    public static final ComponentMapper<StateComponent> state = ComponentMapper.getFor(StateComponent.class);
+    public static final ComponentMapper<AnimationComponent> animation = ComponentMapper.getFor(AnimationComponent.class);
+    public static final ComponentMapper<AiComponent> ai = ComponentMapper.getFor(AiComponent.class);
+
+    private Mappers() {}
+}
@@ -0,0 +1,16 @@
+package com.capstone.game.Components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+public class PhysicsComponent implements Component {
+    public Body body;
+
+    // positions after the last two steps, drawn in between
+    public final Vector2 previousPosition = new Vector2();
+    public final Vector2 currentPosition = new Vector2();
+
+    // index in this tick's proximity grid
+    public int proximityId;
+}
@@ -0,0 +1,11 @@
+package com.capstone.game.Components;
+
+import com.badlogic.ashley.core.Component;
+import com.capstone.game.Sprites.Chicken;
+
+public class StateComponent implements Component {
+    public Chicken.State currentState = Chicken.State.STANDING;
+    public Chicken.State previousState = Chicken.State.STANDING;
+    public float stateTimer;
+    public boolean isFaceRight = true;
+}
@@ -0,0 +1,18 @@
+package com.capstone.game.Components;
+
+import com.badlogic.ashley.core.Component;
+
+public class StatsComponent implements Component {
+    public float hp = 100;
+    public float damage = 10;
+    public float speed = 1;
+    public boolean isAttacking;
+
+    public boolean isAlive() {
+        return hp > 0;
+    }
+
+    public void decreaseHp(float damage) {
+        hp = Math.max(0, hp - damage);
+    }
+}
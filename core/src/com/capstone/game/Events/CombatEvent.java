@@ -0,0 +1,47 @@
+package com.capstone.game.Events;
+
+import com.capstone.game.Sprites.Chicken;
+
+/*
+ * One slot of a CombatEventBus. The slots are allocated once with the bus and
+ * filled in place by the publisher, so a consumer sees an event only while it
+ * is handling it and must copy out whatever it wants to keep. Chickens are
+ * referred to by the number they were given on the bus, never by reference,
+ * so a consumer on another thread can't reach into the simulation.
+ */
+public final class CombatEvent {
+    public enum Type {HIT, DAMAGE, JUMP, STATE_CHANGE, DEATH}
+
+    // no second chicken involved
+    public static final int NONE = 0;
+
+    public Type type;
+    public int tick;
+    public int chicken;
+    // the chicken hit or damaged by this one, or the one that landed the killing blow on it
+    public int other;
+    // contact speed for a hit, hp taken for damage, the chicken's hp left for a death
+    public float amount;
+    public float x;
+    public float y;
+    public Chicken.State state;
+    public Chicken.State previousState;
+
+    void set(Type type, int tick, int chicken, int other, float amount, float x, float y, Chicken.State state, Chicken.State previousState) {
+        this.type = type;
+        this.tick = tick;
+        this.chicken = chicken;
+        this.other = other;
+        this.amount = amount;
+        this.x = x;
+        this.y = y;
+        this.state = state;
+        this.previousState = previousState;
+    }
+
+    @Override
+    public String toString() {
+        return "CombatEvent{type=" + type + ", tick=" + tick + ", chicken=" + chicken + ", other=" + other + ", amount=" + amount
+                + ", x=" + x + ", y=" + y + ", state=" + state + ", previousState=" + previousState + "}";
+    }
+}
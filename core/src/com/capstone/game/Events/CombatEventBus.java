@@ -0,0 +1,161 @@
+package com.capstone.game.Events;
+
+import com.capstone.game.Sprites.Chicken;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Ring of preallocated CombatEvents between the one thread that steps a match
+ * and any number of consumers, each reading at its own pace from its own
+ * position. Publishing fills the next slot in place and moves the cursor with
+ * a lazy set: no lock, no allocation, and the consumers' positions are only
+ * read again when the publisher has used up the room it saw last time. The
+ * publisher never waits for a consumer, when the slowest one is a whole ring
+ * behind the event is dropped and counted, so a stalled log can cost events
+ * but never a physics step. What has to stay right, like the hp on the HUD,
+ * is read from the match instead of added up from events.
+ */
+public class CombatEventBus {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // handed each event in order, only valid until it returns
+    public interface Handler {
+        void onEvent(CombatEvent event);
+    }
+
+
+    /* BUS ATTRIBUTES */
+    private final CombatEvent[] events;
+    private final int mask;
+    // last published sequence, written by the publisher only
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // replaced as a whole when a consumer comes or goes, read by the publisher
+    private volatile Subscriber[] subscribers = new Subscriber[0];
+
+
+    /* PUBLISHER ATTRIBUTES */
+    private long next;
+    // the publisher can fill up to this sequence without looking at the consumers again
+    private long limit;
+    private int tick;
+    private volatile long droppedEvents;
+
+
+    /* CONSTRUCTOR */
+    public CombatEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CombatEventBus(int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("The capacity must be a power of two: " + capacity);
+
+        this.events = new CombatEvent[capacity];
+        for (int i = 0; i < capacity; i++)
+            events[i] = new CombatEvent();
+        this.mask = capacity - 1;
+        this.limit = capacity - 1;
+    }
+
+
+    /* PUBLISHER SIDE */
+    // stamped on every event published until the next call
+    public void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    public void publish(CombatEvent.Type type, int chicken, int other, float amount, float x, float y, Chicken.State state, Chicken.State previousState) {
+        if (next > limit && !hasRoom()) {
+            droppedEvents++;
+            return;
+        }
+
+        events[(int) next & mask].set(type, tick, chicken, other, amount, x, y, state, previousState);
+        cursor.lazySet(next);
+        next++;
+    }
+
+    private boolean hasRoom() {
+        long slowest = next - 1;
+        for (Subscriber subscriber : subscribers)
+            slowest = Math.min(slowest, subscriber.sequence.get());
+
+        limit = slowest + events.length;
+        return next <= limit;
+    }
+
+
+    /* CONSUMER SIDE */
+    // starts with the next event published, must be closed when done or the bus fills up behind it
+    public synchronized Subscriber subscribe() {
+        Subscriber subscriber = new Subscriber(cursor.get());
+        Subscriber[] current = subscribers;
+        Subscriber[] added = new Subscriber[current.length + 1];
+        System.arraycopy(current, 0, added, 0, current.length);
+        added[current.length] = subscriber;
+        subscribers = added;
+
+        // a publisher that missed the new subscriber can only have filled the ring up to the cursor read now
+        subscriber.sequence.set(cursor.get());
+        return subscriber;
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        Subscriber[] current = subscribers;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != subscriber)
+                continue;
+
+            Subscriber[] removed = new Subscriber[current.length - 1];
+            System.arraycopy(current, 0, removed, 0, i);
+            System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+            subscribers = removed;
+            return;
+        }
+    }
+
+    // one consumer's position in the ring, polled from a single thread
+    public class Subscriber {
+        // last sequence handled, the publisher reuses a slot once every subscriber is past it
+        private final AtomicLong sequence;
+
+        private Subscriber(long sequence) {
+            this.sequence = new AtomicLong(sequence);
+        }
+
+        // hands over everything published since the last poll, returns how many events that was
+        public int poll(Handler handler) {
+            long from = sequence.get();
+            long to = cursor.get();
+            for (long s = from + 1; s <= to; s++)
+                handler.onEvent(events[(int) s & mask]);
+
+            // the slots are free for the publisher only after the handler is done with them
+            sequence.lazySet(to);
+            return (int) (to - from);
+        }
+
+        public int getPending() {
+            return (int) (cursor.get() - sequence.get());
+        }
+
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+
+
+    /* GETTERS */
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public long getPublishedEvents() {
+        return cursor.get() + 1;
+    }
+
+    // published while the slowest subscriber was a whole ring behind
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+}
@@ -0,0 +1,95 @@
+package com.capstone.game.Events;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/*
+ * Writes every combat event as a line of text on its own thread. The thread
+ * wakes up fifty times a second, formats whatever the bus holds for it into
+ * one buffer and writes it in one go, so the console or disk is never touched
+ * from the physics step. The writer is closed with the log. In an online
+ * match a rollback plays ticks again without publishing, so the log can hold
+ * events of ticks the rollback later overturned and miss the ones that took
+ * their place.
+ */
+public class CombatLog implements Runnable, CombatEventBus.Handler {
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final CombatEventBus.Subscriber subscriber;
+    private final Writer writer;
+    private final StringBuilder lines = new StringBuilder(4096);
+    private Thread thread;
+    private volatile boolean isRunning;
+
+    public CombatLog(CombatEventBus bus, Writer writer) {
+        this.subscriber = bus.subscribe();
+        this.writer = writer;
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        isRunning = true;
+        thread = new Thread(this, "combat-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // writes what is still on the bus and closes the writer
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        isRunning = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (isRunning) {
+                flush();
+                try {
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    // stopping, the last flush below picks up the rest
+                }
+            }
+            flush();
+        } catch (IOException e) {
+            System.out.println("Error writing the combat log: " + e.getMessage());
+        } finally {
+            subscriber.close();
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // nothing left to lose
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        lines.setLength(0);
+        if (subscriber.poll(this) == 0)
+            return;
+
+        writer.write(lines.toString());
+        writer.flush();
+    }
+
+    @Override
+    public void onEvent(CombatEvent event) {
+        lines.append(event.tick).append(' ').append(event.type).append(" chicken ").append(event.chicken);
+        if (event.other != CombatEvent.NONE)
+            lines.append(" other ").append(event.other);
+        lines.append(" amount ").append(event.amount).append(" at ").append(event.x).append(',').append(event.y).append(' ')
+                .append(event.previousState).append(" -> ").append(event.state).append('\n');
+    }
+}
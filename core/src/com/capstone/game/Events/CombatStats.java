@@ -0,0 +1,95 @@
+package com.capstone.game.Events;
+
+/*
+ * Running totals per chicken from a CombatEventBus: hits, damage dealt and
+ * taken, jumps, state changes and deaths. Nothing is counted until poll is
+ * called, so the owner decides which thread does the work and how often,
+ * and reads the totals from that same thread. Ticks a rollback plays again
+ * publish nothing, so in an online match the totals can count events that
+ * were later overturned and miss their replacements.
+ */
+public class CombatStats implements CombatEventBus.Handler {
+    // chicken numbers are small, 1 and 2 in a one on one match
+    private static final int MAX_CHICKENS = 16;
+
+    private final CombatEventBus.Subscriber subscriber;
+    private final int[] hits = new int[MAX_CHICKENS];
+    private final float[] damageDealt = new float[MAX_CHICKENS];
+    private final float[] damageTaken = new float[MAX_CHICKENS];
+    private final int[] jumps = new int[MAX_CHICKENS];
+    private final int[] stateChanges = new int[MAX_CHICKENS];
+    private final int[] deaths = new int[MAX_CHICKENS];
+    private long events;
+    private int lastTick;
+
+    public CombatStats(CombatEventBus bus) {
+        this.subscriber = bus.subscribe();
+    }
+
+    public int poll() {
+        return subscriber.poll(this);
+    }
+
+    @Override
+    public void onEvent(CombatEvent event) {
+        events++;
+        lastTick = event.tick;
+        int chicken = event.chicken & (MAX_CHICKENS - 1);
+        switch (event.type) {
+            case HIT:
+                hits[chicken]++;
+                break;
+            case DAMAGE:
+                damageDealt[chicken] += event.amount;
+                damageTaken[event.other & (MAX_CHICKENS - 1)] += event.amount;
+                break;
+            case JUMP:
+                jumps[chicken]++;
+                break;
+            case STATE_CHANGE:
+                stateChanges[chicken]++;
+                break;
+            case DEATH:
+                deaths[chicken]++;
+                break;
+        }
+    }
+
+    public void close() {
+        subscriber.close();
+    }
+
+
+    /* GETTERS */
+    public long getEvents() {
+        return events;
+    }
+
+    public int getLastTick() {
+        return lastTick;
+    }
+
+    public int getHits(int chicken) {
+        return hits[chicken];
+    }
+
+    public float getDamageDealt(int chicken) {
+        return damageDealt[chicken];
+    }
+
+    public float getDamageTaken(int chicken) {
+        return damageTaken[chicken];
+    }
+
+    public int getJumps(int chicken) {
+        return jumps[chicken];
+    }
+
+    public int getStateChanges(int chicken) {
+        return stateChanges[chicken];
+    }
+
+    public int getDeaths(int chicken) {
+        return deaths[chicken];
+    }
+}
@@ -0,0 +1,53 @@
+package com.capstone.game.Network;
+
+import java.util.Random;
+
+/*
+ * Simulated network trouble for testing on localhost: every outgoing packet
+ * is held back for half the round trip plus some jitter, and a share of them
+ * is dropped. The randomness is seeded so a test run can be repeated.
+ */
+public class NetworkConditions {
+    public static final NetworkConditions NONE = new NetworkConditions(0, 0, 0, 0);
+
+    private final int roundTripMillis;
+    private final int jitterMillis;
+    private final float lossRate;
+    private final Random random;
+
+    public NetworkConditions(int roundTripMillis, int jitterMillis, float lossRate, long seed) {
+        this.roundTripMillis = roundTripMillis;
+        this.jitterMillis = jitterMillis;
+        this.lossRate = lossRate;
+        this.random = new Random(seed);
+    }
+
+    public boolean isPerfect() {
+        return roundTripMillis == 0 && jitterMillis == 0 && lossRate == 0;
+    }
+
+    public boolean shouldDrop() {
+        return lossRate > 0 && random.nextFloat() < lossRate;
+    }
+
+    // one way, the other half of the round trip is added by the other peer's conditions
+    public long nextDelayNanos() {
+        long millis = roundTripMillis / 2;
+        if (jitterMillis > 0)
+            millis += random.nextInt(jitterMillis + 1);
+        return millis * 1000000L;
+    }
+
+    public int getRoundTripMillis() {
+        return roundTripMillis;
+    }
+
+    public float getLossRate() {
+        return lossRate;
+    }
+
+    @Override
+    public String toString() {
+        return roundTripMillis + " ms rtt, " + jitterMillis + " ms jitter, " + Math.round(lossRate * 100) + "% loss";
+    }
+}
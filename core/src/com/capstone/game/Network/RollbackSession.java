@@ -0,0 +1,503 @@
+package com.capstone.game.Network;
+
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Simulation.ChickenInput;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchKeyframe;
+import com.capstone.game.Simulation.MatchResult;
+import com.capstone.game.Simulation.MatchSetup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/*
+ * Two player rollback over UDP. Both peers step the same Match: the local
+ * chicken's input is applied on the step it was pressed, the other chicken's
+ * is guessed by repeating its last known input. When the real input arrives
+ * and differs from the guess, the match is restored to the keyframe of the
+ * first wrong tick and stepped forward again with the right inputs, all
+ * within one frame. The host plays chicken1 and sends the MatchSetup.
+ *
+ * Both sides hash every tick once the inputs for it are confirmed and send
+ * their latest hash along with their input. A restored keyframe steps on
+ * exactly as the original run, so the hashes only differ when the peers
+ * disagree on something else, e.g. a different build or FPU; then the host
+ * sends its keyframe of that tick and the client rolls back onto it.
+ */
+public class RollbackSession implements Closeable {
+    /* PROTOCOL */
+    private static final byte HELLO = 1;
+    private static final byte SETUP = 2;
+    private static final byte INPUT = 3;
+    private static final byte RESYNC = 4;
+    private static final long HELLO_INTERVAL_NANOS = 100000000L;
+
+    /* ROLLBACK CONSTANTS */
+    // 250 ms of the other chicken can be guessed before this side waits for it
+    public static final int MAX_PREDICTION_TICKS = 15;
+    // ring buffers hold the ticks a rollback or a resync can reach back to and the
+    // confirmed inputs the other side sent ahead, half of it each, a power of two
+    private static final int WINDOW = 64;
+    private static final int MAX_INPUTS_PER_PACKET = 32;
+    // a side that runs ahead of the other skips one step at most this often
+    private static final int YIELD_INTERVAL_FRAMES = 10;
+    private static final int RESYNC_INTERVAL_TICKS = 30;
+    // a rollback can go back to any tick
+    public static final int KEYFRAME_INTERVAL = 1;
+
+
+    /* SESSION ATTRIBUTES */
+    private final UdpLink link;
+    private final int localPlayer;
+    private MatchSetup setup;
+    private Match match;
+    private long now;
+    private boolean isHelloSent;
+    private long lastHelloNanos;
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(UdpLink.MAX_PACKET_BYTES);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(UdpLink.MAX_PACKET_BYTES);
+
+
+    /* ROLLBACK ATTRIBUTES */
+    // indexed by tick & (WINDOW - 1), keyframes[t] is the state before tick t is stepped
+    private final byte[] localInputs = new byte[WINDOW];
+    private final byte[] remoteInputs = new byte[WINDOW];
+    private final MatchKeyframe[] keyframes = new MatchKeyframe[WINDOW];
+    private final long[] localHashes = new long[WINDOW];
+    private final long[] remoteHashes = new long[WINDOW];
+    private final int[] remoteHashTicks = new int[WINDOW];
+
+    private int tick;
+    private int lastConfirmedRemote = -1;
+    private int lastRemoteAck = -1;
+    private int remoteTick;
+    private int lastHashedTick = -1;
+    private int rollbackFrom = Integer.MAX_VALUE;
+    // a resynced keyframe already holds every tick before it, nothing rolls back past it
+    private int resyncedTick;
+    private boolean isResyncPending;
+    // the last advance went back to an earlier state, the ticks played again published no events
+    private boolean isRewound;
+    private int lastResyncTick = -RESYNC_INTERVAL_TICKS;
+    private int framesSinceYield;
+
+
+    /* ROUND TRIP */
+    private int lastRemoteTimeMillis;
+    private long lastRemoteTimeNanos = Long.MIN_VALUE;
+    private int roundTripMillis;
+
+
+    /* STATS */
+    private int rollbacks;
+    private int resimulatedTicks;
+    private int maxRollbackTicks;
+    private int stalledFrames;
+    private int desyncedTicks;
+    private int resyncs;
+    private int malformedPackets;
+
+
+    /* CONSTRUCTOR */
+    private RollbackSession(UdpLink link, int localPlayer, MatchSetup setup) {
+        this.link = link;
+        this.localPlayer = localPlayer;
+        this.setup = setup;
+        for (int i = 0; i < WINDOW; i++) {
+            keyframes[i] = new MatchKeyframe();
+            remoteHashTicks[i] = -1;
+        }
+    }
+
+    // the host plays chicken1 and waits for the first client on the port
+    public static RollbackSession host(int port, MatchSetup setup, NetworkConditions conditions) throws IOException {
+        return new RollbackSession(new UdpLink(port, conditions), MatchResult.CHICKEN_1, setup);
+    }
+
+    // the client plays chicken2 and gets the setup from the host
+    public static RollbackSession join(InetSocketAddress host, NetworkConditions conditions) throws IOException {
+        UdpLink link = new UdpLink(0, conditions);
+        link.setRemote(host);
+        return new RollbackSession(link, MatchResult.CHICKEN_2, null);
+    }
+
+    /* HANDSHAKE */
+    // called every frame until it returns true, then the match is built from getSetup() and started
+    public boolean poll(long nowNanos) throws IOException {
+        this.now = nowNanos;
+        receive();
+
+        // the client asks until the setup arrives, a lost hello or setup is just asked for again
+        if (localPlayer == MatchResult.CHICKEN_2 && setup == null && (!isHelloSent || nowNanos - lastHelloNanos >= HELLO_INTERVAL_NANOS)) {
+            isHelloSent = true;
+            lastHelloNanos = nowNanos;
+            sendBuffer.clear();
+            sendBuffer.put(HELLO);
+            sendBuffer.flip();
+            link.send(sendBuffer, nowNanos);
+        }
+        link.flush(nowNanos);
+        return isReady();
+    }
+
+    public boolean isReady() {
+        return setup != null && link.getRemote() != null;
+    }
+
+    public void start(Match match) {
+        if (!isReady())
+            throw new IllegalStateException("The session has no peer yet");
+
+        this.match = match;
+        match.setKeyframeInterval(KEYFRAME_INTERVAL);
+        match.saveKeyframe(keyframes[slot(0)]);
+    }
+
+    private void sendSetup() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(SETUP);
+        setup.write(out);
+        out.flush();
+
+        sendBuffer.clear();
+        sendBuffer.put(bytes.toByteArray());
+        sendBuffer.flip();
+        link.send(sendBuffer, now);
+    }
+
+
+    /* ADVANCING */
+    // one fixed step with this frame's local input, false when this side has to wait for the other one
+    public boolean advance(int localInput, long nowNanos) throws IOException {
+        this.now = nowNanos;
+        isRewound = false;
+        receive();
+        if (rollbackFrom < tick || isResyncPending)
+            rollback();
+
+        framesSinceYield++;
+        boolean isStalled = tick - lastConfirmedRemote > MAX_PREDICTION_TICKS || shouldYield();
+        if (!isStalled) {
+            int s = slot(tick);
+            localInputs[s] = (byte) localInput;
+            if (tick > lastConfirmedRemote)
+                remoteInputs[s] = (byte) predictRemoteInput();
+            step(tick);
+            tick++;
+        } else {
+            stalledFrames++;
+        }
+
+        hashConfirmedTicks();
+        sendInputs();
+        link.flush(nowNanos);
+        return !isStalled;
+    }
+
+    // the other chicken keeps doing what it did last, a jump is a single tick and is never repeated
+    private int predictRemoteInput() {
+        if (lastConfirmedRemote < 0)
+            return ChickenInput.NONE;
+        return remoteInputs[slot(lastConfirmedRemote)] & ~ChickenInput.JUMP;
+    }
+
+    private void step(int t) {
+        int s = slot(t);
+        if (localPlayer == MatchResult.CHICKEN_1)
+            match.update(Match.TIME_STEP, localInputs[s], remoteInputs[s]);
+        else
+            match.update(Match.TIME_STEP, remoteInputs[s], localInputs[s]);
+        match.saveKeyframe(keyframes[slot(t + 1)]);
+    }
+
+    private void rollback() {
+        int from = Math.max(rollbackFrom, resyncedTick);
+        rollbackFrom = Integer.MAX_VALUE;
+        // a resync of the tick about to be stepped still replaces the state, it just has nothing to play again
+        boolean isResynced = isResyncPending;
+        isResyncPending = false;
+        if (from > tick || (from == tick && !isResynced))
+            return;
+
+        // the ticks played again already published their combat events, whoever keeps state from
+        // them has to start over from the match after a rewind
+        CombatEventBus events = match.getEventBus();
+        match.setEventBus(null);
+        match.restoreKeyframe(keyframes[slot(from)]);
+        for (int t = from; t < tick; t++) {
+            if (t > lastConfirmedRemote)
+                remoteInputs[slot(t)] = (byte) predictRemoteInput();
+            step(t);
+        }
+        match.setEventBus(events);
+        isRewound = true;
+
+        int depth = tick - from;
+        if (depth > 0) {
+            rollbacks++;
+            resimulatedTicks += depth;
+            maxRollbackTicks = Math.max(maxRollbackTicks, depth);
+        }
+        lastHashedTick = Math.min(lastHashedTick, from - 1);
+    }
+
+    // how far this side is ahead of where the other one is now, in ticks
+    private boolean shouldYield() {
+        if (framesSinceYield < YIELD_INTERVAL_FRAMES || lastConfirmedRemote < 0)
+            return false;
+
+        int oneWayTicks = Math.round(roundTripMillis / 2f / (Match.TIME_STEP * 1000));
+        if (tick - (remoteTick + oneWayTicks) <= 1)
+            return false;
+
+        framesSinceYield = 0;
+        return true;
+    }
+
+
+    /* DESYNC DETECTION */
+    private void hashConfirmedTicks() throws IOException {
+        while (lastHashedTick < lastConfirmedRemote && lastHashedTick + 1 < tick) {
+            int t = ++lastHashedTick;
+            localHashes[slot(t)] = keyframes[slot(t + 1)].hash();
+            compareHash(t);
+        }
+    }
+
+    private void compareHash(int t) throws IOException {
+        int s = slot(t);
+        if (remoteHashTicks[s] != t || t > lastHashedTick)
+            return;
+
+        remoteHashTicks[s] = -1;
+        if (remoteHashes[s] == localHashes[s])
+            return;
+
+        desyncedTicks++;
+        if (localPlayer == MatchResult.CHICKEN_1 && tick - lastResyncTick >= RESYNC_INTERVAL_TICKS)
+            sendResync();
+    }
+
+    // the host's state after the last tick both sides hashed replaces the client's
+    private void sendResync() throws IOException {
+        int resyncTick = lastHashedTick + 1;
+        lastResyncTick = tick;
+
+        sendBuffer.clear();
+        sendBuffer.put(RESYNC);
+        keyframes[slot(resyncTick)].write(sendBuffer);
+        sendBuffer.flip();
+        link.send(sendBuffer, now);
+    }
+
+
+    /* PACKETS */
+    private void sendInputs() throws IOException {
+        // every input the other side hasn't confirmed goes out again, a lost packet costs nothing extra
+        int start = Math.max(lastRemoteAck + 1, tick - WINDOW + 1);
+        int count = Math.min(tick - start, MAX_INPUTS_PER_PACKET);
+        int nowMillis = (int) (now / 1000000L);
+
+        sendBuffer.clear();
+        sendBuffer.put(INPUT);
+        sendBuffer.putInt(tick);
+        sendBuffer.putInt(lastConfirmedRemote);
+        sendBuffer.putInt(lastHashedTick);
+        sendBuffer.putLong(lastHashedTick >= 0 ? localHashes[slot(lastHashedTick)] : 0);
+        sendBuffer.putInt(nowMillis);
+        sendBuffer.putInt(lastRemoteTimeMillis);
+        sendBuffer.putInt(lastRemoteTimeNanos != Long.MIN_VALUE ? (int) ((now - lastRemoteTimeNanos) / 1000000L) : -1);
+        sendBuffer.putInt(start);
+        sendBuffer.put((byte) count);
+        for (int t = start; t < start + count; t++)
+            sendBuffer.put(localInputs[slot(t)]);
+        sendBuffer.flip();
+        link.send(sendBuffer, now);
+    }
+
+    private void receive() throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress sender = link.receive(receiveBuffer);
+            if (sender == null)
+                return;
+            receiveBuffer.flip();
+
+            // a broken packet is counted and skipped, it never takes the session down
+            try {
+                handlePacket(sender);
+            } catch (RuntimeException e) {
+                malformedPackets++;
+            }
+        }
+    }
+
+    private void handlePacket(SocketAddress sender) throws IOException {
+        byte type = receiveBuffer.get();
+
+        // the host takes the first client that says hello and answers every hello after that with the setup
+        if (type == HELLO && localPlayer == MatchResult.CHICKEN_1) {
+            if (link.getRemote() == null)
+                link.setRemote(sender);
+            if (sender.equals(link.getRemote()))
+                sendSetup();
+            return;
+        }
+        if (!sender.equals(link.getRemote()))
+            return;
+
+        if (type == SETUP && setup == null) {
+            byte[] bytes = new byte[receiveBuffer.remaining()];
+            receiveBuffer.get(bytes);
+            setup = MatchSetup.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } else if (type == INPUT && match != null) {
+            handleInputs();
+        } else if (type == RESYNC && match != null && localPlayer == MatchResult.CHICKEN_2) {
+            handleResync();
+        }
+    }
+
+    private void handleInputs() throws IOException {
+        int senderTick = receiveBuffer.getInt();
+        int ack = receiveBuffer.getInt();
+        int hashTick = receiveBuffer.getInt();
+        long hash = receiveBuffer.getLong();
+        int timeMillis = receiveBuffer.getInt();
+        int echoMillis = receiveBuffer.getInt();
+        int echoHoldMillis = receiveBuffer.getInt();
+        int start = receiveBuffer.getInt();
+        int count = receiveBuffer.get() & 0xFF;
+
+        remoteTick = Math.max(remoteTick, senderTick);
+        lastRemoteAck = Math.max(lastRemoteAck, ack);
+        lastRemoteTimeMillis = timeMillis;
+        lastRemoteTimeNanos = now;
+
+        // our own send time came back, minus how long the other side sat on it
+        if (echoHoldMillis >= 0) {
+            int sample = (int) (now / 1000000L) - echoMillis - echoHoldMillis;
+            roundTripMillis = roundTripMillis == 0 ? sample : (roundTripMillis * 7 + sample) / 8;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int t = start + i;
+            byte input = receiveBuffer.get();
+            if (t != lastConfirmedRemote + 1)
+                continue;
+            // too far ahead to keep, it is sent again once this side catches up
+            if (t - tick >= WINDOW / 2)
+                break;
+
+            int s = slot(t);
+            if (t < tick && remoteInputs[s] != input)
+                rollbackFrom = Math.min(rollbackFrom, t);
+            remoteInputs[s] = input;
+            lastConfirmedRemote = t;
+        }
+
+        if (hashTick >= 0 && hashTick > tick - WINDOW) {
+            int s = slot(hashTick);
+            remoteHashes[s] = hash;
+            remoteHashTicks[s] = hashTick;
+            compareHash(hashTick);
+        }
+    }
+
+    private void handleResync() {
+        int resyncTick = receiveBuffer.getInt(receiveBuffer.position());
+        if (resyncTick > tick || tick - resyncTick >= WINDOW / 2 || resyncTick <= resyncedTick)
+            return;
+
+        keyframes[slot(resyncTick)].read(receiveBuffer);
+        resyncedTick = resyncTick;
+        isResyncPending = true;
+        rollbackFrom = Math.min(rollbackFrom, resyncTick);
+        lastHashedTick = Math.min(lastHashedTick, resyncTick - 1);
+        resyncs++;
+    }
+
+    private static int slot(int tick) {
+        return tick & (WINDOW - 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        link.close();
+    }
+
+
+    /* GETTERS */
+    public MatchSetup getSetup() {
+        return setup;
+    }
+
+    public int getLocalPlayer() {
+        return localPlayer;
+    }
+
+    public int getLocalPort() throws IOException {
+        return link.getLocalPort();
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    // true after an advance that rolled back or resynced, the chickens may have lost or regained hp without an event
+    public boolean isRewound() {
+        return isRewound;
+    }
+
+    public int getLastConfirmedRemote() {
+        return lastConfirmedRemote;
+    }
+
+    public int getLastHashedTick() {
+        return lastHashedTick;
+    }
+
+    // the hash of the state after a confirmed tick, only for the last WINDOW ticks
+    public long getHash(int t) {
+        return localHashes[slot(t)];
+    }
+
+    public int getRoundTripMillis() {
+        return roundTripMillis;
+    }
+
+    public int getRollbacks() {
+        return rollbacks;
+    }
+
+    public int getResimulatedTicks() {
+        return resimulatedTicks;
+    }
+
+    public int getMaxRollbackTicks() {
+        return maxRollbackTicks;
+    }
+
+    public int getStalledFrames() {
+        return stalledFrames;
+    }
+
+    public int getDesyncedTicks() {
+        return desyncedTicks;
+    }
+
+    public int getResyncs() {
+        return resyncs;
+    }
+
+    public int getMalformedPackets() {
+        return malformedPackets;
+    }
+}
@@ -0,0 +1,464 @@
+package com.capstone.game.Network;
+
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchSetup;
+import com.capstone.game.Simulation.SnapshotBuffer;
+import com.capstone.game.Simulation.WorldSnapshot;
+import com.capstone.game.Simulation.WorldStateCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Streams a running match to thousands of TCP spectators. The game thread
+ * only publishes snapshots into a SnapshotBuffer. The server thread accepts
+ * spectators, picks up the newest snapshot at the broadcast rate and encodes
+ * it once into a varint length prefixed WorldState. A few shard threads, each
+ * with its own selector and share of the spectators, write that same frame
+ * to all of them.
+ *
+ * A spectator still busy with an older frame only keeps the newest one queued
+ * and skips the ones in between, and its socket send buffer is kept small, so
+ * a slow viewer costs two frames of memory and a few frames of lag at most and
+ * never holds up the others. Every frame is a full snapshot, so whichever
+ * frame a spectator gets next decodes on its own.
+ */
+public class SpectatorServer implements Runnable {
+    /* SERVER CONSTANTS */
+    public static final int DEFAULT_BROADCAST_RATE = 30;
+    public static final int DEFAULT_MAX_SPECTATORS = 10000;
+    private static final int MAX_SHARDS = 4;
+    private static final int ACCEPT_BACKLOG = 1024;
+    // a couple dozen frames, more would only make a slow viewer watch further in the past
+    private static final int SEND_BUFFER_BYTES = 4096;
+    // a spectator that hasn't taken a single frame for this long is cut off
+    private static final long STALLED_SPECTATOR_NANOS = 5000000000L;
+    private static final long IDLE_SELECT_MILLIS = 100;
+    private static final int MAX_VARINT_BYTES = 5;
+
+
+    /* SERVER ATTRIBUTES */
+    private final int port;
+    private final long broadcastIntervalNanos;
+    private final int maxSpectators;
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+    private final WorldStateCodec codec = new WorldStateCodec();
+    private final Shard[] shards;
+    private final AtomicInteger spectatorCount = new AtomicInteger();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+    private volatile boolean isRunning;
+    private int nextShard;
+    private volatile long broadcastFrames;
+
+
+    /* CONSTRUCTOR */
+    public SpectatorServer(int port) {
+        this(port, DEFAULT_BROADCAST_RATE, DEFAULT_MAX_SPECTATORS);
+    }
+
+    public SpectatorServer(int port, int broadcastRate, int maxSpectators) {
+        this.port = port;
+        this.broadcastIntervalNanos = 1000000000L / broadcastRate;
+        this.maxSpectators = maxSpectators;
+
+        int shardCount = Math.max(1, Math.min(MAX_SHARDS, Runtime.getRuntime().availableProcessors() / 2));
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++)
+            shards[i] = new Shard(i);
+    }
+
+    // before start, a spectator joining late learns from every frame what it is watching
+    public void setMatchInfo(MatchSetup setup) {
+        codec.setMatchInfo(setup.seed, setup.arenaColumns);
+    }
+
+
+    /* LIFECYCLE */
+    public synchronized void start() throws IOException {
+        if (thread != null)
+            return;
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        isRunning = true;
+        for (Shard shard : shards)
+            shard.start();
+        thread = new Thread(this, "spectator-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        isRunning = false;
+        selector.wakeup();
+        join(thread);
+        for (Shard shard : shards)
+            shard.stop();
+        thread = null;
+
+        closeQuietly(serverChannel);
+        closeQuietly(selector);
+    }
+
+
+    /* PUBLISHING */
+    // called on the thread that steps the match, after a step
+    public void publish(Match match) {
+        snapshots.getBack().set(match, System.nanoTime());
+        snapshots.publish();
+        wakeUp(selector);
+    }
+
+    // for a match stepped on the simulation thread, the snapshot is copied
+    public void publish(WorldSnapshot snapshot) {
+        snapshots.getBack().set(snapshot);
+        snapshots.publish();
+        wakeUp(selector);
+    }
+
+
+    /* SERVER THREAD */
+    @Override
+    public void run() {
+        long nextBroadcast = System.nanoTime();
+        int lastTick = -1;
+        while (isRunning) {
+            try {
+                long now = System.nanoTime();
+                if (now >= nextBroadcast) {
+                    WorldSnapshot snapshot = snapshots.acquireLatest();
+                    if (snapshot != null && snapshot.tick != lastTick) {
+                        lastTick = snapshot.tick;
+                        broadcast(snapshot);
+                        nextBroadcast = Math.max(nextBroadcast + broadcastIntervalNanos, now);
+                    }
+                }
+
+                // before the next broadcast is due only new spectators wake the selector, after it a publish does too
+                long waitNanos = nextBroadcast - System.nanoTime();
+                selector.select(waitNanos > 0 ? Math.max(1, waitNanos / 1000000L) : IDLE_SELECT_MILLIS);
+                selector.selectedKeys().clear();
+                accept();
+            } catch (IOException e) {
+                System.out.println("Spectator server error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void broadcast(WorldSnapshot snapshot) throws IOException {
+        int length = codec.encodeFull(snapshot);
+        Frame frame = new Frame(broadcastFrames, codec.getBuffer(), length, shards.length);
+        broadcastFrames++;
+        for (Shard shard : shards)
+            shard.offer(frame);
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            if (spectatorCount.get() >= maxSpectators) {
+                channel.close();
+                continue;
+            }
+
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_BYTES);
+            spectatorCount.incrementAndGet();
+            shards[nextShard].add(channel);
+            nextShard = (nextShard + 1) % shards.length;
+        }
+    }
+
+    private static void wakeUp(Selector selector) {
+        if (selector != null)
+            selector.wakeup();
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null)
+                closeable.close();
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+
+
+    /* GETTERS */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    public int getSpectatorCount() {
+        return spectatorCount.get();
+    }
+
+    public long getBroadcastFrames() {
+        return broadcastFrames;
+    }
+
+    public long getSkippedFrames() {
+        long skipped = 0;
+        for (Shard shard : shards)
+            skipped += shard.skippedFrames;
+        return skipped;
+    }
+
+    public long getDroppedSpectators() {
+        long dropped = 0;
+        for (Shard shard : shards)
+            dropped += shard.droppedSpectators;
+        return dropped;
+    }
+
+
+    // one selector thread writing frames to its share of the spectators
+    private class Shard implements Runnable {
+        final int index;
+        final ArrayList<Spectator> spectators = new ArrayList<>();
+        final ConcurrentLinkedQueue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+        final ByteBuffer discarded = ByteBuffer.allocate(256);
+        Selector shardSelector;
+        Thread shardThread;
+        volatile Frame latest;
+        Frame lastFanned;
+        volatile long skippedFrames;
+        volatile long droppedSpectators;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void start() throws IOException {
+            shardSelector = Selector.open();
+            shardThread = new Thread(this, "spectator-shard-" + index);
+            shardThread.setDaemon(true);
+            shardThread.start();
+        }
+
+        void stop() {
+            shardSelector.wakeup();
+            join(shardThread);
+            for (Spectator spectator : spectators)
+                closeQuietly(spectator.channel);
+            for (SocketChannel channel : incoming)
+                closeQuietly(channel);
+            spectators.clear();
+            incoming.clear();
+            closeQuietly(shardSelector);
+        }
+
+        void add(SocketChannel channel) {
+            incoming.add(channel);
+            shardSelector.wakeup();
+        }
+
+        void offer(Frame frame) {
+            latest = frame;
+            shardSelector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (isRunning) {
+                try {
+                    shardSelector.select(IDLE_SELECT_MILLIS);
+                    long now = System.nanoTime();
+                    register(now);
+
+                    Frame frame = latest;
+                    if (frame != lastFanned) {
+                        // a shard that fell behind the broadcasts skips the frames it missed for everyone
+                        if (lastFanned != null)
+                            skippedFrames += (frame.sequence - lastFanned.sequence - 1) * spectators.size();
+                        lastFanned = frame;
+                        fanOut(frame, now);
+                    }
+                    handleKeys(now);
+                } catch (IOException e) {
+                    System.out.println("Spectator server error: " + e.getMessage());
+                }
+            }
+        }
+
+        private void register(long now) throws IOException {
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                Spectator spectator = new Spectator(channel);
+                spectator.key = channel.register(shardSelector, SelectionKey.OP_READ, spectator);
+                spectators.add(spectator);
+
+                // a new spectator starts on the newest frame instead of waiting for the next one
+                if (lastFanned != null) {
+                    spectator.startFrame(lastFanned, now);
+                    writeOrDrop(spectator, spectators.size() - 1, now);
+                }
+            }
+        }
+
+        private void fanOut(Frame frame, long now) {
+            for (int i = spectators.size() - 1; i >= 0; i--) {
+                Spectator spectator = spectators.get(i);
+                if (spectator.frame == null) {
+                    spectator.startFrame(frame, now);
+                    writeOrDrop(spectator, i, now);
+                } else if (now - spectator.frameStartNanos > STALLED_SPECTATOR_NANOS) {
+                    drop(spectator, i);
+                } else {
+                    // half a frame on the wire can't be taken back, only the queued one is replaced
+                    if (spectator.next != null)
+                        skippedFrames++;
+                    spectator.next = frame;
+                }
+            }
+        }
+
+        private void handleKeys(long now) {
+            Iterator<SelectionKey> keys = shardSelector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid())
+                    continue;
+
+                Spectator spectator = (Spectator) key.attachment();
+                try {
+                    if (key.isReadable() && !read(spectator))
+                        drop(spectator, spectators.indexOf(spectator));
+                    else if (key.isValid() && key.isWritable())
+                        write(spectator, now);
+                } catch (IOException e) {
+                    drop(spectator, spectators.indexOf(spectator));
+                }
+            }
+        }
+
+        // spectators don't talk, reading only notices when one hangs up
+        private boolean read(Spectator spectator) throws IOException {
+            int read;
+            do {
+                discarded.clear();
+                read = spectator.channel.read(discarded);
+            } while (read > 0);
+            return read == 0;
+        }
+
+        private void writeOrDrop(Spectator spectator, int index, long now) {
+            try {
+                write(spectator, now);
+            } catch (IOException e) {
+                drop(spectator, index);
+            }
+        }
+
+        private void write(Spectator spectator, long now) throws IOException {
+            while (spectator.frame != null) {
+                // this shard's view of the shared bytes, its position is only set for this one write
+                ByteBuffer bytes = spectator.frame.views[index];
+                bytes.limit(spectator.frame.length).position(spectator.offset);
+                spectator.channel.write(bytes);
+                spectator.offset = bytes.position();
+
+                if (spectator.offset < spectator.frame.length) {
+                    spectator.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+
+                Frame next = spectator.next;
+                spectator.next = null;
+                if (next != null)
+                    spectator.startFrame(next, now);
+                else
+                    spectator.frame = null;
+            }
+            spectator.key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private void drop(Spectator spectator, int index) {
+            if (index < 0)
+                return;
+
+            // swap the last one in, the order doesn't matter
+            int last = spectators.size() - 1;
+            spectators.set(index, spectators.get(last));
+            spectators.remove(last);
+            spectatorCount.decrementAndGet();
+            droppedSpectators++;
+            spectator.key.cancel();
+            closeQuietly(spectator.channel);
+        }
+    }
+
+    // one encoded snapshot, every shard writes it from the same bytes through its own view
+    private static class Frame {
+        final long sequence;
+        final ByteBuffer[] views;
+        final int length;
+
+        Frame(long sequence, byte[] message, int messageLength, int shardCount) {
+            this.sequence = sequence;
+            byte[] bytes = new byte[MAX_VARINT_BYTES + messageLength];
+            int offset = 0;
+            int value = messageLength;
+            while ((value & ~0x7F) != 0) {
+                bytes[offset++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[offset++] = (byte) value;
+            System.arraycopy(message, 0, bytes, offset, messageLength);
+
+            this.length = offset + messageLength;
+            this.views = new ByteBuffer[shardCount];
+            for (int i = 0; i < shardCount; i++)
+                views[i] = ByteBuffer.wrap(bytes);
+        }
+    }
+
+    private static class Spectator {
+        final SocketChannel channel;
+        SelectionKey key;
+        Frame frame;
+        int offset;
+        long frameStartNanos;
+        Frame next;
+
+        Spectator(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void startFrame(Frame frame, long now) {
+            this.frame = frame;
+            this.offset = 0;
+            this.frameStartNanos = now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.capstone.game.Network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/*
+ * One non-blocking UDP socket talking to one peer. Sending never waits and
+ * receiving returns null when nothing is there, so both can be called from
+ * the game loop. With NetworkConditions set, outgoing packets are copied
+ * into a fixed pool and only go out once their simulated delay has passed.
+ */
+public class UdpLink implements Closeable {
+    public static final int MAX_PACKET_BYTES = 512;
+    private static final int MAX_DELAYED_PACKETS = 256;
+
+    private final DatagramChannel channel;
+    private final NetworkConditions conditions;
+    private SocketAddress remote;
+
+    // packets held back by the simulated latency, unsorted since jitter reorders them anyway
+    private final ByteBuffer[] delayed = new ByteBuffer[MAX_DELAYED_PACKETS];
+    private final long[] releaseNanos = new long[MAX_DELAYED_PACKETS];
+    private int delayedCount;
+
+    private int sentPackets;
+    private int droppedPackets;
+
+    public UdpLink(int localPort, NetworkConditions conditions) throws IOException {
+        this.conditions = conditions;
+        this.channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(new InetSocketAddress(localPort));
+        for (int i = 0; i < MAX_DELAYED_PACKETS; i++)
+            delayed[i] = ByteBuffer.allocate(MAX_PACKET_BYTES);
+    }
+
+    // consumes the packet, from its position to its limit
+    public void send(ByteBuffer packet, long nowNanos) throws IOException {
+        if (remote == null)
+            return;
+
+        sentPackets++;
+        if (conditions.shouldDrop()) {
+            packet.position(packet.limit());
+            droppedPackets++;
+            return;
+        }
+        if (conditions.isPerfect()) {
+            channel.send(packet, remote);
+            return;
+        }
+
+        // a full pool behaves like a full router queue
+        if (delayedCount == MAX_DELAYED_PACKETS) {
+            packet.position(packet.limit());
+            droppedPackets++;
+            return;
+        }
+        ByteBuffer copy = delayed[delayedCount];
+        copy.clear();
+        copy.put(packet);
+        copy.flip();
+        releaseNanos[delayedCount] = nowNanos + conditions.nextDelayNanos();
+        delayedCount++;
+    }
+
+    // sends the held back packets whose delay is over
+    public void flush(long nowNanos) throws IOException {
+        int i = 0;
+        while (i < delayedCount) {
+            if (releaseNanos[i] > nowNanos) {
+                i++;
+                continue;
+            }
+
+            channel.send(delayed[i], remote);
+
+            // swap the last one in, the buffers are kept, only their order changes
+            delayedCount--;
+            ByteBuffer sent = delayed[i];
+            delayed[i] = delayed[delayedCount];
+            releaseNanos[i] = releaseNanos[delayedCount];
+            delayed[delayedCount] = sent;
+        }
+    }
+
+    // fills the buffer from position and returns the sender, null when no packet is waiting
+    public SocketAddress receive(ByteBuffer buffer) throws IOException {
+        return channel.receive(buffer);
+    }
+
+    public void setRemote(SocketAddress remote) {
+        this.remote = remote;
+    }
+
+    public SocketAddress getRemote() {
+        return remote;
+    }
+
+    public int getLocalPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    public int getSentPackets() {
+        return sentPackets;
+    }
+
+    public int getDroppedPackets() {
+        return droppedPackets;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,44 @@
+package com.capstone.game.Persistence;
+
+import com.capstone.game.Simulation.ChickenSpec;
+
+/*
+ * One chicken's record over every stored match, as the Leaderboard hands it
+ * out. A chicken is its builder stats, where it started doesn't matter, so
+ * the spec is always the one at the left start. Immutable, safe to keep and
+ * share between threads.
+ */
+public final class ChickenStats {
+    public final ChickenSpec chicken;
+    public final int matches;
+    public final int wins;
+    public final int losses;
+    public final int draws;
+    public final double damageDealt;
+    public final long attacks;
+
+    public ChickenStats(ChickenSpec chicken, int matches, int wins, int losses, int draws, double damageDealt, long attacks) {
+        this.chicken = chicken;
+        this.matches = matches;
+        this.wins = wins;
+        this.losses = losses;
+        this.draws = draws;
+        this.damageDealt = damageDealt;
+        this.attacks = attacks;
+    }
+
+    // hp taken off opponents per match
+    public double getAverageDamage() {
+        return matches > 0 ? damageDealt / matches : 0;
+    }
+
+    public double getWinRate() {
+        return matches > 0 ? (double) wins / matches : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ChickenStats{chicken=" + chicken + ", matches=" + matches + ", wins=" + wins + ", losses=" + losses
+                + ", draws=" + draws + ", averageDamage=" + getAverageDamage() + ", attacks=" + attacks + "}";
+    }
+}
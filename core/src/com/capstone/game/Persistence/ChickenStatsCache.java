@@ -0,0 +1,106 @@
+package com.capstone.game.Persistence;
+
+import com.capstone.game.Simulation.ChickenSpec;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/*
+ * Bounded least-recently-used cache of per-chicken stats, an entry is removed
+ * as soon as the chicken plays again. Split into stripes by the chicken's
+ * hash, each its own access-ordered map behind its own lock, so lobby threads
+ * looking up different chickens don't queue on one monitor while they hold
+ * the leaderboard's read lock. Recency is kept per stripe.
+ */
+public class ChickenStatsCache {
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ChickenStatsCache(int capacity) {
+        // every stripe gets its share rounded up, so no chicken is evicted before the cache holds capacity
+        int stripeCapacity = (capacity + STRIPES - 1) / STRIPES;
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new Stripe(stripeCapacity);
+    }
+
+    // the stats are whole numbers, their float bits end in zeros, so the stripe comes from the top bits of a multiplied hash
+    private Stripe stripe(ChickenSpec chicken) {
+        return stripes[chicken.hashCode() * 0x9E3779B9 >>> (32 - STRIPE_BITS)];
+    }
+
+    public ChickenStats get(ChickenSpec chicken) {
+        Stripe stripe = stripe(chicken);
+        synchronized (stripe) {
+            return stripe.get(chicken);
+        }
+    }
+
+    public void put(ChickenSpec chicken, ChickenStats stats) {
+        Stripe stripe = stripe(chicken);
+        synchronized (stripe) {
+            stripe.put(chicken, stats);
+        }
+    }
+
+    public void remove(ChickenSpec chicken) {
+        Stripe stripe = stripe(chicken);
+        synchronized (stripe) {
+            stripe.remove(chicken);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    // an access-ordered map that drops its least recently used entry once it holds more than capacity
+    private static class Stripe {
+        private final LinkedHashMap<ChickenSpec, ChickenStats> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        ChickenStats get(ChickenSpec chicken) {
+            return entries.get(chicken);
+        }
+
+        void put(ChickenSpec chicken, ChickenStats stats) {
+            entries.put(chicken, stats);
+            if (entries.size() > capacity) {
+                Iterator<ChickenSpec> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        void remove(ChickenSpec chicken) {
+            entries.remove(chicken);
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            entries.clear();
+        }
+    }
+}
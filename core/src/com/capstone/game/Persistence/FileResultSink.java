@@ -0,0 +1,197 @@
+package com.capstone.game.Persistence;
+
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.MatchResult;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/*
+ * Appends records to a CSV file, one line each with the same columns as the
+ * match_results table. Stands in for the database when there is none, in
+ * tests and on machines that only run headless matches. A batch is stored
+ * all or not at all: a write that fails halfway is cut off again, and a line
+ * torn by a crash is skipped when loading and cut off before appending.
+ */
+public class FileResultSink implements ResultSink {
+    public static final String HEADER = "played_at,winner,ticks,"
+            + "chicken1_max_hp,chicken1_damage,chicken1_speed,chicken1_hp,chicken1_attacks,"
+            + "chicken2_max_hp,chicken2_damage,chicken2_speed,chicken2_hp,chicken2_attacks";
+
+    private final File file;
+    private final StringBuilder lines = new StringBuilder(256);
+    private FileChannel channel;
+    // where the last stored batch ends, anything after it was left by a write that failed
+    private long length = -1;
+
+    public FileResultSink(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void write(List<MatchRecord> batch) throws IOException {
+        if (channel == null)
+            open();
+
+        // the batch is formatted first and goes out in one write
+        lines.setLength(0);
+        if (length == 0)
+            lines.append(HEADER).append('\n');
+        for (MatchRecord record : batch)
+            appendLine(record);
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(lines));
+
+        try {
+            if (channel.size() != length)
+                channel.truncate(length);
+            while (bytes.hasRemaining())
+                channel.write(bytes, length + bytes.position());
+        } catch (IOException e) {
+            // the retry writes the whole batch again, none of it may stay behind
+            try {
+                channel.truncate(length);
+            } catch (IOException truncateError) {
+                // the retry reopens the file and cuts it then
+                e.addSuppressed(truncateError);
+                close();
+            }
+            throw e;
+        }
+        length += bytes.limit();
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+            throw new IOException("Can't create " + parent);
+
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        // a line torn by a crash is cut off before anything is appended after it
+        if (length < 0)
+            length = getCompleteLength(channel);
+    }
+
+    // up to and including the last line break
+    private static long getCompleteLength(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear();
+            buffer.limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0)
+                    break;
+            }
+
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n')
+                    return start + i + 1;
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private void appendLine(MatchRecord record) {
+        MatchResult result = record.result;
+        lines.append(record.playedAtMillis).append(',')
+                .append(result.getWinner()).append(',')
+                .append(result.getTicks()).append(',');
+        appendFloat(record.chicken1.hp).append(',');
+        appendFloat(record.chicken1.damage).append(',');
+        appendFloat(record.chicken1.speed).append(',');
+        appendFloat(result.getChicken1Hp()).append(',');
+        lines.append(result.getChicken1Attacks()).append(',');
+        appendFloat(record.chicken2.hp).append(',');
+        appendFloat(record.chicken2.damage).append(',');
+        appendFloat(record.chicken2.speed).append(',');
+        appendFloat(result.getChicken2Hp()).append(',');
+        lines.append(result.getChicken2Attacks()).append('\n');
+    }
+
+    // two decimals without String.format, which costs more than the rest of the line
+    private StringBuilder appendFloat(float value) {
+        long hundredths = Math.round(value * 100.0);
+        if (hundredths < 0) {
+            lines.append('-');
+            hundredths = -hundredths;
+        }
+        long fraction = hundredths % 100;
+        return lines.append(hundredths / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+    }
+
+    // everything stored so far, before the writer starts appending
+    public void loadInto(Leaderboard leaderboard) throws IOException {
+        if (!file.exists())
+            return;
+
+        boolean isTorn = !endsWithLineBreak(file);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16);
+        try {
+            String line = reader.readLine();
+            String next = line != null ? reader.readLine() : null;
+            // a header torn by a crash means nothing was stored yet
+            if (line == null || (next == null && isTorn && HEADER.startsWith(line)))
+                return;
+            if (!line.equals(HEADER))
+                throw new IOException("Not a match result file: " + file);
+
+            while ((line = next) != null) {
+                next = reader.readLine();
+                if (next == null && isTorn) {
+                    System.out.println("Skipping the incomplete last line of " + file + ": " + line);
+                    break;
+                }
+                if (!line.isEmpty())
+                    leaderboard.add(parseLine(line));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static boolean endsWithLineBreak(File file) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            if (input.length() == 0)
+                return true;
+            input.seek(input.length() - 1);
+            return input.read() == '\n';
+        } finally {
+            input.close();
+        }
+    }
+
+    static MatchRecord parseLine(String line) throws IOException {
+        String[] columns = line.split(",");
+        if (columns.length != 13)
+            throw new IOException("Malformed match result line: " + line);
+
+        try {
+            ChickenSpec chicken1 = ChickenSpec.left(Float.parseFloat(columns[3]), Float.parseFloat(columns[4]), Float.parseFloat(columns[5]));
+            ChickenSpec chicken2 = ChickenSpec.right(Float.parseFloat(columns[8]), Float.parseFloat(columns[9]), Float.parseFloat(columns[10]));
+            MatchResult result = new MatchResult(Integer.parseInt(columns[1]), Float.parseFloat(columns[6]), Float.parseFloat(columns[11]),
+                    Integer.parseInt(columns[2]), Integer.parseInt(columns[7]), Integer.parseInt(columns[12]));
+            return new MatchRecord(Long.parseLong(columns[0]), chicken1, chicken2, result);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed match result line: " + line, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null)
+            channel.close();
+        channel = null;
+    }
+}
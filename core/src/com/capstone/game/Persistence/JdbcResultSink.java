@@ -0,0 +1,141 @@
+package com.capstone.game.Persistence;
+
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.MatchResult;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/*
+ * Stores records in the match_results table through JDBC, one batch insert
+ * and one commit per batch. The connection is opened on the first write and
+ * thrown away after any failure, the retry opens a fresh one. With MySQL the
+ * url should carry rewriteBatchedStatements=true, mysqlUrl adds it, so the
+ * driver sends a batch as one multi-row INSERT instead of a round trip per row.
+ */
+public class JdbcResultSink implements ResultSink {
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS match_results ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "played_at TIMESTAMP(3) NOT NULL, "
+            + "winner TINYINT NOT NULL, "
+            + "ticks INT NOT NULL, "
+            + "chicken1_max_hp FLOAT NOT NULL, chicken1_damage FLOAT NOT NULL, chicken1_speed FLOAT NOT NULL, "
+            + "chicken1_hp FLOAT NOT NULL, chicken1_attacks INT NOT NULL, "
+            + "chicken2_max_hp FLOAT NOT NULL, chicken2_damage FLOAT NOT NULL, chicken2_speed FLOAT NOT NULL, "
+            + "chicken2_hp FLOAT NOT NULL, chicken2_attacks INT NOT NULL)";
+    private static final String INSERT = "INSERT INTO match_results (played_at, winner, ticks, "
+            + "chicken1_max_hp, chicken1_damage, chicken1_speed, chicken1_hp, chicken1_attacks, "
+            + "chicken2_max_hp, chicken2_damage, chicken2_speed, chicken2_hp, chicken2_attacks) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // per chicken totals from both sides of the table, so startup reads one row per chicken instead of one per match
+    private static final String CHICKEN_STATS = "SELECT max_hp, damage, speed, COUNT(*), SUM(won), SUM(lost), SUM(drawn), SUM(dealt), SUM(attacks) FROM ("
+            + "SELECT chicken1_max_hp AS max_hp, chicken1_damage AS damage, chicken1_speed AS speed, "
+            + "winner = 1 AS won, winner = 2 AS lost, winner = 0 AS drawn, "
+            + "GREATEST(chicken2_max_hp - chicken2_hp, 0) AS dealt, chicken1_attacks AS attacks FROM match_results "
+            + "UNION ALL "
+            + "SELECT chicken2_max_hp, chicken2_damage, chicken2_speed, "
+            + "winner = 2, winner = 1, winner = 0, "
+            + "GREATEST(chicken1_max_hp - chicken1_hp, 0), chicken2_attacks FROM match_results"
+            + ") AS sides GROUP BY max_hp, damage, speed";
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    public JdbcResultSink(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public static String mysqlUrl(String host, int port, String database) {
+        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?rewriteBatchedStatements=true";
+    }
+
+    @Override
+    public void write(List<MatchRecord> batch) throws IOException {
+        try {
+            if (connection == null)
+                connect();
+
+            for (MatchRecord record : batch) {
+                MatchResult result = record.result;
+                insert.setTimestamp(1, new Timestamp(record.playedAtMillis));
+                insert.setInt(2, result.getWinner());
+                insert.setInt(3, result.getTicks());
+                insert.setFloat(4, record.chicken1.hp);
+                insert.setFloat(5, record.chicken1.damage);
+                insert.setFloat(6, record.chicken1.speed);
+                insert.setFloat(7, result.getChicken1Hp());
+                insert.setInt(8, result.getChicken1Attacks());
+                insert.setFloat(9, record.chicken2.hp);
+                insert.setFloat(10, record.chicken2.damage);
+                insert.setFloat(11, record.chicken2.speed);
+                insert.setFloat(12, result.getChicken2Hp());
+                insert.setInt(13, result.getChicken2Attacks());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            // whatever state the connection is in, the retry starts over on a new one
+            disconnect();
+            throw new IOException("Error storing " + batch.size() + " match results: " + e.getMessage(), e);
+        }
+    }
+
+    // everything stored so far, before the writer starts using the sink
+    public void loadInto(Leaderboard leaderboard) throws IOException {
+        try {
+            if (connection == null)
+                connect();
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(CHICKEN_STATS)) {
+                while (rows.next()) {
+                    ChickenSpec chicken = ChickenSpec.left(rows.getFloat(1), rows.getFloat(2), rows.getFloat(3));
+                    leaderboard.merge(new ChickenStats(chicken, rows.getInt(4), rows.getInt(5), rows.getInt(6), rows.getInt(7),
+                            rows.getDouble(8), rows.getLong(9)));
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            disconnect();
+            throw new IOException("Error loading match results: " + e.getMessage(), e);
+        }
+    }
+
+    private void connect() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(INSERT);
+    }
+
+    private void disconnect() {
+        try {
+            if (connection != null)
+                connection.close();
+        } catch (SQLException e) {
+            // already broken
+        }
+        connection = null;
+        insert = null;
+    }
+
+    @Override
+    public void close() {
+        disconnect();
+    }
+}
@@ -0,0 +1,241 @@
+package com.capstone.game.Persistence;
+
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.MatchResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * In-memory aggregates over the stored match results, for the lobby's top-N
+ * list and per-chicken records. The store is read once at startup, after that
+ * every stored batch is added as it is written, so a query never goes back to
+ * the store. Each chicken is held once in a hash map and once in a tree kept
+ * in ranking order: a new result takes the chicken out of the tree, updates
+ * it and puts it back, O(log n), and the top N is the first N of the tree.
+ * Many readers share the lock, a writer has it alone for a couple of tree
+ * operations.
+ */
+public class Leaderboard {
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    // most wins first, fewer matches breaks ties, then whoever was seen first
+    private static final Comparator<Entry> RANKING = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            if (a.wins != b.wins)
+                return a.wins > b.wins ? -1 : 1;
+            if (a.matches != b.matches)
+                return a.matches < b.matches ? -1 : 1;
+            return Integer.compare(a.id, b.id);
+        }
+    };
+
+
+    /* LEADERBOARD ATTRIBUTES */
+    private final HashMap<ChickenSpec, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ChickenStatsCache cache;
+    // the last top list handed out, reused until the ranking changes
+    private volatile TopList top = new TopList(-1, Collections.<ChickenStats>emptyList());
+    private int version;
+    private long records;
+
+
+    /* CONSTRUCTOR */
+    public Leaderboard() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public Leaderboard(int cacheSize) {
+        this.cache = new ChickenStatsCache(cacheSize);
+    }
+
+    // a chicken is its builder stats, matches from either side count for the same one
+    public static ChickenSpec key(ChickenSpec chicken) {
+        return ChickenSpec.left(chicken.hp, chicken.damage, chicken.speed);
+    }
+
+
+    /* UPDATES */
+    public void add(MatchRecord record) {
+        MatchResult result = record.result;
+        ChickenSpec chicken1 = key(record.chicken1);
+        ChickenSpec chicken2 = key(record.chicken2);
+        int chicken1Wins = result.getWinner() == MatchResult.CHICKEN_1 ? 1 : 0;
+        int chicken2Wins = result.getWinner() == MatchResult.CHICKEN_2 ? 1 : 0;
+        int draws = result.getWinner() == MatchResult.DRAW ? 1 : 0;
+        float dealt1 = Math.max(0, record.chicken2.hp - result.getChicken2Hp());
+        float dealt2 = Math.max(0, record.chicken1.hp - result.getChicken1Hp());
+
+        lock.writeLock().lock();
+        try {
+            update(chicken1, 1, chicken1Wins, chicken2Wins, draws, dealt1, result.getChicken1Attacks());
+            update(chicken2, 1, chicken2Wins, chicken1Wins, draws, dealt2, result.getChicken2Attacks());
+            records++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<MatchRecord> batch) {
+        for (MatchRecord record : batch)
+            add(record);
+    }
+
+    // totals for one chicken over many matches, as the store aggregates them at startup
+    public void merge(ChickenStats stats) {
+        lock.writeLock().lock();
+        try {
+            update(key(stats.chicken), stats.matches, stats.wins, stats.losses, stats.draws, stats.damageDealt, stats.attacks);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // with the write lock held
+    private void update(ChickenSpec chicken, int matches, int wins, int losses, int draws, double damageDealt, long attacks) {
+        Entry entry = entries.get(chicken);
+        if (entry == null) {
+            entry = new Entry(chicken, entries.size());
+            entries.put(chicken, entry);
+        } else {
+            ranking.remove(entry);
+        }
+
+        entry.matches += matches;
+        entry.wins += wins;
+        entry.losses += losses;
+        entry.draws += draws;
+        entry.damageDealt += damageDealt;
+        entry.attacks += attacks;
+        ranking.add(entry);
+
+        cache.remove(chicken);
+        version++;
+    }
+
+    // a sink that adds every batch once the wrapped sink stored it, so the board holds exactly what the store does
+    public ResultSink track(final ResultSink sink) {
+        return new ResultSink() {
+            @Override
+            public void write(List<MatchRecord> batch) throws IOException {
+                sink.write(batch);
+                addAll(batch);
+            }
+
+            @Override
+            public void close() throws IOException {
+                sink.close();
+            }
+        };
+    }
+
+
+    /* QUERIES */
+    // the best n chickens, the returned list is shared and must not be changed
+    public List<ChickenStats> getTop(int n) {
+        TopList cached = top;
+        lock.readLock().lock();
+        try {
+            if (cached.version == version && cached.stats.size() >= Math.min(n, entries.size()))
+                return cached.stats.size() > n ? cached.stats.subList(0, n) : cached.stats;
+
+            List<ChickenStats> stats = new ArrayList<>(Math.min(n, entries.size()));
+            for (Entry entry : ranking) {
+                if (stats.size() == n)
+                    break;
+                stats.add(entry.toStats());
+            }
+            stats = Collections.unmodifiableList(stats);
+            top = new TopList(version, stats);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // null for a chicken that never played
+    public ChickenStats getStats(ChickenSpec chicken) {
+        ChickenSpec key = key(chicken);
+        // held while filling the cache, so an update can't slip in between reading and caching
+        lock.readLock().lock();
+        try {
+            ChickenStats stats = cache.get(key);
+            if (stats != null)
+                return stats;
+
+            Entry entry = entries.get(key);
+            if (entry == null)
+                return null;
+            stats = entry.toStats();
+            cache.put(key, stats);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getChickenCount() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // added one by one, merged totals aren't counted
+    public long getRecordCount() {
+        lock.readLock().lock();
+        try {
+            return records;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ChickenStatsCache getCache() {
+        return cache;
+    }
+
+
+    /* ENTRIES */
+    // mutable totals, only changed with the write lock held and while out of the ranking tree
+    private static class Entry {
+        final ChickenSpec chicken;
+        final int id;
+        int matches;
+        int wins;
+        int losses;
+        int draws;
+        double damageDealt;
+        long attacks;
+
+        Entry(ChickenSpec chicken, int id) {
+            this.chicken = chicken;
+            this.id = id;
+        }
+
+        ChickenStats toStats() {
+            return new ChickenStats(chicken, matches, wins, losses, draws, damageDealt, attacks);
+        }
+    }
+
+    private static class TopList {
+        final int version;
+        final List<ChickenStats> stats;
+
+        TopList(int version, List<ChickenStats> stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+}
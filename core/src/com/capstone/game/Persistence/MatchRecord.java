@@ -0,0 +1,32 @@
+package com.capstone.game.Persistence;
+
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.MatchResult;
+
+/*
+ * One finished match as it is stored: when it ended, both chickens' builder
+ * stats and how the fight went. Built on the thread that played the match and
+ * only read after that, by the ResultWriter thread.
+ */
+public final class MatchRecord {
+    public final long playedAtMillis;
+    public final ChickenSpec chicken1;
+    public final ChickenSpec chicken2;
+    public final MatchResult result;
+
+    public MatchRecord(long playedAtMillis, ChickenSpec chicken1, ChickenSpec chicken2, MatchResult result) {
+        this.playedAtMillis = playedAtMillis;
+        this.chicken1 = chicken1;
+        this.chicken2 = chicken2;
+        this.result = result;
+    }
+
+    public MatchRecord(ChickenSpec chicken1, ChickenSpec chicken2, MatchResult result) {
+        this(System.currentTimeMillis(), chicken1, chicken2, result);
+    }
+
+    @Override
+    public String toString() {
+        return "MatchRecord{playedAtMillis=" + playedAtMillis + ", chicken1=" + chicken1 + ", chicken2=" + chicken2 + ", result=" + result + "}";
+    }
+}
@@ -0,0 +1,14 @@
+package com.capstone.game.Persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Where a ResultWriter stores its batches. A failed write throws and is tried
+ * again with the same batch, so a write has to either store all of it or
+ * none of it. Only ever called from the writer thread.
+ */
+public interface ResultSink extends Closeable {
+    void write(List<MatchRecord> batch) throws IOException;
+}
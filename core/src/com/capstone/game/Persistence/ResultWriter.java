@@ -0,0 +1,228 @@
+package com.capstone.game.Persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Takes finished matches from any number of game and simulation threads and
+ * stores them on its own thread. submit only offers the record to a bounded
+ * queue, it never waits: with the queue full, because the sink is down or
+ * can't keep up, the record is dropped and counted instead. The writer thread
+ * collects a batch until it is full or the flush interval has passed, and a
+ * batch the sink fails to store is tried again with a growing pause, so a
+ * database restart costs a delay and not the results.
+ */
+public class ResultWriter implements Runnable {
+    /* WRITER CONSTANTS */
+    public static final int DEFAULT_CAPACITY = 65536;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    private static final long MIN_RETRY_MILLIS = 100;
+    private static final long MAX_RETRY_MILLIS = 10000;
+    // how long close keeps trying to store what is left
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+
+    /* WRITER ATTRIBUTES */
+    private final ResultSink sink;
+    private final ArrayBlockingQueue<MatchRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final ArrayList<MatchRecord> batch;
+    private Thread thread;
+    private volatile boolean isClosed;
+    private volatile long closeDeadlineNanos;
+
+
+    /* STATS */
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private volatile long writtenRecords;
+    private volatile long writtenBatches;
+    private volatile long failedWrites;
+    private volatile long lostRecords;
+
+
+    /* CONSTRUCTOR */
+    public ResultWriter(ResultSink sink) {
+        this(sink, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public ResultWriter(ResultSink sink, int capacity, int batchSize, long flushIntervalMillis) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    // a jdbc url goes to the database, with the user and password from MYSQL_USER and MYSQL_PASSWORD, anything else is a CSV file
+    public static ResultWriter open(String target) {
+        ResultWriter writer = new ResultWriter(openSink(target));
+        writer.start();
+        return writer;
+    }
+
+    // the leaderboard is filled from what the target already holds and then kept up with every stored batch
+    public static ResultWriter open(String target, Leaderboard leaderboard) throws IOException {
+        ResultSink sink = openSink(target);
+        if (sink instanceof JdbcResultSink)
+            ((JdbcResultSink) sink).loadInto(leaderboard);
+        else
+            ((FileResultSink) sink).loadInto(leaderboard);
+
+        ResultWriter writer = new ResultWriter(leaderboard.track(sink));
+        writer.start();
+        return writer;
+    }
+
+    private static ResultSink openSink(String target) {
+        return target.startsWith("jdbc:")
+                ? new JdbcResultSink(target, System.getenv("MYSQL_USER"), System.getenv("MYSQL_PASSWORD"))
+                : new FileResultSink(new File(target));
+    }
+
+
+    /* LIFECYCLE */
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        thread = new Thread(this, "result-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // stores what is queued, giving up on it after a few seconds of failures
+    public synchronized void close() {
+        if (isClosed)
+            return;
+
+        closeDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        isClosed = true;
+        if (thread == null)
+            return;
+
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS + TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /* PRODUCER SIDE */
+    // safe from any thread and never blocks, false when the record was dropped
+    public boolean submit(MatchRecord record) {
+        if (isClosed || !queue.offer(record)) {
+            droppedRecords.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+
+    /* WRITER THREAD */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                fillBatch();
+                if (batch.isEmpty()) {
+                    if (isClosed)
+                        break;
+                    continue;
+                }
+                writeBatch();
+            }
+            // a submit racing close can still land in the queue
+            lostRecords += queue.size();
+        } catch (InterruptedException e) {
+            lostRecords += batch.size() + queue.size();
+        } finally {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                System.out.println("Error closing the result sink: " + e.getMessage());
+            }
+        }
+    }
+
+    // until the batch is full or the flush interval is over, a closing writer takes what is there
+    private void fillBatch() throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize || isClosed)
+                return;
+
+            long waitNanos = deadline - System.nanoTime();
+            if (waitNanos <= 0)
+                return;
+            MatchRecord record = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+            if (record == null)
+                return;
+            batch.add(record);
+        }
+    }
+
+    private void writeBatch() throws InterruptedException {
+        long retryMillis = MIN_RETRY_MILLIS;
+        while (true) {
+            try {
+                sink.write(batch);
+                writtenRecords += batch.size();
+                writtenBatches++;
+                batch.clear();
+                return;
+            } catch (IOException e) {
+                failedWrites++;
+                System.out.println("Error storing match results, retrying in " + retryMillis + " ms: " + e.getMessage());
+            }
+
+            // the queue keeps taking records meanwhile, up to its capacity
+            long sleepMillis = retryMillis;
+            if (isClosed) {
+                long leftMillis = TimeUnit.NANOSECONDS.toMillis(closeDeadlineNanos - System.nanoTime());
+                if (leftMillis <= 0) {
+                    lostRecords += batch.size();
+                    batch.clear();
+                    return;
+                }
+                sleepMillis = Math.min(sleepMillis, leftMillis);
+            }
+            Thread.sleep(sleepMillis);
+            retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+        }
+    }
+
+
+    /* GETTERS */
+    public int getQueuedRecords() {
+        return queue.size();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    public long getWrittenBatches() {
+        return writtenBatches;
+    }
+
+    public long getFailedWrites() {
+        return failedWrites;
+    }
+
+    // given up on when close ran out of time
+    public long getLostRecords() {
+        return lostRecords;
+    }
+}
@@ -11,25 +11,28 @@ import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.capstone.game.CockfightGame;
+import com.capstone.game.Simulation.MatchResult;
 
 public class Hud implements Disposable {
     public Stage stage;
     private Viewport viewport;
     private Integer worldTimer;
     private float timeCount;
-    private Integer score;
 
     Label countdownLabel;
-    Label scoreLabel;
+    Label chicken1HpLabel;
     Label timeLabel;
-    Label levelLabel;
-    Label worldLabel;
-    Label marioLabel;
+    Label chicken2HpLabel;
+    Label chicken2Label;
+    Label chicken1Label;
+
+    // the hp last shown, a label only changes when its number does
+    private final int[] shownHp = {-1, -1, -1};
+    private final StringBuilder text = new StringBuilder(16);
 
     public Hud(SpriteBatch spriteBatch) {
         worldTimer = 300;
         timeCount = 0;
-        score = 0;
 
         viewport = new FitViewport(CockfightGame.V_WIDTH, CockfightGame.V_HEIGHT , new OrthographicCamera());
         stage = new Stage(viewport, spriteBatch);
@@ -39,24 +42,42 @@ public class Hud implements Disposable {
         table.setFillParent(true);
 
         countdownLabel = new Label(String.format("%03d", worldTimer), new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        scoreLabel = new Label(String.format("%06d", score), new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        chicken1HpLabel = new Label("", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
         timeLabel = new Label("TIME", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        levelLabel = new Label("1-1", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        worldLabel = new Label("WORLD", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        marioLabel = new Label("MARIO", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        chicken2HpLabel = new Label("", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        chicken2Label = new Label("CHICKEN 2", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        chicken1Label = new Label("CHICKEN 1", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
 
-        table.add(marioLabel).expandX().padTop(10);
-        table.add(worldLabel).expandX().padTop(10);
+        table.add(chicken1Label).expandX().padTop(10);
+        table.add(chicken2Label).expandX().padTop(10);
         table.add(timeLabel).expandX().padTop(10);
         table.row();
-        table.add(scoreLabel).expandX();
-        table.add(levelLabel).expandX();
+        table.add(chicken1HpLabel).expandX();
+        table.add(chicken2HpLabel).expandX();
         table.add(countdownLabel).expandX();
 
         stage.addActor(table);
     }
 
 
+    // once a frame on the render thread with the hp of the step being drawn, from the chickens or their snapshot.
+    // Not added up from combat events, a consumer of the bus can miss some and the sum would stay wrong
+    public void setHp(float chicken1Hp, float chicken2Hp) {
+        setHpText(chicken1HpLabel, MatchResult.CHICKEN_1, chicken1Hp);
+        setHpText(chicken2HpLabel, MatchResult.CHICKEN_2, chicken2Hp);
+    }
+
+    private void setHpText(Label label, int chicken, float hp) {
+        int shown = (int) Math.ceil(Math.max(0, hp));
+        if (shown == shownHp[chicken])
+            return;
+
+        shownHp[chicken] = shown;
+        text.setLength(0);
+        text.append("HP ").append(shown);
+        label.setText(text);
+    }
+
     @Override
     public void dispose() {
         stage.dispose();
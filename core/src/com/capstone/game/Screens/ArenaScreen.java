@@ -0,0 +1,152 @@
+package com.capstone.game.Screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import com.capstone.game.CockfightGame;
+import com.capstone.game.Simulation.FreeForAll;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Systems.ChickenRenderSystem;
+import com.capstone.game.Tools.ArenaLayout;
+import com.capstone.game.Tools.Assets;
+import com.capstone.game.Tools.B2WorldCreator;
+import com.capstone.game.Tools.ChunkedArena;
+
+// Spectates a free-for-all, the arrow keys pan the camera along the arena
+public class ArenaScreen implements Screen {
+    /* GAME CONSTANTS */
+    private static final float MAX_FRAME_TIME = 0.25f;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private static final float CAMERA_SPEED = 6f;
+
+
+    /* CAMERA ATTRIBUTES */
+    private final OrthographicCamera gameCam;
+    private final Viewport gamePort;
+
+
+    /* TILED MAP ATTRIBUTES */
+    private final TiledMap map;
+    private final OrthogonalTiledMapRenderer renderer;
+    private final ChunkedArena chunkedArena;
+
+
+    /* GAME ATTRIBUTES */
+    private final CockfightGame game;
+    private final String[] skins;
+    private final FreeForAll freeForAll;
+    private final ChickenRenderSystem chickenRenderSystem;
+    private float accumulator;
+
+
+    /* CONSTRUCTOR */
+    public ArenaScreen(CockfightGame game, int chickenCount, String[] skins) {
+        this.game = game;
+        this.skins = skins;
+        this.gameCam = new OrthographicCamera();
+        this.gamePort = new FitViewport(CockfightGame.worldWidth, CockfightGame.worldHeight, gameCam);
+        this.gameCam.position.set(gamePort.getWorldWidth() / 2, gamePort.getWorldHeight() / 2, 0);
+
+        // the arena grows with the number of chickens, only the chunks in view are kept
+        this.map = game.assets.getMap(Assets.MAP_FILE);
+        this.renderer = new OrthogonalTiledMapRenderer(map, 1 / CockfightGame.PPM);
+        ArenaLayout layout = new ArenaLayout(map, FreeForAll.getColumnsFor(chickenCount));
+        this.chunkedArena = new ChunkedArena(map, layout);
+
+        Array<TextureRegion> sheets = new Array<>();
+        for (String skin : skins)
+            sheets.add(game.assets.getChickenRegion(skin));
+
+        this.freeForAll = new FreeForAll(layout, B2WorldCreator.getRectangles(map, B2WorldCreator.GROUND_LAYER), MathUtils.random.nextLong());
+        freeForAll.spawn(chickenCount, sheets);
+        this.chickenRenderSystem = new ChickenRenderSystem(game.spriteBatch);
+        freeForAll.getEngine().addSystem(chickenRenderSystem);
+    }
+
+
+    @Override
+    public void show() {
+    }
+
+    public void update(float dt) {
+        // run the fight in fixed steps, a long hitch is clamped instead of spiraling
+        accumulator += Math.min(dt, MAX_FRAME_TIME);
+        int steps = 0;
+        while (accumulator >= Match.TIME_STEP && steps < MAX_STEPS_PER_FRAME) {
+            freeForAll.update();
+            accumulator -= Match.TIME_STEP;
+            steps++;
+        }
+        if (steps == MAX_STEPS_PER_FRAME)
+            accumulator = Math.min(accumulator, Match.TIME_STEP);
+
+        // pan the camera, clamped to the arena
+        float cameraHalfWidth = gameCam.viewportWidth / 2;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT))
+            gameCam.position.x -= CAMERA_SPEED * dt;
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT))
+            gameCam.position.x += CAMERA_SPEED * dt;
+        gameCam.position.x = MathUtils.clamp(gameCam.position.x, cameraHalfWidth, freeForAll.getLayout().getWidth() - cameraHalfWidth);
+        gameCam.update();
+
+        chunkedArena.update(gameCam.position.x - cameraHalfWidth, gameCam.position.x + cameraHalfWidth);
+    }
+
+    @Override
+    public void render(float delta) {
+        game.renderStats.beginFrame();
+        update(delta);
+
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        chunkedArena.render(renderer, gameCam);
+
+        // every chicken in one batch, drawn between the last two physics states
+        game.spriteBatch.setProjectionMatrix(gameCam.combined);
+        game.spriteBatch.begin();
+        chickenRenderSystem.render(accumulator / Match.TIME_STEP);
+        game.spriteBatch.end();
+        game.renderStats.recordSpritePass();
+
+        game.renderStats.endFrame();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        gamePort.update(width, height);
+    }
+
+    @Override
+    public void pause() {
+
+    }
+
+    @Override
+    public void resume() {
+
+    }
+
+    @Override
+    public void hide() {
+
+    }
+
+    @Override
+    public void dispose() {
+        renderer.dispose();
+        freeForAll.dispose();
+
+        game.assets.release(Assets.MAP_FILE);
+        for (String skin : skins)
+            game.assets.releaseChicken(skin);
+    }
+}
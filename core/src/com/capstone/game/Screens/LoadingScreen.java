@@ -0,0 +1,81 @@
+package com.capstone.game.Screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import com.capstone.game.CockfightGame;
+
+// Shows a progress bar while the queued assets load, then starts the match
+public class LoadingScreen implements Screen {
+    /* LOADING CONSTANTS */
+    private static final int LOAD_BUDGET_MILLIS = 8;
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 16;
+
+    private final CockfightGame game;
+    private final Viewport viewport;
+    private final ShapeRenderer shapeRenderer;
+
+    public LoadingScreen(CockfightGame game) {
+        this.game = game;
+        this.viewport = new FitViewport(CockfightGame.V_WIDTH, CockfightGame.V_HEIGHT, new OrthographicCamera());
+        this.shapeRenderer = new ShapeRenderer();
+    }
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void render(float delta) {
+        // decoding happens on the asset manager's thread, this only finishes uploads within the budget
+        boolean isLoaded = game.assets.update(LOAD_BUDGET_MILLIS);
+
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        float x = (CockfightGame.V_WIDTH - BAR_WIDTH) / 2;
+        float y = (CockfightGame.V_HEIGHT - BAR_HEIGHT) / 2;
+        viewport.apply();
+        shapeRenderer.setProjectionMatrix(viewport.getCamera().combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.end();
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.rect(x, y, BAR_WIDTH * game.assets.getProgress(), BAR_HEIGHT);
+        shapeRenderer.end();
+
+        if (isLoaded) {
+            game.startMatch();
+            dispose();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override
+    public void pause() {
+
+    }
+
+    @Override
+    public void resume() {
+
+    }
+
+    @Override
+    public void hide() {
+
+    }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
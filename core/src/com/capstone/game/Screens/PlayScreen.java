@@ -3,29 +3,50 @@ package com.capstone.game.Screens;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.capstone.game.CockfightGame;
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Network.RollbackSession;
+import com.capstone.game.Network.SpectatorServer;
+import com.capstone.game.Persistence.MatchRecord;
+import com.capstone.game.Persistence.ResultWriter;
 import com.capstone.game.Scenes.Hud;
+import com.capstone.game.Simulation.ChickenInput;
+import com.capstone.game.Simulation.KeyframeStore;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchResult;
+import com.capstone.game.Simulation.MatchSetup;
+import com.capstone.game.Simulation.Replay;
+import com.capstone.game.Simulation.ReplayRecorder;
+import com.capstone.game.Simulation.ReplayTimeline;
+import com.capstone.game.Simulation.SimulationThread;
+import com.capstone.game.Simulation.WorldSnapshot;
 import com.capstone.game.Sprites.Chicken;
+import com.capstone.game.Tools.ArenaLayout;
+import com.capstone.game.Tools.Assets;
 import com.capstone.game.Tools.B2WorldCreator;
+import com.capstone.game.Tools.ChunkedArena;
+import com.capstone.game.Tools.ChunkedColliders;
+import com.capstone.game.Tools.ColliderBaker;
+import com.capstone.game.Tools.StaticMapCache;
 
-import java.util.Random;
+import java.io.IOException;
 
 public class PlayScreen implements Screen {
     /* GAME CONSTANTS */
-    private static final String MAP_FILE = "cockpit/cockpit-new.tmx";
-    private static final float TIME_STEP = 1/60f;
-    private static final int VELOCITY_ITERATIONS = 12;
-    private static final int POSITION_ITERATIONS = 4;
-    private static long time = System.currentTimeMillis();
+    private static final float MAX_FRAME_TIME = 0.25f;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private static final int REPLAY_SEEK_TICKS = 5 * 60;
 
 
     /* CAMERA ATTRIBUTES */
@@ -35,9 +56,11 @@ public class PlayScreen implements Screen {
 
 
     /* TILED MAP ATTRIBUTES */
-    private TmxMapLoader mapLoader;
     private TiledMap map;
     private OrthogonalTiledMapRenderer renderer;
+    private StaticMapCache mapCache;
+    private ArenaLayout arenaLayout;
+    private ChunkedArena chunkedArena;
 
 
     /* BOX 2D ATTRIBUTES */
@@ -49,12 +72,47 @@ public class PlayScreen implements Screen {
     private final CockfightGame game;
     private Chicken chicken1;
     private Chicken chicken2;
-    private final Random random = new Random();
+    private final Match match;
+    private float accumulator;
+    private int chicken1Input;
+    private int chicken2Input;
+    private final SimulationThread simulationThread;
+    private final CombatEventBus combatEvents;
+
+
+    /* REPLAY ATTRIBUTES */
+    private final MatchSetup setup;
+    private ReplayRecorder replayRecorder;
+    private FileHandle replayFile;
+    private ReplayTimeline replayTimeline;
+    private ResultWriter resultWriter;
+
+
+    /* ONLINE ATTRIBUTES */
+    private RollbackSession rollbackSession;
+    private SpectatorServer spectatorServer;
 
 
     /* CONSTRUCTOR */
     public PlayScreen(CockfightGame game, World world, Chicken chicken1, Chicken chicken2) {
+        this(game, world, chicken1, chicken2, false);
+    }
+
+    public PlayScreen(CockfightGame game, World world, Chicken chicken1, Chicken chicken2, boolean isSimulationThreaded) {
+        this(game, world, chicken1, chicken2, new RandomXS128(), CockfightGame.ARENA_COLUMNS, null, isSimulationThreaded);
+    }
+
+    // a match built from a setup is fully seeded, so it can be recorded and played back
+    public PlayScreen(CockfightGame game, World world, MatchSetup setup, boolean isSimulationThreaded) {
+        this(game, world,
+                setup.buildChicken1(world, game.assets.getChickenRegion(setup.chicken1Skin)),
+                setup.buildChicken2(world, game.assets.getChickenRegion(setup.chicken2Skin)),
+                setup.createMatchRandom(), setup.arenaColumns, setup, isSimulationThreaded);
+    }
+
+    private PlayScreen(CockfightGame game, World world, Chicken chicken1, Chicken chicken2, RandomXS128 random, int arenaColumns, MatchSetup setup, boolean isSimulationThreaded) {
         this.game = game;
+        this.setup = setup;
 
         // create the camera used to follow mario through the game world
         this.gameCam = new OrthographicCamera();
@@ -66,7 +124,7 @@ public class PlayScreen implements Screen {
 
         // create the hud and load the map
         this.hud = new Hud(game.spriteBatch);
-        loadMap();
+        loadMap(arenaColumns);
 
         // set the camera to the center of the viewport
         this.gameCam.position.set(gamePort.getWorldWidth() / 2 , gamePort.getWorldHeight() / 2, 0);
@@ -74,161 +132,146 @@ public class PlayScreen implements Screen {
         // create the box2D world
         this.world = world;
         this.box2DRenderer = new Box2DDebugRenderer();
-        new B2WorldCreator(world, map);
 
         // set chickens
         this.chicken1 = chicken1;
         this.chicken2 = chicken2;
 
 
-        // set the contact listener
-        world.setContactListener(new ContactListener() {
-            @Override
-            public void beginContact(Contact contact) {
-                Body bodyA = contact.getFixtureA().getBody();
-                Body bodyB = contact.getFixtureB().getBody();
+        // the match owns the fight rules and the contact listener
+        this.match = new Match(world, chicken1, chicken2, random);
 
-                if ((bodyA.getUserData() instanceof Chicken && bodyB.getUserData() instanceof Chicken)) {
-                    if (random.nextBoolean()) {
-                        chicken1.attack(chicken2);
-                        chicken2.attack(chicken1);
-                    }
-                    else {
-                        chicken2.attack(chicken1);
-                        chicken1.attack(chicken2);
-                    }
+        // a wide arena gets a body per chunk, all of them up front so a restored keyframe finds the same ones
+        if (chunkedArena != null)
+            new ChunkedColliders(world, arenaLayout, B2WorldCreator.getRectangles(map, B2WorldCreator.GROUND_LAYER)).loadAll();
+        else
+            new B2WorldCreator(world, ColliderBaker.load(Gdx.files.internal(Assets.MAP_FILE), B2WorldCreator.GROUND_LAYER));
 
-                    Chicken chickenA = (Chicken) bodyA.getUserData();
-                    Chicken chickenB = (Chicken) bodyB.getUserData();
+        // hits, damage, jumps and deaths go out on the bus for the log and stats, the hud shows the chickens' own hp
+        this.combatEvents = new CombatEventBus();
+        match.setEventBus(combatEvents);
+        hud.setHp(chicken1.getHp(), chicken2.getHp());
 
-                    Vector2 velocityA = chickenA.body.getLinearVelocity();
-                    Vector2 velocityB = chickenB.body.getLinearVelocity();
+        // optionally step the match on its own thread and only draw its snapshots here
+        this.simulationThread = isSimulationThreaded ? new SimulationThread(match) : null;
+    }
 
+    private void loadMap(int arenaColumns) {
+        // the map was preloaded by the loading screen
+        this.map = game.assets.getMap(Assets.MAP_FILE);
+        this.renderer = new OrthogonalTiledMapRenderer(this.map, 1 / CockfightGame.PPM);
+        this.arenaLayout = new ArenaLayout(this.map, arenaColumns);
 
+        // a wide arena only keeps the chunks around the camera, a small one is baked once and drawn as one quad
+        if (arenaLayout.getChunkCount() > 1)
+            this.chunkedArena = new ChunkedArena(this.map, arenaLayout);
+        else
+            this.mapCache = new StaticMapCache(this.map, 1 / CockfightGame.PPM);
+    }
 
-                    float bounceValue = 0.2f;
-                    Vector2 bounceImpulseA = new Vector2(velocityB.x - velocityA.x, velocityB.y - velocityA.y).scl(bounceValue);
-                    Vector2 bounceImpulseB = new Vector2(velocityA.x - velocityB.x, velocityA.y - velocityB.y).scl(bounceValue);
 
-                    chickenA.body.applyLinearImpulse(bounceImpulseA, chickenA.body.getWorldCenter(), true);
-                    chickenB.body.applyLinearImpulse(bounceImpulseB, chickenB.body.getWorldCenter(), true);
-                }
-            }
+    // the replay is written when the screen is disposed
+    public void recordReplay(FileHandle replayFile) {
+        if (setup == null)
+            throw new IllegalStateException("Only a match built from a MatchSetup can be recorded");
 
-            @Override
-            public void endContact(Contact contact) {
-            }
+        this.replayFile = replayFile;
+        this.replayRecorder = new ReplayRecorder(setup);
+        match.setRecorder(replayRecorder);
+    }
 
-            @Override
-            public void preSolve(Contact contact, Manifold oldManifold) {
-            }
+    // the replay drives both chickens instead of the keyboard, stepped on this thread in real time
+    public void playReplay(Replay replay) {
+        if (simulationThread != null)
+            throw new IllegalStateException("A replay is played back without the simulation thread");
 
-            @Override
-            public void postSolve(Contact contact, ContactImpulse impulse) {
-            }
-        });
+        // one headless pass up front saves the keyframes seeking jumps between
+        KeyframeStore keyframes = new KeyframeStore();
+        replay.simulate(keyframes);
+        this.replayTimeline = new ReplayTimeline(match, replay, keyframes);
     }
 
-    private void loadMap() {
-        this.mapLoader = new TmxMapLoader();
-        try {
-            this.map = this.mapLoader.load(MAP_FILE);
-        } catch (Exception e) {
-            System.out.println("Error loading map: " + e.getMessage());
-            return;
-        }
-        this.renderer = new OrthogonalTiledMapRenderer(this.map, 1 / CockfightGame.PPM);
+    // the outcome is handed to the writer when the screen is disposed, if either chicken died by then
+    public void recordResult(ResultWriter resultWriter) {
+        if (setup == null)
+            throw new IllegalStateException("Only a match built from a MatchSetup can be recorded");
+
+        this.resultWriter = resultWriter;
+    }
+
+    // the keyboard drives the local chicken and the session the other one, stepped on this thread
+    public void playOnline(RollbackSession rollbackSession) {
+        if (simulationThread != null)
+            throw new IllegalStateException("An online match is played without the simulation thread");
+
+        this.rollbackSession = rollbackSession;
+        rollbackSession.start(match);
+    }
+
+    // the server only gets snapshots from here, it encodes and sends them on its own thread
+    public void setSpectatorServer(SpectatorServer spectatorServer) {
+        this.spectatorServer = spectatorServer;
+    }
+
+    // the arrow keys skip back and forth while watching a replay
+    public void handleReplayInput() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.HOME))
+            replayTimeline.seek(0);
+        else if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT))
+            replayTimeline.seek(replayTimeline.getTick() - REPLAY_SEEK_TICKS);
+        else if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT))
+            replayTimeline.seek(replayTimeline.getTick() + REPLAY_SEEK_TICKS);
     }
 
 
     @Override
-    public void show() {}
+    public void show() {
+        if (simulationThread != null)
+            simulationThread.start();
+    }
 
+    // input is sampled once per frame and applied on every physics step of that frame
     public void handleChicken1Input() {
-        if (!chicken1.isAlive())
-            return;
-
         if (Gdx.input.isKeyJustPressed(Input.Keys.W))
-            chicken1.jump();
+            chicken1Input |= ChickenInput.JUMP;
         if (Gdx.input.isKeyPressed(Input.Keys.A))
-            chicken1.moveLeft();
+            chicken1Input |= ChickenInput.LEFT;
         if (Gdx.input.isKeyPressed(Input.Keys.D))
-            chicken1.moveRight();
+            chicken1Input |= ChickenInput.RIGHT;
     }
 
     public void handleChicken2Input() {
-        if (!chicken2.isAlive())
-            return;
-
         if (Gdx.input.isKeyJustPressed(Input.Keys.UP))
-            chicken2.jump();
+            chicken2Input |= ChickenInput.JUMP;
         if (Gdx.input.isKeyPressed(Input.Keys.LEFT))
-            chicken2.moveLeft();
+            chicken2Input |= ChickenInput.LEFT;
         if (Gdx.input.isKeyPressed(Input.Keys.RIGHT))
-            chicken2.moveRight();
-    }
-
-
-    private float getDistance() {
-        return (float) Math.sqrt(Math.pow(chicken1.body.getPosition().x - chicken2.body.getPosition().x, 2) +
-                Math.pow(chicken1.body.getPosition().y - chicken2.body.getPosition().y, 2));
-    }
-
-    public void fight() {
-
+            chicken2Input |= ChickenInput.RIGHT;
     }
 
 
     public void update(float dt) {
-        // Call the fight method to automate chicken movement
-
-        if (random.nextBoolean()) {
-            chicken2.moveBackAndForthLoop(chicken1);
-            chicken1.moveBackAndForthLoop(chicken2);
-        } else {
-            chicken1.moveBackAndForthLoop(chicken2);
-            chicken2.moveBackAndForthLoop(chicken1);
-        }
-
-        handleChicken2Input();
-        handleChicken1Input();
-
-
-        if (getDistance() < 1.6f && chicken1.isAlive() && chicken2.isAlive()) {
-            if (random.nextBoolean()) {
-                chicken2.jump();
-                chicken1.jump();
-            } else {
-                chicken1.jump();
-                chicken2.jump();
-            }
-
-            if (getDistance() < 1.0f) {
-                chicken1.setAttacking(true);
-                chicken2.setAttacking(true);
-            }
-        } else {
-            chicken1.setAttacking(false);
-            chicken2.setAttacking(false);
-        }
-
-        // check chicken facing direction
-        if (chicken1.body.getPosition().x < chicken2.body.getPosition().x) {
-            chicken1.setIsFaceRight(true);
-            chicken2.setIsFaceRight(false);
+        if (replayTimeline != null) {
+            handleReplayInput();
+        } else if (rollbackSession != null) {
+            // both players use the chicken1 keys, the session knows which chicken is local
+            handleChicken1Input();
         } else {
-            chicken1.setIsFaceRight(false);
-            chicken2.setIsFaceRight(true);
+            handleChicken2Input();
+            handleChicken1Input();
         }
 
-        world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
-        chicken1.update(dt);
-        chicken2.update(dt);
+        if (simulationThread != null)
+            updateFromSnapshot();
+        else
+            updateSimulation(dt);
 
         // update game cam position
         float cameraHalfWidth = gameCam.viewportWidth / 2;
-        float mapWidth = map.getProperties().get("width", Integer.class) / CockfightGame.PPM + 1.90f * cameraHalfWidth;
-        float chickensPosition = (chicken1.body.getPosition().x + chicken2.body.getPosition().x )/ 2;
+        float mapWidth = chunkedArena != null
+                ? arenaLayout.getWidth() - cameraHalfWidth
+                : map.getProperties().get("width", Integer.class) / CockfightGame.PPM + 1.90f * cameraHalfWidth;
+        float chickensPosition = (chicken1.getRenderPosition().x + chicken2.getRenderPosition().x )/ 2;
 
         if ( chickensPosition <= cameraHalfWidth )
             gameCam.position.x = cameraHalfWidth;
@@ -240,6 +283,88 @@ public class PlayScreen implements Screen {
 
         // tell the renderer to draw only what the camera can see in the game world
         renderer.setView(gameCam);
+        if (chunkedArena != null)
+            chunkedArena.update(gameCam.position.x - cameraHalfWidth, gameCam.position.x + cameraHalfWidth);
+    }
+
+    private void updateSimulation(float dt) {
+        // run the fight logic in fixed steps, a long hitch is clamped instead of spiraling
+        accumulator += Math.min(dt, MAX_FRAME_TIME);
+        int steps = 0;
+        while (accumulator >= Match.TIME_STEP && steps < MAX_STEPS_PER_FRAME) {
+            boolean isStepped = true;
+
+            // a finished replay holds its last frame
+            if (replayTimeline != null) {
+                if (!replayTimeline.step()) {
+                    accumulator = 0;
+                    break;
+                }
+            } else if (rollbackSession != null) {
+                // a stalled step still uses up its time, that is how the side running ahead slows down
+                isStepped = advanceOnline();
+            } else {
+                match.update(Match.TIME_STEP, chicken1Input, chicken2Input);
+            }
+            accumulator -= Match.TIME_STEP;
+            steps++;
+
+            // a key press only jumps once, held movement keys keep applying
+            if (isStepped) {
+                chicken1Input &= ~ChickenInput.JUMP;
+                chicken2Input &= ~ChickenInput.JUMP;
+            }
+        }
+        if (steps == MAX_STEPS_PER_FRAME)
+            accumulator = Math.min(accumulator, Match.TIME_STEP);
+
+        // held keys are sampled again next frame, a pending jump waits for the next step
+        chicken1Input &= ChickenInput.JUMP;
+        chicken2Input &= ChickenInput.JUMP;
+
+        // a frame without a new step is skipped by the server
+        if (spectatorServer != null)
+            spectatorServer.publish(match);
+
+        // draw the chickens between the last two physics states
+        float alpha = accumulator / Match.TIME_STEP;
+        chicken1.interpolate(alpha);
+        chicken2.interpolate(alpha);
+        hud.setHp(chicken1.getHp(), chicken2.getHp());
+    }
+
+    private boolean advanceOnline() {
+        try {
+            return rollbackSession.advance(chicken1Input, System.nanoTime());
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Connection to the other player failed", e);
+        }
+    }
+
+    private void updateFromSnapshot() {
+        // hand this frame's input to the simulation thread
+        simulationThread.setInput(MatchResult.CHICKEN_1, chicken1Input, (chicken1Input & ChickenInput.JUMP) != 0);
+        simulationThread.setInput(MatchResult.CHICKEN_2, chicken2Input, (chicken2Input & ChickenInput.JUMP) != 0);
+        chicken1Input = ChickenInput.NONE;
+        chicken2Input = ChickenInput.NONE;
+
+        // draw the newest published step, nothing here reads the world
+        WorldSnapshot snapshot = simulationThread.acquireLatest();
+        if (snapshot == null)
+            return;
+
+        if (spectatorServer != null)
+            spectatorServer.publish(snapshot);
+
+        float alpha = SimulationThread.getAlpha(snapshot, System.nanoTime());
+        chicken1.applySnapshot(snapshot.chicken1, alpha);
+        chicken2.applySnapshot(snapshot.chicken2, alpha);
+        hud.setHp(snapshot.chicken1.hp, snapshot.chicken2.hp);
+    }
+
+    // published on whichever thread steps the match, a consumer that subscribes has to keep polling or close
+    public CombatEventBus getCombatEvents() {
+        return combatEvents;
     }
 
     @Override
@@ -249,15 +374,23 @@ public class PlayScreen implements Screen {
 
     @Override
     public void render(float delta) {
+        game.renderStats.beginFrame();
+
         // separate the update logic from the render logic
         update(delta);
 
         // render game map
         clearScreen();
-        renderer.render();
+        if (chunkedArena != null)
+            chunkedArena.render(renderer, gameCam);
+        else if (mapCache.isCacheable())
+            mapCache.render(gamePort, game.spriteBatch, delta);
+        else
+            renderer.render();
 
-        // render box2d world
-        box2DRenderer.render(world, gameCam.combined);
+        // render box2d world, only safe when the world is stepped on this thread
+        if (simulationThread == null)
+            box2DRenderer.render(world, gameCam.combined);
 
         // draw the player texture at the center of the screen
         game.spriteBatch.setProjectionMatrix(gameCam.combined);
@@ -265,10 +398,13 @@ public class PlayScreen implements Screen {
         chicken1.draw(game.spriteBatch);
         chicken2.draw(game.spriteBatch);
         game.spriteBatch.end();
+        game.renderStats.recordSpritePass();
 
         // follow mario with the camera
         game.spriteBatch.setProjectionMatrix(hud.stage.getCamera().combined);
         hud.stage.draw();
+
+        game.renderStats.endFrame();
     }
 
     private void clearScreen() {
@@ -288,15 +424,36 @@ public class PlayScreen implements Screen {
 
     @Override
     public void hide() {
-
+        if (simulationThread != null)
+            simulationThread.stop();
     }
 
     @Override
     public void dispose() {
-        map.dispose();
+        if (simulationThread != null)
+            simulationThread.stop();
+        if (replayRecorder != null)
+            writeReplay();
+        if (resultWriter != null && match.isOver())
+            resultWriter.submit(new MatchRecord(setup.chicken1, setup.chicken2, match.getResult()));
         renderer.dispose();
+        if (mapCache != null)
+            mapCache.dispose();
         world.dispose();
         box2DRenderer.dispose();
         hud.dispose();
+
+        // give back this screen's references, the asset manager disposes what nobody uses anymore
+        game.assets.release(Assets.MAP_FILE);
+        game.assets.releaseChicken(chicken1.getSkin());
+        game.assets.releaseChicken(chicken2.getSkin());
+    }
+
+    private void writeReplay() {
+        try {
+            replayRecorder.finish(match.getResult()).write(replayFile);
+        } catch (IOException | GdxRuntimeException e) {
+            System.out.println("Error writing replay: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.capstone.game.Simulation;
+
+import com.capstone.game.Sprites.Chicken;
+
+// Player input of one tick packed into a bitmask, so it can be sampled once and applied on any step
+public final class ChickenInput {
+    public static final int NONE = 0;
+    public static final int JUMP = 1;
+    public static final int LEFT = 1 << 1;
+    public static final int RIGHT = 1 << 2;
+
+    private ChickenInput() {}
+
+    public static void apply(Chicken chicken, int input) {
+        if (input == NONE || !chicken.isAlive())
+            return;
+
+        if ((input & JUMP) != 0)
+            chicken.jump();
+        if ((input & LEFT) != 0)
+            chicken.moveLeft();
+        if ((input & RIGHT) != 0)
+            chicken.moveRight();
+    }
+}
@@ -0,0 +1,69 @@
+package com.capstone.game.Simulation;
+
+import com.capstone.game.Sprites.Chicken;
+
+import java.nio.ByteBuffer;
+
+// A ChickenSnapshot plus the rest of the state a step reads, enough to put the chicken back where it was
+public class ChickenKeyframe extends ChickenSnapshot {
+    public static final int BYTES = 11 * 4 + 4 + 2 * 8;
+
+    private static final Chicken.State[] STATES = Chicken.State.values();
+
+    public float angle;
+    public float angularVelocity;
+    public boolean isAwake;
+    public boolean isAttacking;
+    public int attacks;
+    public long randomState0;
+    public long randomState1;
+
+    public void write(ByteBuffer buffer) {
+        buffer.putFloat(previousX).putFloat(previousY).putFloat(x).putFloat(y);
+        buffer.putFloat(velocityX).putFloat(velocityY).putFloat(angle).putFloat(angularVelocity);
+        buffer.put((byte) currentState.ordinal()).put((byte) previousState.ordinal());
+        buffer.putFloat(stateTimer).putFloat(hp);
+        buffer.put((byte) (isFaceRight ? 1 : 0)).put((byte) ((isAwake ? 1 : 0) | (isAttacking ? 2 : 0)));
+        buffer.putInt(attacks);
+        buffer.putLong(randomState0).putLong(randomState1);
+    }
+
+    // over the exact bits, see MatchKeyframe.hash
+    public long hash(long hash) {
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(x));
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(y));
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(velocityX));
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(velocityY));
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(angle));
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(angularVelocity));
+        hash = MatchKeyframe.mix(hash, currentState.ordinal());
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(stateTimer));
+        hash = MatchKeyframe.mix(hash, Float.floatToIntBits(hp));
+        hash = MatchKeyframe.mix(hash, (isFaceRight ? 1 : 0) | (isAttacking ? 2 : 0));
+        hash = MatchKeyframe.mix(hash, attacks);
+        hash = MatchKeyframe.mix(hash, randomState0);
+        return MatchKeyframe.mix(hash, randomState1);
+    }
+
+    public void read(ByteBuffer buffer) {
+        previousX = buffer.getFloat();
+        previousY = buffer.getFloat();
+        x = buffer.getFloat();
+        y = buffer.getFloat();
+        velocityX = buffer.getFloat();
+        velocityY = buffer.getFloat();
+        angle = buffer.getFloat();
+        angularVelocity = buffer.getFloat();
+        currentState = STATES[buffer.get()];
+        previousState = STATES[buffer.get()];
+        stateTimer = buffer.getFloat();
+        hp = buffer.getFloat();
+        isFaceRight = buffer.get() != 0;
+        int flags = buffer.get();
+        isAwake = (flags & 1) != 0;
+        isAttacking = (flags & 2) != 0;
+        attacks = buffer.getInt();
+        randomState0 = buffer.getLong();
+        randomState1 = buffer.getLong();
+    }
+}
@@ -0,0 +1,51 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.math.Vector2;
+import com.capstone.game.Sprites.Chicken;
+
+// Plain copy of everything the renderer needs from one chicken after a step
+public class ChickenSnapshot {
+    public float previousX;
+    public float previousY;
+    public float x;
+    public float y;
+    public float velocityX;
+    public float velocityY;
+    public Chicken.State currentState;
+    public Chicken.State previousState;
+    public float stateTimer;
+    public float hp;
+    public boolean isFaceRight;
+
+    public void set(Chicken chicken) {
+        Vector2 previousPosition = chicken.getPreviousPosition();
+        Vector2 currentPosition = chicken.getCurrentPosition();
+        Vector2 velocity = chicken.body.getLinearVelocity();
+
+        previousX = previousPosition.x;
+        previousY = previousPosition.y;
+        x = currentPosition.x;
+        y = currentPosition.y;
+        velocityX = velocity.x;
+        velocityY = velocity.y;
+        currentState = chicken.currentState;
+        previousState = chicken.previousState;
+        stateTimer = chicken.getStateTimer();
+        hp = chicken.getHp();
+        isFaceRight = chicken.isFaceRight();
+    }
+
+    public void set(ChickenSnapshot other) {
+        previousX = other.previousX;
+        previousY = other.previousY;
+        x = other.x;
+        y = other.y;
+        velocityX = other.velocityX;
+        velocityY = other.velocityY;
+        currentState = other.currentState;
+        previousState = other.previousState;
+        stateTimer = other.stateTimer;
+        hp = other.hp;
+        isFaceRight = other.isFaceRight;
+    }
+}
@@ -0,0 +1,94 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.CockfightGame;
+import com.capstone.game.Sprites.Chicken;
+
+/*
+ * The ChickenBuilder parameters of one fighter, detached from any World so a
+ * match can be described once and built again in as many worlds as needed.
+ */
+public final class ChickenSpec {
+    /* STARTING POSITIONS */
+    public static final float LEFT_START_X = (2 * CockfightGame.MAP_WIDTH - CockfightGame.worldWidth) / 4f;
+    public static final float RIGHT_START_X = (2 * CockfightGame.MAP_WIDTH + CockfightGame.worldWidth) / 4f;
+    public static final float START_Y = 64 / CockfightGame.PPM;
+
+    public final float hp;
+    public final float damage;
+    public final float speed;
+    public final float posX;
+    public final float posY;
+    public final boolean isFaceRight;
+
+    public ChickenSpec(float hp, float damage, float speed, float posX, float posY, boolean isFaceRight) {
+        this.hp = hp;
+        this.damage = damage;
+        this.speed = speed;
+        this.posX = posX;
+        this.posY = posY;
+        this.isFaceRight = isFaceRight;
+    }
+
+    public static ChickenSpec left(float hp, float damage, float speed) {
+        return new ChickenSpec(hp, damage, speed, LEFT_START_X, START_Y, true);
+    }
+
+    public static ChickenSpec right(float hp, float damage, float speed) {
+        return new ChickenSpec(hp, damage, speed, RIGHT_START_X, START_Y, false);
+    }
+
+    public ChickenSpec atLeft() {
+        return new ChickenSpec(hp, damage, speed, LEFT_START_X, START_Y, true);
+    }
+
+    public ChickenSpec atRight() {
+        return new ChickenSpec(hp, damage, speed, RIGHT_START_X, START_Y, false);
+    }
+
+    public Chicken.ChickenBuilder toBuilder(World world, TextureAtlas.AtlasRegion chickenAtlasRegion) {
+        return new Chicken.ChickenBuilder(world, chickenAtlasRegion)
+                .setHp(hp)
+                .setDamage(damage)
+                .setSpeed(speed)
+                .setPosX(posX)
+                .setPosY(posY)
+                .setIsFaceRight(isFaceRight);
+    }
+
+    public Chicken build(World world) {
+        return toBuilder(world, null).build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChickenSpec)) return false;
+
+        ChickenSpec other = (ChickenSpec) o;
+        return Float.compare(hp, other.hp) == 0
+                && Float.compare(damage, other.damage) == 0
+                && Float.compare(speed, other.speed) == 0
+                && Float.compare(posX, other.posX) == 0
+                && Float.compare(posY, other.posY) == 0
+                && isFaceRight == other.isFaceRight;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(hp);
+        result = 31 * result + Float.floatToIntBits(damage);
+        result = 31 * result + Float.floatToIntBits(speed);
+        result = 31 * result + Float.floatToIntBits(posX);
+        result = 31 * result + Float.floatToIntBits(posY);
+        result = 31 * result + (isFaceRight ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ChickenSpec{hp=" + hp + ", damage=" + damage + ", speed=" + speed
+                + ", posX=" + posX + ", posY=" + posY + ", isFaceRight=" + isFaceRight + "}";
+    }
+}
@@ -0,0 +1,204 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.capstone.game.CockfightGame;
+import com.capstone.game.Components.AiComponent;
+import com.capstone.game.Components.AnimationComponent;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.PhysicsComponent;
+import com.capstone.game.Components.StateComponent;
+import com.capstone.game.Components.StatsComponent;
+import com.capstone.game.Sprites.Chicken;
+import com.capstone.game.Sprites.ChickenAnimations;
+import com.capstone.game.Systems.AiSystem;
+import com.capstone.game.Systems.CombatSystem;
+import com.capstone.game.Systems.DeathSystem;
+import com.capstone.game.Systems.PhysicsSystem;
+import com.capstone.game.Systems.StateSystem;
+import com.capstone.game.Tools.ArenaLayout;
+import com.capstone.game.Tools.B2WorldCreator;
+import com.capstone.game.Tools.ChunkedColliders;
+import com.capstone.game.Tools.TmxColliderReader;
+
+import java.util.Random;
+
+/*
+ * Any number of chickens fighting everyone else, built on an Ashley engine.
+ * A chicken is an entity with physics, state, stats and AI components, plus
+ * an animation component when it is drawn. Dead chickens leave the engine,
+ * so every tick only pays for the chickens still in the fight.
+ */
+public class FreeForAll implements Disposable {
+    /* SIMULATION CONSTANTS */
+    public static final int DEFAULT_CHICKENS = 128;
+    private static final int CHICKENS_PER_COLUMN = 2;
+    private static final float SPAWN_SPACING_Y = 0.6f;
+
+    /* SYSTEM PRIORITIES */
+    private static final int AI_PRIORITY = 0;
+    private static final int PHYSICS_PRIORITY = 1;
+    private static final int COMBAT_PRIORITY = 2;
+    private static final int STATE_PRIORITY = 3;
+    private static final int DEATH_PRIORITY = 4;
+
+
+    private final World world;
+    private final Engine engine;
+    private final ArenaLayout layout;
+    private final Random random;
+    private final ImmutableArray<Entity> chickens;
+    private int ticks;
+
+
+    /* CONSTRUCTOR */
+    public FreeForAll(ArenaLayout layout, Array<Rectangle> arenaRectangles, long seed) {
+        this.layout = layout;
+        this.random = new Random(seed);
+        this.world = new World(new Vector2(0, CockfightGame.WORLD_GRAVITY), true);
+        new ChunkedColliders(world, layout, arenaRectangles).loadAll();
+
+        this.engine = new Engine();
+        engine.addSystem(new AiSystem(random, AI_PRIORITY));
+        engine.addSystem(new PhysicsSystem(world, PHYSICS_PRIORITY));
+        engine.addSystem(new CombatSystem(world, random, COMBAT_PRIORITY));
+        engine.addSystem(new StateSystem(STATE_PRIORITY));
+        engine.addSystem(new DeathSystem(world, DEATH_PRIORITY));
+        this.chickens = engine.getEntitiesFor(Family.all(StatsComponent.class).get());
+    }
+
+    // an arena from the TMX alone, wide enough for the chickens, with no textures
+    public static FreeForAll headless(int chickenCount, long seed) {
+        ArenaLayout layout = TmxColliderReader.readLayout(HeadlessMatch.resolve(HeadlessMatch.MAP_FILE), getColumnsFor(chickenCount));
+        Array<Rectangle> rectangles = TmxColliderReader.read(HeadlessMatch.resolve(HeadlessMatch.MAP_FILE), B2WorldCreator.GROUND_LAYER);
+        FreeForAll freeForAll = new FreeForAll(layout, rectangles, seed);
+        freeForAll.spawn(chickenCount, null);
+        return freeForAll;
+    }
+
+    public static int getColumnsFor(int chickenCount) {
+        return Math.max(CockfightGame.ARENA_COLUMNS, chickenCount / CHICKENS_PER_COLUMN + 2);
+    }
+
+
+    /* SPAWNING */
+    // chickens are spread over the arena in rows, sheets are handed out in turn, null spawns them headless
+    public void spawn(int chickenCount, Array<TextureRegion> sheets) {
+        float left = layout.getChunkX(0) + layout.getTileWidth() / CockfightGame.PPM;
+        float width = layout.getWidth() - 2 * layout.getTileWidth() / CockfightGame.PPM;
+        int perRow = Math.max(1, (layout.getColumns() - 2) * CHICKENS_PER_COLUMN);
+        float spacing = width / perRow;
+
+        for (int i = 0; i < chickenCount; i++) {
+            float x = left + spacing * (i % perRow + 0.5f);
+            float y = ChickenSpec.START_Y + SPAWN_SPACING_Y * (i / perRow);
+            ChickenSpec spec = new ChickenSpec(80 + random.nextInt(41), 10 + random.nextInt(11), 1, x, y, x < layout.getWidth() / 2);
+            addChicken(spec, sheets == null ? null : sheets.get(i % sheets.size));
+        }
+    }
+
+    public Entity addChicken(ChickenSpec spec, TextureRegion sheet) {
+        Entity entity = new Entity();
+
+        PhysicsComponent physics = new PhysicsComponent();
+        physics.body = createBody(spec.posX, spec.posY);
+        physics.body.setUserData(entity);
+        physics.previousPosition.set(physics.body.getPosition());
+        physics.currentPosition.set(physics.body.getPosition());
+        entity.add(physics);
+
+        StatsComponent stats = new StatsComponent();
+        stats.hp = spec.hp;
+        stats.damage = spec.damage;
+        stats.speed = spec.speed;
+        entity.add(stats);
+
+        StateComponent state = new StateComponent();
+        state.isFaceRight = spec.isFaceRight;
+        entity.add(state);
+
+        entity.add(new AiComponent());
+
+        if (sheet != null) {
+            AnimationComponent animation = new AnimationComponent();
+            animation.rightAnimations = ChickenAnimations.get(sheet, true);
+            animation.leftAnimations = ChickenAnimations.get(sheet, false);
+            entity.add(animation);
+        }
+
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    // the same body Chicken.defineChicken creates
+    private Body createBody(float posX, float posY) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.position.set(posX, posY);
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        Body body = world.createBody(bodyDef);
+
+        CircleShape circleShape = new CircleShape();
+        circleShape.setRadius(Chicken.BODY_RADIUS / CockfightGame.PPM);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = circleShape;
+        body.createFixture(fixtureDef);
+        circleShape.dispose();
+        return body;
+    }
+
+
+    /* SIMULATION */
+    public void update() {
+        engine.update(Match.TIME_STEP);
+        ticks++;
+    }
+
+    public boolean isOver() {
+        return getAliveCount() <= 1;
+    }
+
+    public int getAliveCount() {
+        int alive = 0;
+        for (int i = 0; i < chickens.size(); i++) {
+            if (Mappers.stats.get(chickens.get(i)).isAlive())
+                alive++;
+        }
+        return alive;
+    }
+
+
+    /* GETTERS */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public ArenaLayout getLayout() {
+        return layout;
+    }
+
+    public ImmutableArray<Entity> getChickens() {
+        return chickens;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public void dispose() {
+        engine.removeAllEntities();
+        world.dispose();
+    }
+}
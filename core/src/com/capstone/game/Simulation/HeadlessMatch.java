@@ -0,0 +1,90 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Disposable;
+import com.capstone.game.Tools.Assets;
+import com.capstone.game.Tools.B2WorldCreator;
+import com.capstone.game.Tools.BakedColliders;
+import com.capstone.game.Tools.ColliderBaker;
+
+import java.util.Random;
+
+/*
+ * Runs a Match with no window, no textures and no input polling. The arena
+ * colliders come from the baked collider cache and the loop steps the world as
+ * fast as the CPU allows.
+ */
+public class HeadlessMatch implements Disposable {
+    public static final String MAP_FILE = Assets.MAP_FILE;
+
+    // same length as the 300 second round timer on the hud
+    public static final int DEFAULT_MAX_TICKS = 300 * 60;
+
+    private static BakedColliders colliders;
+
+    static {
+        Box2D.init();
+    }
+
+    private final World world;
+    private final Match match;
+
+    public HeadlessMatch(ChickenSpec chicken1, ChickenSpec chicken2) {
+        this(chicken1, chicken2, new Random().nextLong());
+    }
+
+    // every random source of the match is derived from the seed, so the same seed replays the same fight
+    public HeadlessMatch(ChickenSpec chicken1, ChickenSpec chicken2, long seed) {
+        Random seeds = new Random(seed);
+        this.world = Match.createWorld();
+        new B2WorldCreator(world, getColliders());
+        this.match = new Match(world,
+                chicken1.toBuilder(world, null).setSeed(seeds.nextLong()).build(),
+                chicken2.toBuilder(world, null).setSeed(seeds.nextLong()).build(),
+                new RandomXS128(seeds.nextLong()));
+    }
+
+    public static MatchResult play(ChickenSpec chicken1, ChickenSpec chicken2) {
+        return play(chicken1, chicken2, new Random().nextLong());
+    }
+
+    public static MatchResult play(ChickenSpec chicken1, ChickenSpec chicken2, long seed) {
+        HeadlessMatch headlessMatch = new HeadlessMatch(chicken1, chicken2, seed);
+        try {
+            return headlessMatch.run(DEFAULT_MAX_TICKS);
+        } finally {
+            headlessMatch.dispose();
+        }
+    }
+
+    public MatchResult run(int maxTicks) {
+        while (!match.isOver() && match.getTicks() < maxTicks)
+            match.update(Match.TIME_STEP);
+
+        return match.getResult();
+    }
+
+    public Match getMatch() {
+        return match;
+    }
+
+    // the TMX is parsed once per process and shared read-only by every match
+    public static synchronized BakedColliders getColliders() {
+        if (colliders == null)
+            colliders = ColliderBaker.load(resolve(MAP_FILE), B2WorldCreator.GROUND_LAYER);
+        return colliders;
+    }
+
+    static FileHandle resolve(String path) {
+        return Gdx.files != null ? Gdx.files.internal(path) : new FileHandle(path);
+    }
+
+    @Override
+    public void dispose() {
+        world.dispose();
+    }
+}
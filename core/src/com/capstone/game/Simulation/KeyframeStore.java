@@ -0,0 +1,120 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.utils.Array;
+
+/*
+ * MatchKeyframes saved every interval ticks, sorted by tick and capped at a
+ * fixed count. When it is full the interval doubles and every keyframe off
+ * the new interval goes back to the pool, so the spacing stays even over the
+ * whole match: a seek never steps more than one interval, however long the
+ * match ran, and memory never grows past the capacity.
+ */
+public class KeyframeStore {
+    // one second, the store only saves on ticks the match rebuilds its bodies
+    public static final int DEFAULT_INTERVAL = Match.KEYFRAME_INTERVAL;
+    // about 400 bytes each, 30 minutes of match fit with a two second interval
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final Array<MatchKeyframe> keyframes;
+    private final Array<MatchKeyframe> pool;
+    private int interval;
+
+    public KeyframeStore() {
+        this(DEFAULT_INTERVAL, DEFAULT_CAPACITY);
+    }
+
+    public KeyframeStore(int interval, int capacity) {
+        if (interval < 1 || capacity < 2)
+            throw new IllegalArgumentException("Keyframe interval must be positive and capacity at least 2");
+
+        this.interval = interval;
+        this.capacity = capacity;
+        this.keyframes = new Array<>(true, capacity, MatchKeyframe.class);
+        this.pool = new Array<>(false, capacity / 2, MatchKeyframe.class);
+    }
+
+    // called after every step, only saves on the interval and past the last keyframe
+    public boolean capture(Match match) {
+        if (interval % match.getKeyframeInterval() != 0)
+            throw new IllegalArgumentException("Keyframe interval " + interval + " is off the match's keyframe interval of " + match.getKeyframeInterval());
+
+        int tick = match.getTicks();
+        if (tick % interval != 0 || (keyframes.size > 0 && tick <= keyframes.peek().tick))
+            return false;
+
+        if (keyframes.size == capacity) {
+            thin();
+            if (tick % interval != 0)
+                return false;
+        }
+
+        MatchKeyframe keyframe = pool.size > 0 ? pool.pop() : new MatchKeyframe();
+        match.saveKeyframe(keyframe);
+        keyframes.add(keyframe);
+        return true;
+    }
+
+    private void thin() {
+        interval *= 2;
+        int kept = 0;
+        for (int i = 0; i < keyframes.size; i++) {
+            MatchKeyframe keyframe = keyframes.get(i);
+            if (keyframe.tick % interval == 0)
+                keyframes.set(kept++, keyframe);
+            else
+                pool.add(keyframe);
+        }
+        keyframes.truncate(kept);
+    }
+
+    // the last keyframe at or before the tick, null if there is none
+    public MatchKeyframe floor(int tick) {
+        int low = 0;
+        int high = keyframes.size - 1;
+        MatchKeyframe found = null;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            MatchKeyframe keyframe = keyframes.get(middle);
+            if (keyframe.tick <= tick) {
+                found = keyframe;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    // the keyframe saved at exactly this tick, null if there is none
+    public MatchKeyframe get(int tick) {
+        if (tick % interval != 0)
+            return null;
+
+        MatchKeyframe keyframe = floor(tick);
+        return keyframe != null && keyframe.tick == tick ? keyframe : null;
+    }
+
+    public void clear() {
+        pool.addAll(keyframes);
+        keyframes.clear();
+    }
+
+
+    /* GETTERS */
+    public int getSize() {
+        return keyframes.size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getLastTick() {
+        return keyframes.size == 0 ? -1 : keyframes.peek().tick;
+    }
+}
@@ -0,0 +1,324 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.capstone.game.CockfightGame;
+import com.capstone.game.Ai.AiScheduler;
+import com.capstone.game.Ai.ChickenBrain;
+import com.capstone.game.Ai.DuelBrain;
+import com.capstone.game.Events.CombatEvent;
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Sprites.Chicken;
+import com.capstone.game.Telemetry.TelemetryRecorder;
+import com.capstone.game.Tools.WorldContactListener;
+
+/*
+ * The update half of a fight: AI movement, proximity jump/attack logic,
+ * facing, the physics step and the chicken state machines. It knows nothing
+ * about cameras, textures or input devices, so the same rules run inside
+ * PlayScreen and in headless simulations.
+ * On every tick a keyframe can be taken the chicken bodies are destroyed and
+ * built again from their state, so Box2D's contacts, broadphase pairs and
+ * sleep timers never carry over from earlier steps. A restored keyframe
+ * rebuilds them the same way and steps on exactly as the original run did.
+ */
+public class Match {
+    /* SIMULATION CONSTANTS */
+    public static final float TIME_STEP = 1/60f;
+    public static final int VELOCITY_ITERATIONS = 12;
+    public static final int POSITION_ITERATIONS = 4;
+    public static final float JUMP_DISTANCE = 1.6f;
+    public static final float ATTACK_DISTANCE = 1.0f;
+    public static final float BOUNCE_VALUE = 0.2f;
+    // a second, replays and their keyframe stores keep to multiples of it
+    public static final int KEYFRAME_INTERVAL = 60;
+
+
+    /* MATCH ATTRIBUTES */
+    private final World world;
+    private final Chicken chicken1;
+    private final Chicken chicken2;
+    private final RandomXS128 random;
+    private final AiScheduler aiScheduler;
+    private final ChickenBrain chicken1Brain;
+    private final ChickenBrain chicken2Brain;
+    private final WorldContactListener<Chicken> contactListener;
+    private final WorldContactListener.ContactHandler<Chicken> contactHandler;
+    private ReplayRecorder recorder;
+    private CombatEventBus events;
+    private TelemetryRecorder telemetry;
+    private int ticks;
+
+    // ticks a keyframe can be taken on, the bodies are rebuilt on each of them
+    private int keyframeInterval = KEYFRAME_INTERVAL;
+    private boolean isRebuilt;
+    // whether the chickens touched before the last rebuild, Box2D has no contacts again until the next step
+    private boolean isChickenContact;
+    private final ChickenKeyframe chicken1Body = new ChickenKeyframe();
+    private final ChickenKeyframe chicken2Body = new ChickenKeyframe();
+
+
+    /* CONSTRUCTOR */
+    public Match(World world, Chicken chicken1, Chicken chicken2) {
+        this(world, chicken1, chicken2, new RandomXS128());
+    }
+
+    public Match(World world, Chicken chicken1, Chicken chicken2, RandomXS128 random) {
+        this.world = world;
+        this.chicken1 = chicken1;
+        this.chicken2 = chicken2;
+        this.random = random;
+        this.ticks = 0;
+
+        // the brains take turns thinking, so each one runs every few steps instead of every step
+        this.aiScheduler = new AiScheduler();
+        this.chicken1Brain = new DuelBrain(chicken1, chicken2);
+        this.chicken2Brain = new DuelBrain(chicken2, chicken1);
+        aiScheduler.add(chicken1Brain);
+        aiScheduler.add(chicken2Brain);
+
+        // contacts are only recorded during the step and resolved after it
+        this.contactListener = new WorldContactListener<>(Chicken.class);
+        world.setContactListener(contactListener);
+        this.contactHandler = new WorldContactListener.ContactHandler<Chicken>() {
+            @Override
+            public void onContact(Chicken chickenA, Chicken chickenB, float relativeVelocityX, float relativeVelocityY) {
+                if (events != null) {
+                    Vector2 position = chickenA.body.getPosition();
+                    events.publish(CombatEvent.Type.HIT, chickenA.getEventId(), chickenB.getEventId(),
+                            (float) Math.sqrt(relativeVelocityX * relativeVelocityX + relativeVelocityY * relativeVelocityY),
+                            position.x, position.y, chickenA.currentState, chickenA.previousState);
+                }
+
+                if (Match.this.random.nextBoolean()) {
+                    chickenA.attack(chickenB);
+                    chickenB.attack(chickenA);
+                } else {
+                    chickenB.attack(chickenA);
+                    chickenA.attack(chickenB);
+                }
+
+                // the bounce uses the velocities from when the chickens met, not after the solver separated them
+                float bounceX = relativeVelocityX * BOUNCE_VALUE;
+                float bounceY = relativeVelocityY * BOUNCE_VALUE;
+                chickenA.applyImpulse(bounceX, bounceY);
+                chickenB.applyImpulse(-bounceX, -bounceY);
+            }
+        };
+    }
+
+
+    // every match world is made here, a replay has to step under the same settings as the match it recorded
+    public static World createWorld() {
+        return new World(new Vector2(0, CockfightGame.WORLD_GRAVITY), true);
+    }
+
+
+    /* SIMULATION */
+    // squared, compared against squared thresholds so the hot path needs no square root
+    private float getDistance2() {
+        return chicken1.body.getPosition().dst2(chicken2.body.getPosition());
+    }
+
+    public void update(float dt) {
+        update(dt, ChickenInput.NONE, ChickenInput.NONE);
+    }
+
+    public void update(float dt, int chicken1Input, int chicken2Input) {
+        // a restore already rebuilt them from the keyframe
+        if (ticks % keyframeInterval == 0 && !isRebuilt) {
+            boolean isTouching = isChickenContact();
+            chicken1.saveKeyframe(chicken1Body);
+            chicken2.saveKeyframe(chicken2Body);
+            rebuildBodies(chicken1Body, chicken2Body, isTouching);
+        }
+
+        if (events != null)
+            events.setTick(ticks);
+
+        // the input of every step is all a replay needs besides the setup
+        if (recorder != null)
+            recorder.record(chicken1Input, chicken2Input);
+
+        ChickenInput.apply(chicken2, chicken2Input);
+        ChickenInput.apply(chicken1, chicken1Input);
+
+        // automate chicken movement, both act on their last decision every step
+        aiScheduler.update();
+        if (random.nextBoolean()) {
+            chicken2Brain.act();
+            chicken1Brain.act();
+        } else {
+            chicken1Brain.act();
+            chicken2Brain.act();
+        }
+
+        if (getDistance2() < JUMP_DISTANCE * JUMP_DISTANCE && chicken1.isAlive() && chicken2.isAlive()) {
+            if (random.nextBoolean()) {
+                chicken2.jump();
+                chicken1.jump();
+            } else {
+                chicken1.jump();
+                chicken2.jump();
+            }
+
+            if (getDistance2() < ATTACK_DISTANCE * ATTACK_DISTANCE) {
+                chicken1.setAttacking(true);
+                chicken2.setAttacking(true);
+            }
+        } else {
+            chicken1.setAttacking(false);
+            chicken2.setAttacking(false);
+        }
+
+        // check chicken facing direction
+        if (chicken1.body.getPosition().x < chicken2.body.getPosition().x) {
+            chicken1.setIsFaceRight(true);
+            chicken2.setIsFaceRight(false);
+        } else {
+            chicken1.setIsFaceRight(false);
+            chicken2.setIsFaceRight(true);
+        }
+
+        world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+        isRebuilt = false;
+        contactListener.drain(contactHandler);
+        chicken1.update(dt);
+        chicken2.update(dt);
+        ticks++;
+
+        if (telemetry != null)
+            telemetry.record(this);
+    }
+
+    public boolean isOver() {
+        return !chicken1.isAlive() || !chicken2.isAlive();
+    }
+
+    public MatchResult getResult() {
+        int winner = MatchResult.DRAW;
+        if (chicken1.isAlive() && !chicken2.isAlive())
+            winner = MatchResult.CHICKEN_1;
+        else if (chicken2.isAlive() && !chicken1.isAlive())
+            winner = MatchResult.CHICKEN_2;
+
+        return new MatchResult(winner, chicken1.getHp(), chicken2.getHp(), ticks, chicken1.getAttacks(), chicken2.getAttacks());
+    }
+
+    /* KEYFRAMES */
+    public void saveKeyframe(MatchKeyframe keyframe) {
+        keyframe.tick = ticks;
+        keyframe.aiFrame = aiScheduler.getFrame();
+        keyframe.randomState0 = random.getState(0);
+        keyframe.randomState1 = random.getState(1);
+        keyframe.chicken1Brain = chicken1Brain.getStateMachine().getCurrentState();
+        keyframe.chicken2Brain = chicken2Brain.getStateMachine().getCurrentState();
+        keyframe.isChickenContact = isChickenContact();
+        chicken1.saveKeyframe(keyframe.chicken1);
+        chicken2.saveKeyframe(keyframe.chicken2);
+    }
+
+    // only between steps, on the thread that steps the match
+    public void restoreKeyframe(MatchKeyframe keyframe) {
+        if (keyframe.tick % keyframeInterval != 0)
+            throw new IllegalArgumentException("Keyframe of tick " + keyframe.tick + " is off the keyframe interval of " + keyframeInterval);
+
+        ticks = keyframe.tick;
+        aiScheduler.setFrame(keyframe.aiFrame);
+        random.setState(keyframe.randomState0, keyframe.randomState1);
+        chicken1Brain.restoreState(keyframe.chicken1Brain);
+        chicken2Brain.restoreState(keyframe.chicken2Brain);
+        chicken1.restoreKeyframe(keyframe.chicken1);
+        chicken2.restoreKeyframe(keyframe.chicken2);
+        rebuildBodies(keyframe.chicken1, keyframe.chicken2, keyframe.isChickenContact);
+    }
+
+    // destroyed in the reverse of the order they are built, so each body gets its broadphase proxy back
+    // and Box2D pairs them with the arena in the same order on every timeline
+    private void rebuildBodies(ChickenKeyframe chicken1State, ChickenKeyframe chicken2State, boolean isTouching) {
+        chicken2.destroyBody();
+        chicken1.destroyBody();
+        chicken1.createBody(chicken1State);
+        chicken2.createBody(chicken2State);
+
+        // the new contact begins on the next step, it is no new hit when they were touching already
+        contactListener.clearTouching();
+        if (isTouching)
+            contactListener.addTouching(chicken1, chicken2);
+        isChickenContact = isTouching;
+        isRebuilt = true;
+    }
+
+    private boolean isChickenContact() {
+        if (isRebuilt)
+            return isChickenContact;
+
+        Array<Contact> contacts = world.getContactList();
+        for (int i = 0; i < contacts.size; i++) {
+            Contact contact = contacts.get(i);
+            if (!contact.isTouching())
+                continue;
+            Object a = contact.getFixtureA().getBody().getUserData();
+            Object b = contact.getFixtureB().getBody().getUserData();
+            if ((a == chicken1 && b == chicken2) || (a == chicken2 && b == chicken1))
+                return true;
+        }
+        return false;
+    }
+
+    // before the first step, an online match can roll back to any tick
+    public void setKeyframeInterval(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    // set before the first step, the recorder is fed on the stepping thread
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+
+    // set before the first step, every step after it is recorded as one telemetry row
+    public void setTelemetry(TelemetryRecorder telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    // chicken1 publishes as 1 and chicken2 as 2, null stops publishing, on the stepping thread between steps
+    public void setEventBus(CombatEventBus events) {
+        this.events = events;
+        chicken1.setEventBus(events, MatchResult.CHICKEN_1);
+        chicken2.setEventBus(events, MatchResult.CHICKEN_2);
+    }
+
+    public CombatEventBus getEventBus() {
+        return events;
+    }
+
+
+    /* GETTERS */
+    public World getWorld() {
+        return world;
+    }
+
+    public Chicken getChicken1() {
+        return chicken1;
+    }
+
+    public Chicken getChicken2() {
+        return chicken2;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+}
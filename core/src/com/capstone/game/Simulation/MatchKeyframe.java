@@ -0,0 +1,74 @@
+package com.capstone.game.Simulation;
+
+import com.capstone.game.Ai.ChickenState;
+
+import java.nio.ByteBuffer;
+
+/*
+ * The full state of a Match after one step: both chickens, their brains'
+ * last decisions, the AI scheduler frame, the match random and whether the
+ * chickens were touching. A match rebuilds its bodies on every tick a
+ * keyframe can be taken, so Box2D holds nothing else then, and restoring a
+ * keyframe and feeding the same input steps on exactly as the original run.
+ */
+public class MatchKeyframe {
+    public static final int BYTES = 2 * 4 + 2 * 8 + 3 + 2 * ChickenKeyframe.BYTES;
+
+    private static final ChickenState[] BRAIN_STATES = ChickenState.values();
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public int tick;
+    public int aiFrame;
+    public long randomState0;
+    public long randomState1;
+    public ChickenState chicken1Brain;
+    public ChickenState chicken2Brain;
+    // the chickens' contact was touching, its next begin is not a new hit
+    public boolean isChickenContact;
+    public final ChickenKeyframe chicken1 = new ChickenKeyframe();
+    public final ChickenKeyframe chicken2 = new ChickenKeyframe();
+
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(tick).putInt(aiFrame);
+        buffer.putLong(randomState0).putLong(randomState1);
+        buffer.put((byte) chicken1Brain.ordinal()).put((byte) chicken2Brain.ordinal());
+        buffer.put((byte) (isChickenContact ? 1 : 0));
+        chicken1.write(buffer);
+        chicken2.write(buffer);
+    }
+
+    public void read(ByteBuffer buffer) {
+        tick = buffer.getInt();
+        aiFrame = buffer.getInt();
+        randomState0 = buffer.getLong();
+        randomState1 = buffer.getLong();
+        chicken1Brain = BRAIN_STATES[buffer.get()];
+        chicken2Brain = BRAIN_STATES[buffer.get()];
+        isChickenContact = buffer.get() != 0;
+        chicken1.read(buffer);
+        chicken2.read(buffer);
+    }
+
+    // two peers that stepped the same inputs get the same hash, any drift changes it
+    public long hash() {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, tick);
+        hash = mix(hash, aiFrame);
+        hash = mix(hash, randomState0);
+        hash = mix(hash, randomState1);
+        hash = mix(hash, chicken1Brain.ordinal() | chicken2Brain.ordinal() << 8 | (isChickenContact ? 1 : 0) << 16);
+        hash = chicken1.hash(hash);
+        return chicken2.hash(hash);
+    }
+
+    // FNV-1a, one byte at a time
+    static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= value & 0xFF;
+            hash *= FNV_PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,58 @@
+package com.capstone.game.Simulation;
+
+public class MatchResult {
+    public static final int DRAW = 0;
+    public static final int CHICKEN_1 = 1;
+    public static final int CHICKEN_2 = 2;
+
+    private final int winner;
+    private final float chicken1Hp;
+    private final float chicken2Hp;
+    private final int ticks;
+    private final int chicken1Attacks;
+    private final int chicken2Attacks;
+
+    // replays store results without the attack counts
+    public MatchResult(int winner, float chicken1Hp, float chicken2Hp, int ticks) {
+        this(winner, chicken1Hp, chicken2Hp, ticks, 0, 0);
+    }
+
+    public MatchResult(int winner, float chicken1Hp, float chicken2Hp, int ticks, int chicken1Attacks, int chicken2Attacks) {
+        this.winner = winner;
+        this.chicken1Hp = chicken1Hp;
+        this.chicken2Hp = chicken2Hp;
+        this.ticks = ticks;
+        this.chicken1Attacks = chicken1Attacks;
+        this.chicken2Attacks = chicken2Attacks;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public float getChicken1Hp() {
+        return chicken1Hp;
+    }
+
+    public float getChicken2Hp() {
+        return chicken2Hp;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public int getChicken1Attacks() {
+        return chicken1Attacks;
+    }
+
+    public int getChicken2Attacks() {
+        return chicken2Attacks;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchResult{winner=" + winner + ", chicken1Hp=" + chicken1Hp + ", chicken2Hp=" + chicken2Hp + ", ticks=" + ticks
+                + ", chicken1Attacks=" + chicken1Attacks + ", chicken2Attacks=" + chicken2Attacks + "}";
+    }
+}
@@ -0,0 +1,121 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.Sprites.Chicken;
+import com.capstone.game.Tools.ArenaLayout;
+import com.capstone.game.Tools.B2WorldCreator;
+import com.capstone.game.Tools.ChunkedColliders;
+import com.capstone.game.Tools.TmxColliderReader;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/*
+ * Everything a one on one match is built from besides the player input: the
+ * two ChickenSpecs, their skins, the arena width and one seed. The chicken and
+ * match random sources are derived from the seed in a fixed order, so the same
+ * setup always builds the same fight.
+ */
+public final class MatchSetup {
+    public final long seed;
+    public final ChickenSpec chicken1;
+    public final ChickenSpec chicken2;
+    public final String chicken1Skin;
+    public final String chicken2Skin;
+    public final int arenaColumns;
+
+    private final long chicken1Seed;
+    private final long chicken2Seed;
+    private final long matchSeed;
+
+    public MatchSetup(long seed, ChickenSpec chicken1, String chicken1Skin, ChickenSpec chicken2, String chicken2Skin, int arenaColumns) {
+        this.seed = seed;
+        this.chicken1 = chicken1;
+        this.chicken2 = chicken2;
+        this.chicken1Skin = chicken1Skin;
+        this.chicken2Skin = chicken2Skin;
+        this.arenaColumns = arenaColumns;
+
+        // same derivation order as HeadlessMatch
+        Random seeds = new Random(seed);
+        this.chicken1Seed = seeds.nextLong();
+        this.chicken2Seed = seeds.nextLong();
+        this.matchSeed = seeds.nextLong();
+    }
+
+
+    /* BUILDING */
+    public Chicken buildChicken1(World world, TextureAtlas.AtlasRegion chickenAtlasRegion) {
+        return chicken1.toBuilder(world, chickenAtlasRegion).setSkin(chicken1Skin).setSeed(chicken1Seed).build();
+    }
+
+    public Chicken buildChicken2(World world, TextureAtlas.AtlasRegion chickenAtlasRegion) {
+        return chicken2.toBuilder(world, chickenAtlasRegion).setSkin(chicken2Skin).setSeed(chicken2Seed).build();
+    }
+
+    public RandomXS128 createMatchRandom() {
+        return new RandomXS128(matchSeed);
+    }
+
+    // a match without textures, bodies are created in the same order as in PlayScreen, chickens first and the arena after them
+    public Match createMatch(World world) {
+        Match match = new Match(world, buildChicken1(world, null), buildChicken2(world, null), createMatchRandom());
+
+        FileHandle mapFile = HeadlessMatch.resolve(HeadlessMatch.MAP_FILE);
+        ArenaLayout layout = TmxColliderReader.readLayout(mapFile, arenaColumns);
+        if (layout.getChunkCount() > 1)
+            new ChunkedColliders(world, layout, TmxColliderReader.read(mapFile, B2WorldCreator.GROUND_LAYER)).loadAll();
+        else
+            new B2WorldCreator(world, HeadlessMatch.getColliders());
+        return match;
+    }
+
+
+    /* SERIALIZATION */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        writeChicken(out, chicken1, chicken1Skin);
+        writeChicken(out, chicken2, chicken2Skin);
+        out.writeShort(arenaColumns);
+    }
+
+    public static MatchSetup read(DataInput in) throws IOException {
+        long seed = in.readLong();
+        ChickenSpec chicken1 = readChicken(in);
+        String chicken1Skin = readSkin(in);
+        ChickenSpec chicken2 = readChicken(in);
+        String chicken2Skin = readSkin(in);
+        int arenaColumns = in.readShort();
+        return new MatchSetup(seed, chicken1, chicken1Skin, chicken2, chicken2Skin, arenaColumns);
+    }
+
+    private static void writeChicken(DataOutput out, ChickenSpec chicken, String skin) throws IOException {
+        out.writeFloat(chicken.hp);
+        out.writeFloat(chicken.damage);
+        out.writeFloat(chicken.speed);
+        out.writeFloat(chicken.posX);
+        out.writeFloat(chicken.posY);
+        out.writeBoolean(chicken.isFaceRight);
+        out.writeUTF(skin != null ? skin : "");
+    }
+
+    private static ChickenSpec readChicken(DataInput in) throws IOException {
+        return new ChickenSpec(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat(), in.readBoolean());
+    }
+
+    // headless matches have no skin
+    private static String readSkin(DataInput in) throws IOException {
+        String skin = in.readUTF();
+        return skin.isEmpty() ? null : skin;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchSetup{seed=" + seed + ", chicken1=" + chicken1 + ", chicken2=" + chicken2 + ", arenaColumns=" + arenaColumns + "}";
+    }
+}
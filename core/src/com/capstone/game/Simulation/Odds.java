@@ -0,0 +1,44 @@
+package com.capstone.game.Simulation;
+
+public class Odds {
+    private final float chicken1WinProbability;
+    private final float chicken2WinProbability;
+    private final float drawProbability;
+    private final float marginOfError;
+    private final int simulations;
+
+    public Odds(float chicken1WinProbability, float chicken2WinProbability, float drawProbability, float marginOfError, int simulations) {
+        this.chicken1WinProbability = chicken1WinProbability;
+        this.chicken2WinProbability = chicken2WinProbability;
+        this.drawProbability = drawProbability;
+        this.marginOfError = marginOfError;
+        this.simulations = simulations;
+    }
+
+    public float getChicken1WinProbability() {
+        return chicken1WinProbability;
+    }
+
+    public float getChicken2WinProbability() {
+        return chicken2WinProbability;
+    }
+
+    public float getDrawProbability() {
+        return drawProbability;
+    }
+
+    // half width of the 95% confidence interval of the win probabilities
+    public float getMarginOfError() {
+        return marginOfError;
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Odds{chicken1=%.3f, chicken2=%.3f, draw=%.3f, +/-%.3f, simulations=%d}",
+                chicken1WinProbability, chicken2WinProbability, drawProbability, marginOfError, simulations);
+    }
+}
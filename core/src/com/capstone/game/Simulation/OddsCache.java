@@ -0,0 +1,36 @@
+package com.capstone.game.Simulation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Bounded least-recently-used cache of quoted odds, keyed by the pairing's stats and starting positions
+public class OddsCache {
+    private final LinkedHashMap<Pairing, Odds> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int capacity;
+
+    public OddsCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized Odds get(Pairing pairing) {
+        return entries.get(pairing);
+    }
+
+    public synchronized void put(Pairing pairing, Odds odds) {
+        entries.put(pairing, odds);
+        // access ordered, so the first entry is the least recently used
+        if (entries.size() > capacity) {
+            Iterator<Pairing> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
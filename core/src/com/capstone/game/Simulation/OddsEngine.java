@@ -0,0 +1,159 @@
+package com.capstone.game.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/*
+ * Quotes win probabilities for a pairing by running seeded headless matches
+ * in parallel batches. Simulation stops as soon as the 95% confidence
+ * interval of both win probabilities is narrower than the target margin, and
+ * the answer is cached so a repeated pairing never simulates again. Callers
+ * that miss on the same pairing at once share one simulation.
+ */
+public class OddsEngine {
+    /* ENGINE DEFAULTS */
+    private static final float Z_95 = 1.96f;
+    private static final float DEFAULT_MARGIN = 0.02f;
+    private static final int DEFAULT_MIN_SIMULATIONS = 200;
+    private static final int DEFAULT_MAX_SIMULATIONS = 20000;
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+    private static final int SIMULATIONS_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+    private final OddsCache cache;
+    // pairings being simulated right now, the first caller runs the task and the rest wait on it
+    private final ConcurrentHashMap<Pairing, FutureTask<Odds>> inFlight = new ConcurrentHashMap<>();
+    private final float targetMargin;
+    private final int minSimulations;
+    private final int maxSimulations;
+    private final int maxTicks;
+
+    public OddsEngine() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MARGIN, DEFAULT_MIN_SIMULATIONS, DEFAULT_MAX_SIMULATIONS, DEFAULT_CACHE_SIZE);
+    }
+
+    public OddsEngine(int parallelism, float targetMargin, int minSimulations, int maxSimulations, int cacheSize) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = new OddsCache(cacheSize);
+        this.targetMargin = targetMargin;
+        this.minSimulations = minSimulations;
+        this.maxSimulations = maxSimulations;
+        this.maxTicks = HeadlessMatch.DEFAULT_MAX_TICKS;
+    }
+
+    public Odds getOdds(final Pairing pairing) {
+        Odds odds = cache.get(pairing);
+        if (odds != null)
+            return odds;
+
+        FutureTask<Odds> task = new FutureTask<>(new Callable<Odds>() {
+            @Override
+            public Odds call() {
+                // another caller may have finished it between the cache miss and taking the slot
+                Odds odds = cache.get(pairing);
+                if (odds != null)
+                    return odds;
+
+                odds = simulate(pairing);
+                cache.put(pairing, odds);
+                return odds;
+            }
+        });
+        FutureTask<Odds> running = inFlight.putIfAbsent(pairing, task);
+        if (running == null) {
+            // cached before leaving the map, so a later caller either finds the task or the cached odds
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(pairing, task);
+            }
+            running = task;
+        }
+        return join(running);
+    }
+
+    private Odds simulate(final Pairing pairing) {
+        int[] wins = new int[3];
+        int simulations = 0;
+        int batchSize = pool.getParallelism() * SIMULATIONS_PER_TASK;
+
+        while (simulations < maxSimulations) {
+            // every task gets its own seed range, so a pairing always produces the same odds
+            List<Callable<int[]>> tasks = new ArrayList<>();
+            int batchEnd = Math.min(simulations + batchSize, maxSimulations);
+            for (int first = simulations; first < batchEnd; first += SIMULATIONS_PER_TASK) {
+                final int from = first;
+                final int to = Math.min(first + SIMULATIONS_PER_TASK, batchEnd);
+                tasks.add(new Callable<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return runSeeds(pairing, from, to);
+                    }
+                });
+            }
+
+            for (Future<int[]> future : pool.invokeAll(tasks)) {
+                int[] taskWins = join(future);
+                for (int i = 0; i < wins.length; i++)
+                    wins[i] += taskWins[i];
+            }
+            simulations = batchEnd;
+
+            if (simulations >= minSimulations && getMarginOfError(wins, simulations) <= targetMargin)
+                break;
+        }
+
+        return new Odds(
+                wins[MatchResult.CHICKEN_1] / (float) simulations,
+                wins[MatchResult.CHICKEN_2] / (float) simulations,
+                wins[MatchResult.DRAW] / (float) simulations,
+                getMarginOfError(wins, simulations),
+                simulations);
+    }
+
+    private int[] runSeeds(Pairing pairing, int from, int to) {
+        int[] wins = new int[3];
+        for (int seed = from; seed < to; seed++) {
+            HeadlessMatch match = new HeadlessMatch(pairing.chicken1, pairing.chicken2, seed);
+            try {
+                wins[match.run(maxTicks).getWinner()]++;
+            } finally {
+                match.dispose();
+            }
+        }
+        return wins;
+    }
+
+    // normal approximation of the binomial interval, the wider of the two win probabilities
+    private static float getMarginOfError(int[] wins, int simulations) {
+        float p1 = wins[MatchResult.CHICKEN_1] / (float) simulations;
+        float p2 = wins[MatchResult.CHICKEN_2] / (float) simulations;
+        float p = Math.abs(p1 - 0.5f) < Math.abs(p2 - 0.5f) ? p1 : p2;
+        return Z_95 * (float) Math.sqrt(p * (1 - p) / simulations);
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Odds simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Odds simulation failed", e.getCause());
+        }
+    }
+
+    public OddsCache getCache() {
+        return cache;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,30 @@
+package com.capstone.game.Simulation;
+
+public final class Pairing {
+    public final ChickenSpec chicken1;
+    public final ChickenSpec chicken2;
+
+    public Pairing(ChickenSpec chicken1, ChickenSpec chicken2) {
+        this.chicken1 = chicken1;
+        this.chicken2 = chicken2;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Pairing)) return false;
+
+        Pairing other = (Pairing) o;
+        return chicken1.equals(other.chicken1) && chicken2.equals(other.chicken2);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * chicken1.hashCode() + chicken2.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Pairing{" + chicken1 + " vs " + chicken2 + "}";
+    }
+}
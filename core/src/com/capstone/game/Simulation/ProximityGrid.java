@@ -0,0 +1,193 @@
+package com.capstone.game.Simulation;
+
+/*
+ * Uniform grid for "nearest within r" and "all pairs within r" queries.
+ * Points are re-added every tick and sorted into hashed cells with a
+ * counting sort, so a rebuild is linear and allocates nothing once the
+ * arrays have grown to the entity count. Each point remembers its exact
+ * cell, so two cells sharing a hash bucket are never mixed up. All
+ * distances are squared.
+ */
+public class ProximityGrid {
+    public interface PairVisitor {
+        void visit(int idA, int idB, float distance2);
+    }
+
+    private final float cellSize;
+
+    // points in insertion order
+    private int size;
+    private int[] ids;
+    private float[] xs;
+    private float[] ys;
+    private int[] cellXs;
+    private int[] cellYs;
+
+    // the same points copied in bucket order, bucket b is bucketStarts[b] .. bucketStarts[b + 1]
+    private int[] sortedIds;
+    private float[] sortedXs;
+    private float[] sortedYs;
+    private int[] sortedCellXs;
+    private int[] sortedCellYs;
+    private int[] bucketStarts;
+    private int bucketMask;
+
+    public ProximityGrid(float cellSize) {
+        this(cellSize, 16);
+    }
+
+    public ProximityGrid(float cellSize, int capacity) {
+        this.cellSize = cellSize;
+        allocate(Math.max(capacity, 1));
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        cellXs = new int[capacity];
+        cellYs = new int[capacity];
+        sortedIds = new int[capacity];
+        sortedXs = new float[capacity];
+        sortedYs = new float[capacity];
+        sortedCellXs = new int[capacity];
+        sortedCellYs = new int[capacity];
+
+        int buckets = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        bucketStarts = new int[buckets + 1];
+        bucketMask = buckets - 1;
+    }
+
+
+    /* BUILDING */
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int id, float x, float y) {
+        if (size == ids.length)
+            grow();
+
+        ids[size] = id;
+        xs[size] = x;
+        ys[size] = y;
+        cellXs[size] = (int) Math.floor(x / cellSize);
+        cellYs[size] = (int) Math.floor(y / cellSize);
+        size++;
+    }
+
+    private void grow() {
+        int[] oldIds = ids;
+        float[] oldXs = xs;
+        float[] oldYs = ys;
+        int[] oldCellXs = cellXs;
+        int[] oldCellYs = cellYs;
+
+        allocate(oldIds.length * 2);
+        System.arraycopy(oldIds, 0, ids, 0, size);
+        System.arraycopy(oldXs, 0, xs, 0, size);
+        System.arraycopy(oldYs, 0, ys, 0, size);
+        System.arraycopy(oldCellXs, 0, cellXs, 0, size);
+        System.arraycopy(oldCellYs, 0, cellYs, 0, size);
+    }
+
+    // counting sort of the points by bucket, call once after the last add of a tick;
+    // queries then walk contiguous arrays instead of jumping around in insertion order
+    public void build() {
+        int buckets = bucketMask + 1;
+        for (int b = 0; b <= buckets; b++)
+            bucketStarts[b] = 0;
+        for (int i = 0; i < size; i++)
+            bucketStarts[bucket(cellXs[i], cellYs[i]) + 1]++;
+        for (int b = 0; b < buckets; b++)
+            bucketStarts[b + 1] += bucketStarts[b];
+
+        // fill from the back so every bucket keeps insertion order
+        for (int i = size - 1; i >= 0; i--) {
+            int k = --bucketStarts[bucket(cellXs[i], cellYs[i]) + 1];
+            sortedIds[k] = ids[i];
+            sortedXs[k] = xs[i];
+            sortedYs[k] = ys[i];
+            sortedCellXs[k] = cellXs[i];
+            sortedCellYs[k] = cellYs[i];
+        }
+        // the fill left each bucket's start one slot up, move them down
+        System.arraycopy(bucketStarts, 1, bucketStarts, 0, buckets);
+        bucketStarts[buckets] = size;
+    }
+
+    private int bucket(int cellX, int cellY) {
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & bucketMask;
+    }
+
+
+    /* QUERIES */
+    // id of the closest point within radius other than excludeId, or -1
+    public int findNearest(float x, float y, float radius, int excludeId) {
+        int cellX = (int) Math.floor(x / cellSize);
+        int cellY = (int) Math.floor(y / cellSize);
+        int range = (int) Math.ceil(radius / cellSize);
+
+        int nearest = -1;
+        float nearestDistance2 = radius * radius;
+        for (int dy = -range; dy <= range; dy++) {
+            for (int dx = -range; dx <= range; dx++) {
+                int neighbourX = cellX + dx;
+                int neighbourY = cellY + dy;
+                int b = bucket(neighbourX, neighbourY);
+                for (int k = bucketStarts[b]; k < bucketStarts[b + 1]; k++) {
+                    if (sortedCellXs[k] != neighbourX || sortedCellYs[k] != neighbourY || sortedIds[k] == excludeId)
+                        continue;
+
+                    float distanceX = sortedXs[k] - x;
+                    float distanceY = sortedYs[k] - y;
+                    float distance2 = distanceX * distanceX + distanceY * distanceY;
+                    if (distance2 <= nearestDistance2) {
+                        nearestDistance2 = distance2;
+                        nearest = sortedIds[k];
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    // every unordered pair closer than radius exactly once, returns the pair count
+    public int forEachPairWithin(float radius, PairVisitor visitor) {
+        int range = (int) Math.ceil(radius / cellSize);
+        float radius2 = radius * radius;
+        int pairs = 0;
+
+        for (int i = 0; i < size; i++) {
+            for (int dy = -range; dy <= range; dy++) {
+                for (int dx = -range; dx <= range; dx++) {
+                    int neighbourX = sortedCellXs[i] + dx;
+                    int neighbourY = sortedCellYs[i] + dy;
+                    int b = bucket(neighbourX, neighbourY);
+                    for (int k = bucketStarts[b]; k < bucketStarts[b + 1]; k++) {
+                        // only the lower index reports a pair, so it is seen once
+                        if (k <= i || sortedCellXs[k] != neighbourX || sortedCellYs[k] != neighbourY)
+                            continue;
+
+                        float distanceX = sortedXs[k] - sortedXs[i];
+                        float distanceY = sortedYs[k] - sortedYs[i];
+                        float distance2 = distanceX * distanceX + distanceY * distanceY;
+                        if (distance2 < radius2) {
+                            visitor.visit(sortedIds[i], sortedIds[k], distance2);
+                            pairs++;
+                        }
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
@@ -0,0 +1,178 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/*
+ * A recorded one on one match: the MatchSetup it was built from, the input of
+ * every tick and the result it ended with. Nothing else is stored, playback
+ * builds the same match again and feeds it the same input, so the fight plays
+ * out exactly as it did. On disk the ticks are run length coded, held keys
+ * and idle stretches take a couple of bytes per run instead of one per tick.
+ */
+public class Replay {
+    private static final int MAGIC = 0x434B5250;
+    private static final short VERSION = 2;
+
+    // chicken1 in the low nibble, chicken2 in the high one
+    private static final int CHICKEN_2_SHIFT = 4;
+    private static final int INPUT_MASK = 0x0F;
+
+    static {
+        Box2D.init();
+    }
+
+    private final MatchSetup setup;
+    private final byte[] inputs;
+    private final MatchResult result;
+
+    public Replay(MatchSetup setup, byte[] inputs, MatchResult result) {
+        this.setup = setup;
+        this.inputs = inputs;
+        this.result = result;
+    }
+
+    static byte pack(int chicken1Input, int chicken2Input) {
+        return (byte) ((chicken1Input & INPUT_MASK) | (chicken2Input & INPUT_MASK) << CHICKEN_2_SHIFT);
+    }
+
+
+    /* PLAYBACK */
+    public int getChicken1Input(int tick) {
+        return inputs[tick] & INPUT_MASK;
+    }
+
+    public int getChicken2Input(int tick) {
+        return inputs[tick] >> CHICKEN_2_SHIFT & INPUT_MASK;
+    }
+
+    // re-simulates the whole match as fast as the CPU allows and returns how it ended
+    public MatchResult simulate() {
+        return simulate(null);
+    }
+
+    // the same run, saving keyframes along the way for a ReplayTimeline
+    public MatchResult simulate(KeyframeStore keyframes) {
+        World world = Match.createWorld();
+        try {
+            Match match = createMatch(world);
+            if (keyframes != null)
+                keyframes.capture(match);
+
+            for (int tick = 0; tick < inputs.length; tick++) {
+                match.update(Match.TIME_STEP, getChicken1Input(tick), getChicken2Input(tick));
+                if (keyframes != null)
+                    keyframes.capture(match);
+            }
+            return match.getResult();
+        } finally {
+            world.dispose();
+        }
+    }
+
+    public Match createMatch(World world) {
+        return setup.createMatch(world);
+    }
+
+    public boolean isReproducedBy(MatchResult other) {
+        return result.getWinner() == other.getWinner()
+                && Float.compare(result.getChicken1Hp(), other.getChicken1Hp()) == 0
+                && Float.compare(result.getChicken2Hp(), other.getChicken2Hp()) == 0
+                && result.getTicks() == other.getTicks();
+    }
+
+
+    /* FILE */
+    public void write(FileHandle file) throws IOException {
+        DataOutputStream out = new DataOutputStream(file.write(false, 4096));
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            setup.write(out);
+            out.writeByte(result.getWinner());
+            out.writeFloat(result.getChicken1Hp());
+            out.writeFloat(result.getChicken2Hp());
+            out.writeInt(result.getTicks());
+
+            out.writeInt(inputs.length);
+            int tick = 0;
+            while (tick < inputs.length) {
+                int runEnd = tick + 1;
+                while (runEnd < inputs.length && inputs[runEnd] == inputs[tick])
+                    runEnd++;
+
+                out.writeByte(inputs[tick]);
+                writeVarInt(out, runEnd - tick);
+                tick = runEnd;
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    public static Replay read(FileHandle file) throws IOException {
+        DataInputStream in = new DataInputStream(file.read(4096));
+        try {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION)
+                throw new IOException("Not a replay: " + file.path());
+
+            MatchSetup setup = MatchSetup.read(in);
+            MatchResult result = new MatchResult(in.readByte(), in.readFloat(), in.readFloat(), in.readInt());
+
+            byte[] inputs = new byte[in.readInt()];
+            int tick = 0;
+            while (tick < inputs.length) {
+                byte input = in.readByte();
+                int length = readVarInt(in);
+                if (length <= 0 || length > inputs.length - tick)
+                    throw new IOException("Malformed replay input run: " + file.path());
+
+                int runEnd = tick + length;
+                while (tick < runEnd)
+                    inputs[tick++] = input;
+            }
+            return new Replay(setup, inputs, result);
+        } finally {
+            in.close();
+        }
+    }
+
+    // seven bits per byte, a run shorter than 128 ticks takes a single byte
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed replay run length");
+    }
+
+
+    /* GETTERS */
+    public MatchSetup getSetup() {
+        return setup;
+    }
+
+    public int getTicks() {
+        return inputs.length;
+    }
+
+    public MatchResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package com.capstone.game.Simulation;
+
+import com.badlogic.gdx.utils.ByteArray;
+
+/*
+ * Collects the input of every step of a Match, one byte per tick holding both
+ * chickens' bitmasks. It runs on whichever thread steps the match and only
+ * grows its buffer, the file is written once the match is done.
+ */
+public class ReplayRecorder {
+    // a 300 second round, grown if the match runs longer
+    private static final int INITIAL_CAPACITY = 300 * 60;
+
+    private final MatchSetup setup;
+    private final ByteArray inputs = new ByteArray(INITIAL_CAPACITY);
+
+    public ReplayRecorder(MatchSetup setup) {
+        this.setup = setup;
+    }
+
+    public void record(int chicken1Input, int chicken2Input) {
+        inputs.add(Replay.pack(chicken1Input, chicken2Input));
+    }
+
+    public int getTicks() {
+        return inputs.size;
+    }
+
+    public Replay finish(MatchResult result) {
+        return new Replay(setup, inputs.toArray(), result);
+    }
+}
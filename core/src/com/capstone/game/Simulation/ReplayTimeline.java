@@ -0,0 +1,62 @@
+package com.capstone.game.Simulation;
+
+import com.capstone.game.Events.CombatEventBus;
+
+/*
+ * Plays a Replay into a Match with random access. The keyframes come from
+ * one unbroken run of the whole replay: a seek restores the nearest one
+ * before the target and steps the rest of the way. A restored keyframe steps
+ * on exactly as the recorded run did, so the fight after a seek is the
+ * recorded one and playing forward needs no correcting.
+ */
+public class ReplayTimeline {
+    private final Match match;
+    private final Replay replay;
+    private final KeyframeStore keyframes;
+
+    public ReplayTimeline(Match match, Replay replay, KeyframeStore keyframes) {
+        this.match = match;
+        this.replay = replay;
+        this.keyframes = keyframes;
+    }
+
+    // false once the recording has run out
+    public boolean step() {
+        int tick = match.getTicks();
+        if (tick >= replay.getTicks())
+            return false;
+
+        match.update(Match.TIME_STEP, replay.getChicken1Input(tick), replay.getChicken2Input(tick));
+        return true;
+    }
+
+    public void seek(int tick) {
+        tick = Math.max(0, Math.min(tick, replay.getTicks()));
+
+        // stepping on from here is cheaper when the target is ahead and no keyframe lies in between
+        MatchKeyframe keyframe = keyframes.floor(tick);
+        if (keyframe != null && (tick < match.getTicks() || keyframe.tick > match.getTicks()))
+            match.restoreKeyframe(keyframe);
+
+        // the ticks skipped over publish no combat events
+        CombatEventBus events = match.getEventBus();
+        match.setEventBus(null);
+        while (match.getTicks() < tick)
+            step();
+        match.setEventBus(events);
+    }
+
+
+    /* GETTERS */
+    public int getTick() {
+        return match.getTicks();
+    }
+
+    public int getLength() {
+        return replay.getTicks();
+    }
+
+    public KeyframeStore getKeyframes() {
+        return keyframes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.capstone.game.Simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Steps a Match on its own thread at the fixed time step and publishes a
+ * snapshot after every step. Input reaches it through atomic bitmasks, state
+ * leaves it through the snapshot buffer, so the render thread never touches
+ * the World while it is being stepped.
+ */
+public class SimulationThread implements Runnable {
+    private static final long STEP_NANOS = (long) (Match.TIME_STEP * 1e9);
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
+    private final Match match;
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+    private final AtomicInteger chicken1Input = new AtomicInteger();
+    private final AtomicInteger chicken2Input = new AtomicInteger();
+    private volatile boolean isRunning;
+    private Thread thread;
+
+    public SimulationThread(Match match) {
+        this.match = match;
+        match.getChicken1().detachSprite();
+        match.getChicken2().detachSprite();
+    }
+
+    public synchronized void start() {
+        if (thread != null)
+            return;
+
+        isRunning = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null)
+            return;
+
+        isRunning = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        long nextStep = System.nanoTime();
+        while (isRunning) {
+            long now = System.nanoTime();
+            if (now < nextStep) {
+                LockSupport.parkNanos(nextStep - now);
+                continue;
+            }
+
+            // after a long stall drop the missed steps instead of racing to catch up
+            if (now - nextStep > MAX_CATCH_UP_STEPS * STEP_NANOS)
+                nextStep = now;
+
+            int input1 = chicken1Input.get();
+            int input2 = chicken2Input.get();
+            match.update(Match.TIME_STEP, input1, input2);
+            consumeJump(chicken1Input, input1);
+            consumeJump(chicken2Input, input2);
+
+            snapshots.getBack().set(match, nextStep);
+            snapshots.publish();
+            nextStep += STEP_NANOS;
+        }
+    }
+
+
+    /* INPUT */
+    // held keys replace the previous ones, a jump press stays pending until a step consumes it
+    public void setInput(int chicken, int heldInput, boolean isJumpPressed) {
+        AtomicInteger input = chicken == MatchResult.CHICKEN_1 ? chicken1Input : chicken2Input;
+        int previous, next;
+        do {
+            previous = input.get();
+            next = (previous & ChickenInput.JUMP) | (heldInput & ~ChickenInput.JUMP) | (isJumpPressed ? ChickenInput.JUMP : 0);
+        } while (!input.compareAndSet(previous, next));
+    }
+
+    private static void consumeJump(AtomicInteger input, int applied) {
+        if ((applied & ChickenInput.JUMP) == 0)
+            return;
+
+        int previous;
+        do {
+            previous = input.get();
+        } while (!input.compareAndSet(previous, previous & ~ChickenInput.JUMP));
+    }
+
+
+    /* OUTPUT */
+    public WorldSnapshot acquireLatest() {
+        return snapshots.acquireLatest();
+    }
+
+    // fraction of a step that passed since the snapshot was simulated
+    public static float getAlpha(WorldSnapshot snapshot, long nowNanos) {
+        float alpha = (nowNanos - snapshot.stepTimeNanos) / (float) STEP_NANOS;
+        return Math.max(0, Math.min(1, alpha));
+    }
+}
@@ -0,0 +1,40 @@
+package com.capstone.game.Simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Triple buffer between one writer and one reader. The writer fills the back
+ * snapshot and publishes it with a single atomic swap, the reader swaps in
+ * the newest published snapshot. Neither side ever blocks or allocates, and
+ * a snapshot is never written while the reader holds it.
+ */
+public class SnapshotBuffer {
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final WorldSnapshot[] snapshots = {new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+    private boolean hasPublished;
+
+    /* WRITER SIDE */
+    public WorldSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+
+    /* READER SIDE */
+    // the returned snapshot stays untouched until the next call
+    public WorldSnapshot acquireLatest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+            hasPublished = true;
+        }
+        return hasPublished ? snapshots[front] : null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.capstone.game.Simulation;
+
+import com.capstone.game.Persistence.MatchRecord;
+import com.capstone.game.Persistence.ResultWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/*
+ * Runs many headless matches at once on a fork-join pool. Every match gets
+ * its own World and its own pair of chickens, and is created, stepped and
+ * disposed inside a single task so a World never crosses threads.
+ */
+public class Tournament {
+    private final ForkJoinPool pool;
+    private final int maxTicks;
+    private final List<MatchResult> results = Collections.synchronizedList(new ArrayList<MatchResult>());
+    private volatile ResultWriter resultWriter;
+
+    public Tournament() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public Tournament(int parallelism) {
+        this(parallelism, HeadlessMatch.DEFAULT_MAX_TICKS);
+    }
+
+    public Tournament(int parallelism, int maxTicks) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxTicks = maxTicks;
+    }
+
+    /* MATCHES */
+    public List<MatchResult> runMatches(List<Pairing> pairings) {
+        List<Callable<MatchResult>> tasks = new ArrayList<>(pairings.size());
+        for (final Pairing pairing : pairings) {
+            tasks.add(new Callable<MatchResult>() {
+                @Override
+                public MatchResult call() {
+                    return runMatch(pairing);
+                }
+            });
+        }
+
+        List<MatchResult> roundResults = new ArrayList<>(pairings.size());
+        for (Future<MatchResult> future : pool.invokeAll(tasks))
+            roundResults.add(join(future));
+
+        results.addAll(roundResults);
+        return roundResults;
+    }
+
+    private MatchResult runMatch(Pairing pairing) {
+        HeadlessMatch match = new HeadlessMatch(pairing.chicken1, pairing.chicken2);
+        try {
+            MatchResult result = match.run(maxTicks);
+
+            // handed off without waiting, the pool threads never touch the database
+            ResultWriter writer = resultWriter;
+            if (writer != null)
+                writer.submit(new MatchRecord(pairing.chicken1, pairing.chicken2, result));
+            return result;
+        } finally {
+            match.dispose();
+        }
+    }
+
+    private static MatchResult join(Future<MatchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Match failed", e.getCause());
+        }
+    }
+
+
+    /* BRACKET */
+    // single elimination, an odd entrant out gets a bye into the next round
+    public ChickenSpec runBracket(List<ChickenSpec> entrants) {
+        if (entrants.isEmpty())
+            throw new IllegalArgumentException("A bracket needs at least one entrant");
+
+        List<ChickenSpec> round = new ArrayList<>(entrants);
+        while (round.size() > 1) {
+            List<Pairing> pairings = new ArrayList<>(round.size() / 2);
+            for (int i = 0; i + 1 < round.size(); i += 2)
+                pairings.add(new Pairing(round.get(i).atLeft(), round.get(i + 1).atRight()));
+
+            List<MatchResult> roundResults = runMatches(pairings);
+            List<ChickenSpec> nextRound = new ArrayList<>(round.size() / 2 + 1);
+            for (int i = 0; i < pairings.size(); i++)
+                nextRound.add(isChicken1Advancing(roundResults.get(i)) ? round.get(2 * i) : round.get(2 * i + 1));
+
+            if (round.size() % 2 == 1)
+                nextRound.add(round.get(round.size() - 1));
+            round = nextRound;
+        }
+        return round.get(0);
+    }
+
+    // a draw goes to the chicken with more hp left, an even draw to chicken 1
+    private static boolean isChicken1Advancing(MatchResult result) {
+        if (result.getWinner() == MatchResult.DRAW)
+            return result.getChicken1Hp() >= result.getChicken2Hp();
+        return result.getWinner() == MatchResult.CHICKEN_1;
+    }
+
+
+    /* RESULTS */
+    // every match played from now on is also stored, the writer is closed by whoever opened it
+    public void setResultWriter(ResultWriter resultWriter) {
+        this.resultWriter = resultWriter;
+    }
+
+    public List<MatchResult> getResults() {
+        synchronized (results) {
+            return new ArrayList<>(results);
+        }
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
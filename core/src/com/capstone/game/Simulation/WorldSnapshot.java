@@ -0,0 +1,22 @@
+package com.capstone.game.Simulation;
+
+public class WorldSnapshot {
+    public int tick;
+    public long stepTimeNanos;
+    public final ChickenSnapshot chicken1 = new ChickenSnapshot();
+    public final ChickenSnapshot chicken2 = new ChickenSnapshot();
+
+    public void set(Match match, long stepTimeNanos) {
+        this.tick = match.getTicks();
+        this.stepTimeNanos = stepTimeNanos;
+        chicken1.set(match.getChicken1());
+        chicken2.set(match.getChicken2());
+    }
+
+    public void set(WorldSnapshot other) {
+        this.tick = other.tick;
+        this.stepTimeNanos = other.stepTimeNanos;
+        chicken1.set(other.chicken1);
+        chicken2.set(other.chicken2);
+    }
+}
@@ -0,0 +1,464 @@
+package com.capstone.game.Simulation;
+
+import com.capstone.game.Sprites.Chicken;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+ * Reads and writes WorldSnapshots in the WorldState protobuf format of
+ * core/proto/world_state.proto. The fields are written straight through
+ * CodedOutputStream and read back through CodedInputStream instead of going
+ * through generated message classes, so one codec encodes and decodes any
+ * number of snapshots without allocating. Floats are quantized to the fixed
+ * point units of the schema. A delta is the difference of the quantized
+ * values, so decoding it on top of the decoded base gives exactly what a full
+ * snapshot of the same tick would have.
+ */
+public class WorldStateCodec {
+    /* QUANTIZATION */
+    public static final float POSITION_SCALE = 512f;
+    public static final float VELOCITY_SCALE = 256f;
+    public static final float HP_SCALE = 100f;
+    public static final float STATE_TIME_SCALE = 1 / Match.TIME_STEP;
+    // the largest hp the schema carries, so a delta between two of them still fits a sint32
+    public static final float MAX_HP = 1e7f;
+
+    /* FIELD NUMBERS */
+    private static final int WORLD_TICK = 1;
+    private static final int WORLD_BASE_TICK = 2;
+    private static final int WORLD_MATCH = 3;
+    private static final int WORLD_CHICKENS = 4;
+    private static final int MATCH_SEED = 1;
+    private static final int MATCH_ARENA_COLUMNS = 2;
+    private static final int CHICKEN_ID = 1;
+    private static final int CHICKEN_X = 2;
+    private static final int CHICKEN_Y = 3;
+    private static final int CHICKEN_VELOCITY_X = 4;
+    private static final int CHICKEN_VELOCITY_Y = 5;
+    private static final int CHICKEN_STATE = 6;
+    private static final int CHICKEN_HP = 7;
+    private static final int CHICKEN_FACING = 8;
+    private static final int CHICKEN_STATE_TICKS = 9;
+
+    // zero is UNCHANGED in both enums, the states follow in Chicken.State order
+    private static final int UNCHANGED = 0;
+    private static final int FACING_LEFT = 1;
+    private static final int FACING_RIGHT = 2;
+    private static final Chicken.State[] STATES = Chicken.State.values();
+
+    private static final int CODED_BUFFER_SIZE = 256;
+
+    private final ByteBufferOutput output = new ByteBufferOutput(CODED_BUFFER_SIZE);
+    private final CodedOutputStream codedOutput = CodedOutputStream.newInstance(output, CODED_BUFFER_SIZE);
+    private final ByteBufferInput input = new ByteBufferInput();
+    private CodedInputStream codedInput = CodedInputStream.newInstance(input, CODED_BUFFER_SIZE);
+
+    // scratch, a quantized chicken and the fields of one message
+    private final QuantizedChicken current = new QuantizedChicken();
+    private final QuantizedChicken base = new QuantizedChicken();
+    private final QuantizedChicken fields = new QuantizedChicken();
+
+    private boolean hasMatchInfo;
+    private long seed;
+    private int arenaColumns;
+
+    private boolean isDecodedDelta;
+    private int decodedBaseTick;
+    private long decodedSeed;
+    private int decodedArenaColumns;
+
+
+    // written with every full snapshot, so a receiver joining late knows what it is watching
+    public void setMatchInfo(long seed, int arenaColumns) {
+        this.hasMatchInfo = true;
+        this.seed = seed;
+        this.arenaColumns = arenaColumns;
+    }
+
+
+    /* ENCODING */
+    // returns the length, the bytes are at the start of getBuffer() until the next encode
+    public int encodeFull(WorldSnapshot snapshot) throws IOException {
+        return encode(snapshot, null);
+    }
+
+    public int encodeDelta(WorldSnapshot snapshot, WorldSnapshot base) throws IOException {
+        return encode(snapshot, base);
+    }
+
+    private int encode(WorldSnapshot snapshot, WorldSnapshot baseSnapshot) throws IOException {
+        output.reset();
+        codedOutput.writeUInt32(WORLD_TICK, snapshot.tick);
+        if (baseSnapshot != null) {
+            // written even when zero, its presence is what marks a delta
+            codedOutput.writeTag(WORLD_BASE_TICK, WireFormat.WIRETYPE_VARINT);
+            codedOutput.writeUInt32NoTag(baseSnapshot.tick);
+        } else if (hasMatchInfo) {
+            writeMatchInfo();
+        }
+
+        writeChicken(1, snapshot.chicken1, baseSnapshot != null ? baseSnapshot.chicken1 : null);
+        writeChicken(2, snapshot.chicken2, baseSnapshot != null ? baseSnapshot.chicken2 : null);
+        codedOutput.flush();
+        return output.size;
+    }
+
+    private void writeMatchInfo() throws IOException {
+        int size = CodedOutputStream.computeUInt64Size(MATCH_SEED, seed)
+                + CodedOutputStream.computeUInt32Size(MATCH_ARENA_COLUMNS, arenaColumns);
+        codedOutput.writeTag(WORLD_MATCH, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        codedOutput.writeUInt32NoTag(size);
+        codedOutput.writeUInt64(MATCH_SEED, seed);
+        codedOutput.writeUInt32(MATCH_ARENA_COLUMNS, arenaColumns);
+    }
+
+    private void writeChicken(int id, ChickenSnapshot chicken, ChickenSnapshot baseChicken) throws IOException {
+        current.set(chicken);
+        if (baseChicken == null) {
+            fields.set(current);
+        } else {
+            base.set(baseChicken);
+            fields.setDifference(current, base);
+            // nothing changed, the chicken is left out of the delta
+            if (fields.isEmpty())
+                return;
+        }
+
+        int size = CodedOutputStream.computeUInt32Size(CHICKEN_ID, id)
+                + computeSInt32Size(CHICKEN_X, fields.x)
+                + computeSInt32Size(CHICKEN_Y, fields.y)
+                + computeSInt32Size(CHICKEN_VELOCITY_X, fields.velocityX)
+                + computeSInt32Size(CHICKEN_VELOCITY_Y, fields.velocityY)
+                + computeEnumSize(CHICKEN_STATE, fields.state)
+                + computeSInt32Size(CHICKEN_HP, fields.hp)
+                + computeEnumSize(CHICKEN_FACING, fields.facing)
+                + computeSInt32Size(CHICKEN_STATE_TICKS, fields.stateTicks);
+
+        codedOutput.writeTag(WORLD_CHICKENS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        codedOutput.writeUInt32NoTag(size);
+        codedOutput.writeUInt32(CHICKEN_ID, id);
+        writeSInt32(CHICKEN_X, fields.x);
+        writeSInt32(CHICKEN_Y, fields.y);
+        writeSInt32(CHICKEN_VELOCITY_X, fields.velocityX);
+        writeSInt32(CHICKEN_VELOCITY_Y, fields.velocityY);
+        writeEnum(CHICKEN_STATE, fields.state);
+        writeSInt32(CHICKEN_HP, fields.hp);
+        writeEnum(CHICKEN_FACING, fields.facing);
+        writeSInt32(CHICKEN_STATE_TICKS, fields.stateTicks);
+    }
+
+    // proto3 leaves zero fields out
+    private static int computeSInt32Size(int field, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeSInt32Size(field, value);
+    }
+
+    private static int computeEnumSize(int field, int value) {
+        return value == UNCHANGED ? 0 : CodedOutputStream.computeEnumSize(field, value);
+    }
+
+    private void writeSInt32(int field, int value) throws IOException {
+        if (value != 0)
+            codedOutput.writeSInt32(field, value);
+    }
+
+    private void writeEnum(int field, int value) throws IOException {
+        if (value != UNCHANGED)
+            codedOutput.writeEnum(field, value);
+    }
+
+
+    /* DECODING */
+    // a delta needs the snapshot it was made against, base may be null for a full snapshot
+    public void decode(byte[] data, int offset, int length, WorldSnapshot baseSnapshot, WorldSnapshot out) throws IOException {
+        input.set(data, offset, length);
+        try {
+            codedInput.resetSizeCounter();
+            decode(baseSnapshot, out);
+        } catch (IOException | RuntimeException e) {
+            // a broken message can leave bytes buffered, the next one starts on a clean stream
+            codedInput = CodedInputStream.newInstance(input, CODED_BUFFER_SIZE);
+            throw e;
+        }
+    }
+
+    private void decode(WorldSnapshot baseSnapshot, WorldSnapshot out) throws IOException {
+        int tick = 0;
+        isDecodedDelta = false;
+        boolean hasChicken1 = false;
+        boolean hasChicken2 = false;
+
+        int tag;
+        while ((tag = codedInput.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case WORLD_TICK:
+                    tick = codedInput.readUInt32();
+                    break;
+                case WORLD_BASE_TICK:
+                    isDecodedDelta = true;
+                    decodedBaseTick = codedInput.readUInt32();
+                    if (baseSnapshot == null || baseSnapshot.tick != decodedBaseTick)
+                        throw new InvalidProtocolBufferException("Delta against tick " + decodedBaseTick
+                                + ", base is " + (baseSnapshot == null ? "missing" : "tick " + baseSnapshot.tick));
+                    break;
+                case WORLD_MATCH:
+                    readMatchInfo();
+                    break;
+                case WORLD_CHICKENS:
+                    int id = readChicken();
+                    // the base tick comes first, so by now it is known whether these fields are differences
+                    if (id == 1) {
+                        applyChicken(fields, isDecodedDelta ? baseSnapshot.chicken1 : null, out.chicken1);
+                        hasChicken1 = true;
+                    } else if (id == 2) {
+                        applyChicken(fields, isDecodedDelta ? baseSnapshot.chicken2 : null, out.chicken2);
+                        hasChicken2 = true;
+                    }
+                    break;
+                default:
+                    codedInput.skipField(tag);
+                    break;
+            }
+        }
+
+        // a chicken left out of a delta did not change
+        if (isDecodedDelta) {
+            if (!hasChicken1)
+                applyChicken(null, baseSnapshot.chicken1, out.chicken1);
+            if (!hasChicken2)
+                applyChicken(null, baseSnapshot.chicken2, out.chicken2);
+        } else if (!hasChicken1 || !hasChicken2) {
+            throw new InvalidProtocolBufferException("Full snapshot without both chickens");
+        }
+        out.tick = tick;
+    }
+
+    private void readMatchInfo() throws IOException {
+        int limit = codedInput.pushLimit(codedInput.readRawVarint32());
+        int tag;
+        while ((tag = codedInput.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case MATCH_SEED:
+                    decodedSeed = codedInput.readUInt64();
+                    break;
+                case MATCH_ARENA_COLUMNS:
+                    decodedArenaColumns = codedInput.readUInt32();
+                    break;
+                default:
+                    codedInput.skipField(tag);
+                    break;
+            }
+        }
+        codedInput.popLimit(limit);
+    }
+
+    // reads one chicken message into fields and returns its id
+    private int readChicken() throws IOException {
+        int limit = codedInput.pushLimit(codedInput.readRawVarint32());
+        int id = 0;
+        fields.clear();
+
+        int tag;
+        while ((tag = codedInput.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case CHICKEN_ID: id = codedInput.readUInt32(); break;
+                case CHICKEN_X: fields.x = codedInput.readSInt32(); break;
+                case CHICKEN_Y: fields.y = codedInput.readSInt32(); break;
+                case CHICKEN_VELOCITY_X: fields.velocityX = codedInput.readSInt32(); break;
+                case CHICKEN_VELOCITY_Y: fields.velocityY = codedInput.readSInt32(); break;
+                case CHICKEN_STATE: fields.state = codedInput.readEnum(); break;
+                case CHICKEN_HP: fields.hp = codedInput.readSInt32(); break;
+                case CHICKEN_FACING: fields.facing = codedInput.readEnum(); break;
+                case CHICKEN_STATE_TICKS: fields.stateTicks = codedInput.readSInt32(); break;
+                default: codedInput.skipField(tag); break;
+            }
+        }
+        codedInput.popLimit(limit);
+        return id;
+    }
+
+    private void applyChicken(QuantizedChicken chickenFields, ChickenSnapshot baseChicken, ChickenSnapshot out) throws IOException {
+        if (baseChicken == null) {
+            current.set(chickenFields);
+        } else {
+            base.set(baseChicken);
+            if (chickenFields == null)
+                current.set(base);
+            else
+                current.setSum(base, chickenFields);
+        }
+
+        if (current.state < 1 || current.state > STATES.length || (current.facing != FACING_LEFT && current.facing != FACING_RIGHT))
+            throw new InvalidProtocolBufferException("Chicken without a valid state or facing");
+        current.get(out);
+    }
+
+
+    /* GETTERS */
+    public byte[] getBuffer() {
+        return output.bytes;
+    }
+
+    public boolean isDecodedDelta() {
+        return isDecodedDelta;
+    }
+
+    public int getDecodedBaseTick() {
+        return decodedBaseTick;
+    }
+
+    public long getDecodedSeed() {
+        return decodedSeed;
+    }
+
+    public int getDecodedArenaColumns() {
+        return decodedArenaColumns;
+    }
+
+
+    // one chicken in the fixed point units of the schema
+    private static class QuantizedChicken {
+        int x, y, velocityX, velocityY, state, hp, facing, stateTicks;
+
+        void set(ChickenSnapshot chicken) {
+            x = Math.round(chicken.x * POSITION_SCALE);
+            y = Math.round(chicken.y * POSITION_SCALE);
+            velocityX = Math.round(chicken.velocityX * VELOCITY_SCALE);
+            velocityY = Math.round(chicken.velocityY * VELOCITY_SCALE);
+            state = chicken.currentState.ordinal() + 1;
+            if (Math.abs(chicken.hp) > MAX_HP) {
+                throw new IllegalArgumentException("Chicken hp " + chicken.hp + " outside the +-" + MAX_HP + " of the schema");
+            }
+            hp = Math.round(chicken.hp * HP_SCALE);
+            facing = chicken.isFaceRight ? FACING_RIGHT : FACING_LEFT;
+            stateTicks = Math.round(chicken.stateTimer * STATE_TIME_SCALE);
+        }
+
+        void get(ChickenSnapshot chicken) {
+            chicken.x = chicken.previousX = x / POSITION_SCALE;
+            chicken.y = chicken.previousY = y / POSITION_SCALE;
+            chicken.velocityX = velocityX / VELOCITY_SCALE;
+            chicken.velocityY = velocityY / VELOCITY_SCALE;
+            chicken.currentState = chicken.previousState = STATES[state - 1];
+            chicken.hp = hp / HP_SCALE;
+            chicken.isFaceRight = facing == FACING_RIGHT;
+            chicken.stateTimer = stateTicks / STATE_TIME_SCALE;
+        }
+
+        void set(QuantizedChicken other) {
+            x = other.x;
+            y = other.y;
+            velocityX = other.velocityX;
+            velocityY = other.velocityY;
+            state = other.state;
+            hp = other.hp;
+            facing = other.facing;
+            stateTicks = other.stateTicks;
+        }
+
+        void setDifference(QuantizedChicken current, QuantizedChicken base) {
+            x = current.x - base.x;
+            y = current.y - base.y;
+            velocityX = current.velocityX - base.velocityX;
+            velocityY = current.velocityY - base.velocityY;
+            state = current.state == base.state ? UNCHANGED : current.state;
+            hp = current.hp - base.hp;
+            facing = current.facing == base.facing ? UNCHANGED : current.facing;
+            stateTicks = current.stateTicks - base.stateTicks;
+        }
+
+        void setSum(QuantizedChicken base, QuantizedChicken difference) {
+            x = base.x + difference.x;
+            y = base.y + difference.y;
+            velocityX = base.velocityX + difference.velocityX;
+            velocityY = base.velocityY + difference.velocityY;
+            state = difference.state == UNCHANGED ? base.state : difference.state;
+            hp = base.hp + difference.hp;
+            facing = difference.facing == UNCHANGED ? base.facing : difference.facing;
+            stateTicks = base.stateTicks + difference.stateTicks;
+        }
+
+        boolean isEmpty() {
+            return x == 0 && y == 0 && velocityX == 0 && velocityY == 0 && state == UNCHANGED
+                    && hp == 0 && facing == UNCHANGED && stateTicks == 0;
+        }
+
+        void clear() {
+            x = y = velocityX = velocityY = state = hp = facing = stateTicks = 0;
+        }
+    }
+
+    // the growing byte array CodedOutputStream flushes into
+    private static class ByteBufferOutput extends OutputStream {
+        byte[] bytes;
+        int size;
+
+        ByteBufferOutput(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + extra)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+        }
+    }
+
+    // hands CodedInputStream one message at a time without copying it
+    private static class ByteBufferInput extends InputStream {
+        private byte[] bytes;
+        private int position;
+        private int end;
+
+        void set(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() {
+            return position < end ? bytes[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (position >= end)
+                return -1;
+
+            int count = Math.min(length, end - position);
+            System.arraycopy(bytes, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return end - position;
+        }
+    }
+}
@@ -4,10 +4,14 @@ import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.utils.Array;
 import com.capstone.game.CockfightGame;
+import com.capstone.game.Events.CombatEvent;
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Simulation.ChickenKeyframe;
+import com.capstone.game.Simulation.ChickenSnapshot;
 
 import java.util.Random;
 
@@ -24,46 +28,80 @@ public class Chicken extends Sprite {
     private Animation<TextureRegion> chickenIdle;
     private Animation<TextureRegion> chickenAttack;
     private Animation<TextureRegion> chickenDie;
+    private final TextureRegion sheetRegion;
+    private ChickenAnimations rightAnimations;
+    private ChickenAnimations leftAnimations;
 
     private float stateTimer;
     private boolean runningRight;
     private final BodyDef bodyDef;
+    private final FixtureDef fixtureDef = new FixtureDef();
     private boolean isFaceRight;
+    private boolean isSpriteFaceRight;
+    private boolean isSpriteDetached;
 
     public enum PowerUps {ATTACK, DEFENSE, HEAL, SPEED};
     private boolean isAttacking, isCharging, isJumping, isRunning, isStanding, isDead;
     private float hp;
     private float speed;
     private float damage;
-    private long time;
-    private boolean isGoingRight;
+    private int attacks;
 
     private float characterWidth;
     private float characterHeight;
+    private float textureOffsetX;
+    private float textureOffsetY;
 
-    private final Random random = new Random();
+    // body position after the last two physics steps, for render interpolation
+    private final Vector2 previousPosition = new Vector2();
+    private final Vector2 currentPosition = new Vector2();
+    private final Vector2 renderPosition = new Vector2();
+    // body velocity after the last physics step, read once instead of through JNI each time
+    private final Vector2 currentVelocity = new Vector2();
+
+    // xorshift so its state can be saved and restored with a keyframe
+    private final RandomXS128 random;
+    private final boolean isHeadless;
+    private final String skin;
+
+    // combat events go out on the bus under this chicken's number, null when nobody listens
+    private CombatEventBus events;
+    private int eventId;
 
     /* STATISTICS */
-    private static final float JUMP_IMPULSE = 1.6f;
-    private static final float MOVE_IMPULSE = 0.8f;
-    private static final float MAX_SPEED = 3.2f;
+    public static final float JUMP_IMPULSE = 1.6f;
+    public static final float MOVE_IMPULSE = 0.8f;
+    public static final float MAX_SPEED = 3.2f;
+    public static final float BODY_RADIUS = 24;
 
     private Chicken(ChickenBuilder builder) {
-        // get sprite map from screen
-        super(builder.chickenAtlasRegion);
         this.world = builder.world;
+        this.isHeadless = builder.chickenAtlasRegion == null;
+        this.sheetRegion = builder.chickenAtlasRegion;
+        this.skin = builder.skin;
+
+        // get sprite map from screen, headless chickens have no textures at all
+        if (!isHeadless) {
+            setRegion(builder.chickenAtlasRegion);
+            setSize(builder.chickenAtlasRegion.getRegionWidth(), builder.chickenAtlasRegion.getRegionHeight());
+            setOrigin(getWidth() / 2, getHeight() / 2);
+        }
 
         // define chicken stats and states
         this.hp = builder.hp;
         this.isFaceRight = builder.isFaceRight;
+        this.isSpriteFaceRight = builder.isFaceRight;
         this.damage = builder.damage;
         this.speed = builder.speed;
+        this.random = builder.random;
         this.initializeStates();
 
         this.bodyDef = new BodyDef();
-        this.defineTextures();
         this.defineChicken(builder.posX, builder.posY);
-        this.resizeCharacterTexture(72f, 0, 0);
+        if (!isHeadless) {
+            this.defineTextures();
+            this.resizeCharacterTexture(72f, 0, 0, currentPosition.x, currentPosition.y);
+        }
     }
 
     public static class ChickenBuilder {
@@ -75,6 +113,12 @@ public class Chicken extends Sprite {
         private float hp;
         private float damage;
         private float speed;
+        private RandomXS128 random;
+        private String skin;
+
+        public ChickenBuilder(World world) {
+            this(world, null);
+        }
 
         public ChickenBuilder(World world, TextureAtlas.AtlasRegion chickenAtlasRegion) {
             this.world = world;
@@ -85,6 +129,7 @@ public class Chicken extends Sprite {
             this.hp = 100;
             this.damage = 10;
             this.speed = 1;
+            this.random = new RandomXS128();
         }
 
         public ChickenBuilder setPosX(float posX) {
@@ -117,41 +162,49 @@ public class Chicken extends Sprite {
             return this;
         }
 
+        // skin the region came from, released when the chicken is done with it
+        public ChickenBuilder setSkin(String skin) {
+            this.skin = skin;
+            return this;
+        }
+
+        public ChickenBuilder setSeed(long seed) {
+            this.random = new RandomXS128(seed);
+            return this;
+        }
+
         public Chicken build() {
             return new Chicken(this);
         }
     }
 
     private void defineTextures() {
-        // create an array of texture regions for running animation
-        this.chickenRun = defineTexture(680, 4, 20, 20, 23);
-        this.chickenJump = defineTexture(420, 5, 32, 32, 32);
-        this.chickenIdle = defineTexture(580, 5, 20, 20, 20);
-        this.chickenAttack = defineTexture(102, 6, 34, 34, 34);
-        this.chickenDie = defineTexture(340, 4, 20, 20, 21);
-    }
-
-    private Animation<TextureRegion> defineTexture(int frameStart, int frameCount, int frameGap, int frameWidth, int frameHeight) {
-        Array<TextureRegion> frames = new Array<>();
-        for (int i = 0; i < frameCount; i++) {
-            TextureRegion region = new TextureRegion(getTexture(), i * frameGap + frameStart, 0, frameWidth, frameHeight);
-            region.flip(!this.isFaceRight, false);
-            frames.add(region);
+        // both facings come from the shared cache, turning around only swaps references
+        if (rightAnimations == null) {
+            rightAnimations = ChickenAnimations.get(sheetRegion, true);
+            leftAnimations = ChickenAnimations.get(sheetRegion, false);
         }
-        Animation<TextureRegion> animation = new Animation<>(0.1f, frames);
-        frames.clear();
-        return animation;
+
+        ChickenAnimations animations = isSpriteFaceRight ? rightAnimations : leftAnimations;
+        this.chickenRun = animations.run;
+        this.chickenJump = animations.jump;
+        this.chickenIdle = animations.idle;
+        this.chickenAttack = animations.attack;
+        this.chickenDie = animations.die;
     }
 
     private void defineChicken(float posX, float posY) {
         // create the body definition and set its position and type
         bodyDef.position.set(posX, posY);
         bodyDef.type = BodyDef.BodyType.DynamicBody;
-        body = world.createBody(bodyDef);
 
         // create the fixture definition
-        initializeFixture(24);
-        body.setUserData(this);
+        initializeFixture(BODY_RADIUS);
+        createBody();
+
+        previousPosition.set(body.getPosition());
+        currentPosition.set(body.getPosition());
+        renderPosition.set(body.getPosition());
     }
 
     private void initializeStates() {
@@ -167,18 +220,21 @@ public class Chicken extends Sprite {
         this.isRunning = false;
         this.isStanding = true;
         this.isDead = false;
-        this.isGoingRight = true;
     }
 
     private void initializeFixture(float radius) {
-        // Create the fixture definition
-        FixtureDef fixtureDef = new FixtureDef();
+        // kept for the chicken's whole life, the body is built again from it whenever a match rebuilds its bodies
         CircleShape circleShape = new CircleShape();
         circleShape.setRadius(radius / CockfightGame.PPM);
 
         // Set the shape to the fixture definition
         fixtureDef.shape = circleShape;
+    }
+
+    private void createBody() {
+        body = world.createBody(bodyDef);
         body.createFixture(fixtureDef);
+        body.setUserData(this);
     }
 
     private void setWorld(World world) {
@@ -188,58 +244,75 @@ public class Chicken extends Sprite {
 
     /* IN-GAME METHODS */
     public void update(float dt) {
+        previousPosition.set(currentPosition);
+        currentPosition.set(body.getPosition());
+        currentVelocity.set(body.getLinearVelocity());
+
+        previousState = currentState;
+        currentState = getState(currentVelocity);
+        if (!isHeadless && !isSpriteDetached)
+            updateRegion(currentState, stateTimer, currentVelocity.x, currentPosition.x, currentPosition.y);
+
+        stateTimer = currentState == previousState ? stateTimer + dt : 0;
+        if (events != null && currentState != previousState)
+            publish(CombatEvent.Type.STATE_CHANGE, CombatEvent.NONE, hp);
+    }
+
+    // x and y are where the sprite is centred, so the render thread never reads the simulation's positions
+    private void updateRegion(State state, float stateTimer, float velocityX, float x, float y) {
         TextureRegion region;
-        float xOffset = isFaceRight ? 0.1f : -0.1f;
+        float xOffset = isSpriteFaceRight ? 0.1f : -0.1f;
         float smallSize = 72f;
         float bigSize = 96f;
 
-        previousState = currentState;
-        currentState = getState();
-        switch (currentState) {
+        switch (state) {
             case DEAD:
                 region = chickenDie.getKeyFrame(stateTimer, false);
-                resizeCharacterTexture(smallSize, xOffset,0.04f);
+                resizeCharacterTexture(smallSize, xOffset,0.04f, x, y);
                 break;
             case RUNNING:
             case CHARGING:
                 region = chickenRun.getKeyFrame(stateTimer, true);
-                resizeCharacterTexture(smallSize, 0,0.0f);
+                resizeCharacterTexture(smallSize, 0,0.0f, x, y);
                 break;
             case JUMPING:
                 region = chickenJump.getKeyFrame(stateTimer, true);
-                resizeCharacterTexture(bigSize, xOffset,-0.15f);
+                resizeCharacterTexture(bigSize, xOffset,-0.15f, x, y);
                 break;
             case ATTACKING:
                 region = chickenAttack.getKeyFrame(stateTimer, true);
-                resizeCharacterTexture(bigSize, xOffset,-0.2f);
+                resizeCharacterTexture(bigSize, xOffset,-0.2f, x, y);
                 break;
             case STANDING:
             default:
                 region = chickenIdle.getKeyFrame(stateTimer, true);
-                resizeCharacterTexture(smallSize, 0,0.08f);
+                resizeCharacterTexture(smallSize, 0,0.08f, x, y);
                 break;
         }
 
-        if ((body.getLinearVelocity().x < 0 || !runningRight) && !region.isFlipX()) {
+        if ((velocityX < 0 || !runningRight) && !region.isFlipX()) {
             runningRight = false;
-        } else if ((body.getLinearVelocity().x > 0 || runningRight) && region.isFlipX()) {
+        } else if ((velocityX > 0 || runningRight) && region.isFlipX()) {
             runningRight = true;
         }
 
-        stateTimer = currentState == previousState ? stateTimer + dt : 0;
         setRegion(region);
     }
 
     public State getState() {
+        return getState(body.getLinearVelocity());
+    }
+
+    private State getState(Vector2 velocity) {
         if (hp <= 0) {
             return State.DEAD;
         } else if (isAttacking) {
             return State.ATTACKING;
         } else if (isCharging) {
             return State.CHARGING;
-        } else if (body.getLinearVelocity().y > 0 || (body.getLinearVelocity().y < 0 && previousState == State.JUMPING)) {
+        } else if (velocity.y > 0 || (velocity.y < 0 && previousState == State.JUMPING)) {
             return State.JUMPING;
-        } else if (body.getLinearVelocity().x != 0) {
+        } else if (velocity.x != 0) {
             return State.RUNNING;
         } else {
             return State.STANDING;
@@ -247,10 +320,95 @@ public class Chicken extends Sprite {
     }
 
 
-    private void resizeCharacterTexture(float size, float xOffset, float yOffset) {
+    private void resizeCharacterTexture(float size, float xOffset, float yOffset, float x, float y) {
         characterWidth = characterHeight = size;
+        textureOffsetX = xOffset;
+        textureOffsetY = yOffset;
         setBounds(0, 0, characterWidth / CockfightGame.PPM, characterWidth / CockfightGame.PPM);
-        setPosition(body.getPosition().x - getWidth() / 2 + xOffset, body.getPosition().y - getHeight() / 2 + yOffset);
+        setPosition(x - getWidth() / 2 + xOffset, y - getHeight() / 2 + yOffset);
+    }
+
+    // place the sprite between the last two physics states, alpha is the leftover fraction of a step
+    public void interpolate(float alpha) {
+        renderPosition.set(previousPosition).lerp(currentPosition, alpha);
+        if (!isHeadless)
+            setPosition(renderPosition.x - getWidth() / 2 + textureOffsetX, renderPosition.y - getHeight() / 2 + textureOffsetY);
+    }
+
+    public Vector2 getRenderPosition() {
+        return renderPosition;
+    }
+
+    // hand the sprite over to the render thread, from now on the simulation only touches the body and state
+    public void detachSprite() {
+        isSpriteDetached = true;
+    }
+
+    // draw the state a simulation thread published instead of reading the body
+    public void applySnapshot(ChickenSnapshot snapshot, float alpha) {
+        renderPosition.set(
+                snapshot.previousX + (snapshot.x - snapshot.previousX) * alpha,
+                snapshot.previousY + (snapshot.y - snapshot.previousY) * alpha);
+        if (isHeadless)
+            return;
+
+        if (snapshot.isFaceRight != isSpriteFaceRight) {
+            isSpriteFaceRight = snapshot.isFaceRight;
+            defineTextures();
+        }
+        updateRegion(snapshot.currentState, snapshot.stateTimer, snapshot.velocityX, renderPosition.x, renderPosition.y);
+        setPosition(renderPosition.x - getWidth() / 2 + textureOffsetX, renderPosition.y - getHeight() / 2 + textureOffsetY);
+    }
+
+
+    /* KEYFRAMES */
+    public void saveKeyframe(ChickenKeyframe keyframe) {
+        keyframe.set(this);
+        keyframe.angle = body.getAngle();
+        keyframe.angularVelocity = body.getAngularVelocity();
+        keyframe.isAwake = body.isAwake();
+        keyframe.isAttacking = isAttacking;
+        keyframe.attacks = attacks;
+        keyframe.randomState0 = random.getState(0);
+        keyframe.randomState1 = random.getState(1);
+    }
+
+    // puts every state the simulation reads back to a saved step, the body is rebuilt by the match
+    public void restoreKeyframe(ChickenKeyframe keyframe) {
+        previousPosition.set(keyframe.previousX, keyframe.previousY);
+        currentPosition.set(keyframe.x, keyframe.y);
+        currentVelocity.set(keyframe.velocityX, keyframe.velocityY);
+        renderPosition.set(currentPosition);
+        currentState = keyframe.currentState;
+        previousState = keyframe.previousState;
+        stateTimer = keyframe.stateTimer;
+        hp = keyframe.hp;
+        isAttacking = keyframe.isAttacking;
+        attacks = keyframe.attacks;
+        random.setState(keyframe.randomState0, keyframe.randomState1);
+
+        isFaceRight = keyframe.isFaceRight;
+        if (!isHeadless && !isSpriteDetached && isSpriteFaceRight != isFaceRight) {
+            isSpriteFaceRight = isFaceRight;
+            defineTextures();
+        }
+    }
+
+
+    // the body goes with every contact and broadphase pair Box2D kept for it, see Match.rebuildBodies
+    public void destroyBody() {
+        world.destroyBody(body);
+        body = null;
+    }
+
+    // a new body in the saved state, exactly as Box2D builds one that never stepped
+    public void createBody(ChickenKeyframe keyframe) {
+        bodyDef.position.set(keyframe.x, keyframe.y);
+        bodyDef.angle = keyframe.angle;
+        bodyDef.linearVelocity.set(keyframe.velocityX, keyframe.velocityY);
+        bodyDef.angularVelocity = keyframe.angularVelocity;
+        bodyDef.awake = keyframe.isAwake;
+        createBody();
     }
 
 
@@ -263,13 +421,79 @@ public class Chicken extends Sprite {
             return;
 
         this.isFaceRight = isFaceRight;
-        defineTextures();
+        if (!isHeadless && !isSpriteDetached) {
+            this.isSpriteFaceRight = isFaceRight;
+            defineTextures();
+        }
+    }
+
+    public boolean isFaceRight() {
+        return isFaceRight;
     }
 
     public boolean isAlive() {
         return hp > 0;
     }
 
+    public boolean isHeadless() {
+        return isHeadless;
+    }
+
+    public String getSkin() {
+        return skin;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public float getStateTimer() {
+        return stateTimer;
+    }
+
+    public Vector2 getPreviousPosition() {
+        return previousPosition;
+    }
+
+    public Vector2 getCurrentPosition() {
+        return currentPosition;
+    }
+
+    public Vector2 getCurrentVelocity() {
+        return currentVelocity;
+    }
+
+    public void setEventBus(CombatEventBus events, int eventId) {
+        this.events = events;
+        this.eventId = eventId;
+    }
+
+    public int getEventId() {
+        return eventId;
+    }
+
+    private void publish(CombatEvent.Type type, int other, float amount) {
+        Vector2 position = body.getPosition();
+        events.publish(type, eventId, other, amount, position.x, position.y, currentState, previousState);
+    }
+
+    // landed attacks, both alive when it hit
+    public int getAttacks() {
+        return attacks;
+    }
+
+    public float getHp() {
+        return hp;
+    }
+
+    public float getDamage() {
+        return damage;
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
     public void decreaseHp(float damage) {
         if (this.hp < 0) return;
 
@@ -284,12 +508,11 @@ public class Chicken extends Sprite {
     }
 
     public void jump(float jumpMultiplier) {
-        if (this.body.getPosition().y < 1.0f && this.getState() != Chicken.State.JUMPING)
-            this.body.applyLinearImpulse(
-                    new Vector2(0, JUMP_IMPULSE * jumpMultiplier),
-                    this.body.getWorldCenter(),
-                    true
-            );
+        if (this.body.getPosition().y < 1.0f && this.getState() != Chicken.State.JUMPING) {
+            applyImpulse(0, JUMP_IMPULSE * jumpMultiplier);
+            if (events != null)
+                publish(CombatEvent.Type.JUMP, CombatEvent.NONE, JUMP_IMPULSE * jumpMultiplier);
+        }
     }
 
     public void moveLeft() {
@@ -298,11 +521,7 @@ public class Chicken extends Sprite {
 
     public void moveLeft(float speedMultiplier) {
         if (this.body.getLinearVelocity().x >= -MAX_SPEED && !(this.getState() == Chicken.State.JUMPING)) {
-            this.body.applyLinearImpulse(
-                    new Vector2(-MOVE_IMPULSE * speedMultiplier * this.speed, 0),
-                    this.body.getWorldCenter(),
-                    true
-            );
+            applyImpulse(-MOVE_IMPULSE * speedMultiplier * this.speed, 0);
         }
     }
 
@@ -312,56 +531,33 @@ public class Chicken extends Sprite {
 
     public void moveRight(float speedMultiplier) {
         if (this.body.getLinearVelocity().x <= MAX_SPEED && !(this.getState() == Chicken.State.JUMPING)) {
-            this.body.applyLinearImpulse(new Vector2(MOVE_IMPULSE * speedMultiplier, 0), this.body.getWorldCenter(), true);
+            applyImpulse(MOVE_IMPULSE * speedMultiplier, 0);
         }
     }
 
+    // called every step by the AI and input, so the impulse goes through the float overload instead of a new Vector2
+    public void applyImpulse(float impulseX, float impulseY) {
+        Vector2 center = this.body.getWorldCenter();
+        this.body.applyLinearImpulse(impulseX, impulseY, center.x, center.y, true);
+    }
+
     public void attack(Chicken enemyChicken) {
         if (!this.isAlive() || !enemyChicken.isAlive())
             return;
 
         this.isAttacking = true;
+        this.attacks++;
         float multiplier = 1;
 
         if (this.body.getPosition().y > enemyChicken.body.getPosition().y)
             multiplier *= 1.8f;
+        float enemyHp = enemyChicken.hp;
         enemyChicken.decreaseHp(this.damage * multiplier);
 
-        System.out.println(this.hp);
-    }
-
-    public void moveBackAndForthLoop(Chicken enemyChicken) {
-        if (!this.isAlive() || !enemyChicken.isAlive())
-            return;
-
-        while (time > System.currentTimeMillis() + 800) {
-            if (isGoingRight) {
-                if (isFaceRight)
-                    moveRight();
-                else
-                    moveLeft();
-            } else {
-                if (isFaceRight)
-                    moveLeft();
-                else
-                    moveRight();
-            }
+        if (events != null) {
+            publish(CombatEvent.Type.DAMAGE, enemyChicken.eventId, enemyHp - enemyChicken.hp);
+            if (!enemyChicken.isAlive())
+                enemyChicken.publish(CombatEvent.Type.DEATH, eventId, enemyChicken.hp);
         }
-
-        if (random.nextBoolean() && this.currentState != State.ATTACKING) {
-            if (isFaceRight)
-                moveRight(2.0f);
-            else
-                moveLeft(2.0f);
-            this.isGoingRight = true;
-        } else {
-            if (isFaceRight)
-                moveLeft(0.5f);
-            else
-                moveRight(0.5f);
-            this.isGoingRight = false;
-        }
-
-        time = System.currentTimeMillis();
     }
 }
\ No newline at end of file
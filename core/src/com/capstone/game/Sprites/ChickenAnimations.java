@@ -0,0 +1,67 @@
+package com.capstone.game.Sprites;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/*
+ * Process-wide flyweight of the chicken animations. Every animation of a
+ * sheet is built once per facing and shared by all chickens drawn from that
+ * sheet, so turning around is a reference swap instead of new regions.
+ * Frames are cut relative to the sheet's atlas region, so a sheet works the
+ * same on its own page or packed together with other skins.
+ */
+public final class ChickenAnimations {
+    private static final float FRAME_DURATION = 0.1f;
+
+    // sheet region -> animations facing {left, right}
+    private static final Map<TextureRegion, ChickenAnimations[]> cache = new IdentityHashMap<>();
+
+    public final Animation<TextureRegion> run;
+    public final Animation<TextureRegion> jump;
+    public final Animation<TextureRegion> idle;
+    public final Animation<TextureRegion> attack;
+    public final Animation<TextureRegion> die;
+
+    private ChickenAnimations(TextureRegion sheet, boolean isFaceRight) {
+        // frame layout of the chicken sheets
+        this.run = defineAnimation(sheet, isFaceRight, 680, 4, 20, 20, 23);
+        this.jump = defineAnimation(sheet, isFaceRight, 420, 5, 32, 32, 32);
+        this.idle = defineAnimation(sheet, isFaceRight, 580, 5, 20, 20, 20);
+        this.attack = defineAnimation(sheet, isFaceRight, 102, 6, 34, 34, 34);
+        this.die = defineAnimation(sheet, isFaceRight, 340, 4, 20, 20, 21);
+    }
+
+    private static Animation<TextureRegion> defineAnimation(TextureRegion sheet, boolean isFaceRight, int frameStart, int frameCount, int frameGap, int frameWidth, int frameHeight) {
+        Array<TextureRegion> frames = new Array<>(frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            TextureRegion region = new TextureRegion(sheet, i * frameGap + frameStart, 0, frameWidth, frameHeight);
+            region.flip(!isFaceRight, false);
+            frames.add(region);
+        }
+        return new Animation<>(FRAME_DURATION, frames);
+    }
+
+    public static synchronized ChickenAnimations get(TextureRegion sheet, boolean isFaceRight) {
+        ChickenAnimations[] facings = cache.get(sheet);
+        if (facings == null) {
+            facings = new ChickenAnimations[] {new ChickenAnimations(sheet, false), new ChickenAnimations(sheet, true)};
+            cache.put(sheet, facings);
+        }
+        return facings[isFaceRight ? 1 : 0];
+    }
+
+    // forget the animations of every sheet on a texture that is about to be disposed
+    public static synchronized void evict(Texture texture) {
+        Iterator<TextureRegion> sheets = cache.keySet().iterator();
+        while (sheets.hasNext()) {
+            if (sheets.next().getTexture() == texture)
+                sheets.remove();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.capstone.game.Ai.AiScheduler;
+import com.capstone.game.Components.AiComponent;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.PhysicsComponent;
+import com.capstone.game.Components.StateComponent;
+import com.capstone.game.Components.StatsComponent;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.ProximityGrid;
+import com.capstone.game.Sprites.Chicken;
+
+import java.util.Random;
+
+/*
+ * The free-for-all version of the Match rules. Every chicken has an
+ * ArenaBrain that the AiScheduler runs once every few steps to pick the
+ * nearest living enemy from a proximity grid and decide whether to charge
+ * or back off. Every step the chicken faces its target, acts on its last
+ * decision and jumps or attacks when it gets close.
+ */
+public class AiSystem extends IteratingSystem {
+    private static final float SIGHT_RADIUS = 4 * Match.JUMP_DISTANCE;
+
+    private final Random random;
+    private final AiScheduler scheduler = new AiScheduler();
+    private final ProximityGrid grid = new ProximityGrid(Match.JUMP_DISTANCE);
+    private ImmutableArray<Entity> chickens;
+
+    public AiSystem(Random random, int priority) {
+        super(Family.all(PhysicsComponent.class, StatsComponent.class, StateComponent.class, AiComponent.class).get(), priority);
+        this.random = random;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        chickens = engine.getEntitiesFor(Family.all(PhysicsComponent.class, StatsComponent.class).get());
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        // index the living chickens, the grid id is their position in the family
+        grid.clear();
+        for (int i = 0; i < chickens.size(); i++) {
+            Entity chicken = chickens.get(i);
+            PhysicsComponent physics = Mappers.physics.get(chicken);
+            physics.proximityId = i;
+            if (Mappers.stats.get(chicken).isAlive())
+                grid.add(i, physics.currentPosition.x, physics.currentPosition.y);
+        }
+        grid.build();
+
+        // this step's share of brains think, everyone acts below
+        scheduler.update();
+        super.update(deltaTime);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        StatsComponent stats = Mappers.stats.get(entity);
+        AiComponent ai = Mappers.ai.get(entity);
+        if (!stats.isAlive()) {
+            if (ai.brain != null) {
+                scheduler.remove(ai.brain);
+                ai.brain = null;
+            }
+            return;
+        }
+        if (ai.brain == null) {
+            ai.brain = new ArenaBrain(this, entity, random);
+            scheduler.add(ai.brain);
+        }
+
+        // a fallen target is replaced right away instead of on the next thought
+        StatsComponent targetStats = ai.target == null ? null : Mappers.stats.get(ai.target);
+        if (targetStats == null || !targetStats.isAlive())
+            retarget(entity);
+        if (ai.target == null) {
+            stats.isAttacking = false;
+            return;
+        }
+
+        StateComponent state = Mappers.state.get(entity);
+        Body body = Mappers.physics.get(entity).body;
+        Vector2 position = body.getPosition();
+        Vector2 targetPosition = Mappers.physics.get(ai.target).body.getPosition();
+        state.isFaceRight = position.x < targetPosition.x;
+        ai.brain.act();
+
+        float distance2 = position.dst2(targetPosition);
+        if (distance2 < Match.JUMP_DISTANCE * Match.JUMP_DISTANCE) {
+            jump(body, state);
+            if (distance2 < Match.ATTACK_DISTANCE * Match.ATTACK_DISTANCE)
+                stats.isAttacking = true;
+        } else {
+            stats.isAttacking = false;
+        }
+    }
+
+    void retarget(Entity entity) {
+        Mappers.ai.get(entity).target = findNearestEnemy(entity, Mappers.physics.get(entity));
+    }
+
+    private Entity findNearestEnemy(Entity self, PhysicsComponent physics) {
+        Vector2 position = physics.currentPosition;
+        int nearestId = grid.findNearest(position.x, position.y, SIGHT_RADIUS, physics.proximityId);
+        if (nearestId >= 0)
+            return chickens.get(nearestId);
+
+        Entity nearest = null;
+        float nearestDistance2 = Float.MAX_VALUE;
+        for (int i = 0; i < chickens.size(); i++) {
+            Entity other = chickens.get(i);
+            if (other == self || !Mappers.stats.get(other).isAlive())
+                continue;
+
+            float distance2 = position.dst2(Mappers.physics.get(other).currentPosition);
+            if (distance2 < nearestDistance2) {
+                nearestDistance2 = distance2;
+                nearest = other;
+            }
+        }
+        return nearest;
+    }
+
+    /* MOVEMENT */
+    static void move(Body body, StatsComponent stats, StateComponent state, int direction, float speedMultiplier) {
+        float velocityX = body.getLinearVelocity().x;
+        boolean isBelowMaxSpeed = direction > 0 ? velocityX <= Chicken.MAX_SPEED : velocityX >= -Chicken.MAX_SPEED;
+        if (isBelowMaxSpeed && state.currentState != Chicken.State.JUMPING)
+            applyImpulse(body, direction * Chicken.MOVE_IMPULSE * speedMultiplier * stats.speed, 0);
+    }
+
+    private static void jump(Body body, StateComponent state) {
+        if (body.getPosition().y < 1.0f && state.currentState != Chicken.State.JUMPING)
+            applyImpulse(body, 0, Chicken.JUMP_IMPULSE);
+    }
+
+    static void applyImpulse(Body body, float impulseX, float impulseY) {
+        Vector2 center = body.getWorldCenter();
+        body.applyLinearImpulse(impulseX, impulseY, center.x, center.y, true);
+    }
+
+    public AiScheduler getScheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,57 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.capstone.game.Ai.ChickenBrain;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.StateComponent;
+import com.capstone.game.Sprites.Chicken;
+
+import java.util.Random;
+
+// the brain of a free-for-all chicken, each thought starts with a look for the nearest enemy
+class ArenaBrain extends ChickenBrain {
+    private final AiSystem system;
+    private final Entity entity;
+
+    ArenaBrain(AiSystem system, Entity entity, Random random) {
+        super(random);
+        this.system = system;
+        this.entity = entity;
+    }
+
+    @Override
+    protected void think() {
+        system.retarget(entity);
+    }
+
+    @Override
+    public boolean isAlive() {
+        return Mappers.stats.get(entity).isAlive();
+    }
+
+    @Override
+    public boolean hasTarget() {
+        return Mappers.ai.get(entity).target != null;
+    }
+
+    @Override
+    public boolean isAttacking() {
+        return Mappers.state.get(entity).currentState == Chicken.State.ATTACKING;
+    }
+
+    @Override
+    public void moveForward(float speedMultiplier) {
+        move(1, speedMultiplier);
+    }
+
+    @Override
+    public void moveBackward(float speedMultiplier) {
+        move(-1, speedMultiplier);
+    }
+
+    private void move(int direction, float speedMultiplier) {
+        StateComponent state = Mappers.state.get(entity);
+        AiSystem.move(Mappers.physics.get(entity).body, Mappers.stats.get(entity), state,
+                state.isFaceRight ? direction : -direction, speedMultiplier);
+    }
+}
@@ -0,0 +1,85 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.capstone.game.CockfightGame;
+import com.capstone.game.Components.AnimationComponent;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.PhysicsComponent;
+import com.capstone.game.Components.StateComponent;
+import com.capstone.game.Sprites.ChickenAnimations;
+
+/*
+ * Draws every chicken with an AnimationComponent between its last two
+ * physics positions. The engine steps at a fixed rate, so this system is
+ * not processed by engine updates and is called once per frame instead.
+ */
+public class ChickenRenderSystem extends IteratingSystem {
+    private static final float SMALL_SIZE = 72f / CockfightGame.PPM;
+    private static final float BIG_SIZE = 96f / CockfightGame.PPM;
+
+    private final SpriteBatch batch;
+    private float alpha;
+
+    public ChickenRenderSystem(SpriteBatch batch) {
+        super(Family.all(PhysicsComponent.class, StateComponent.class, AnimationComponent.class).get());
+        this.batch = batch;
+        setProcessing(false);
+    }
+
+    // alpha is the leftover fraction of a step, the batch must already be begun
+    public void render(float alpha) {
+        this.alpha = alpha;
+        for (int i = 0; i < getEntities().size(); i++)
+            processEntity(getEntities().get(i), 0);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PhysicsComponent physics = Mappers.physics.get(entity);
+        StateComponent state = Mappers.state.get(entity);
+        AnimationComponent animation = Mappers.animation.get(entity);
+        ChickenAnimations animations = state.isFaceRight ? animation.rightAnimations : animation.leftAnimations;
+
+        // sizes and offsets match Chicken.updateRegion
+        TextureRegion region;
+        float size = SMALL_SIZE;
+        float xOffset = state.isFaceRight ? 0.1f : -0.1f;
+        float yOffset;
+        switch (state.currentState) {
+            case DEAD:
+                region = animations.die.getKeyFrame(state.stateTimer, false);
+                yOffset = 0.04f;
+                break;
+            case RUNNING:
+            case CHARGING:
+                region = animations.run.getKeyFrame(state.stateTimer, true);
+                xOffset = 0;
+                yOffset = 0;
+                break;
+            case JUMPING:
+                region = animations.jump.getKeyFrame(state.stateTimer, true);
+                size = BIG_SIZE;
+                yOffset = -0.15f;
+                break;
+            case ATTACKING:
+                region = animations.attack.getKeyFrame(state.stateTimer, true);
+                size = BIG_SIZE;
+                yOffset = -0.2f;
+                break;
+            case STANDING:
+            default:
+                region = animations.idle.getKeyFrame(state.stateTimer, true);
+                xOffset = 0;
+                yOffset = 0.08f;
+                break;
+        }
+
+        float x = physics.previousPosition.x + (physics.currentPosition.x - physics.previousPosition.x) * alpha;
+        float y = physics.previousPosition.y + (physics.currentPosition.y - physics.previousPosition.y) * alpha;
+        batch.draw(region, x - size / 2 + xOffset, y - size / 2 + yOffset, size, size);
+    }
+}
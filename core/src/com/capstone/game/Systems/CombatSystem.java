@@ -0,0 +1,70 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.StatsComponent;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Tools.WorldContactListener;
+
+import java.util.Random;
+
+/*
+ * Resolves hits between the two chickens whose bodies actually touched, in
+ * random order, and bounces them apart like Match does. Contacts are only
+ * recorded during the physics step; this system runs right after it and
+ * handles each touching pair once per step.
+ */
+public class CombatSystem extends EntitySystem implements WorldContactListener.ContactHandler<Entity> {
+    private static final float HIGH_GROUND_MULTIPLIER = 1.8f;
+
+    private final Random random;
+    private final WorldContactListener<Entity> contactListener;
+
+    public CombatSystem(World world, Random random, int priority) {
+        super(priority);
+        this.random = random;
+        this.contactListener = new WorldContactListener<>(Entity.class);
+        world.setContactListener(contactListener);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        contactListener.drain(this);
+    }
+
+    @Override
+    public void onContact(Entity chickenA, Entity chickenB, float relativeVelocityX, float relativeVelocityY) {
+        Body bodyA = Mappers.physics.get(chickenA).body;
+        Body bodyB = Mappers.physics.get(chickenB).body;
+        if (random.nextBoolean()) {
+            attack(chickenA, bodyA, chickenB, bodyB);
+            attack(chickenB, bodyB, chickenA, bodyA);
+        } else {
+            attack(chickenB, bodyB, chickenA, bodyA);
+            attack(chickenA, bodyA, chickenB, bodyB);
+        }
+
+        float bounceX = relativeVelocityX * Match.BOUNCE_VALUE;
+        float bounceY = relativeVelocityY * Match.BOUNCE_VALUE;
+        AiSystem.applyImpulse(bodyA, bounceX, bounceY);
+        AiSystem.applyImpulse(bodyB, -bounceX, -bounceY);
+    }
+
+    private static void attack(Entity attacker, Body attackerBody, Entity defender, Body defenderBody) {
+        StatsComponent attackerStats = Mappers.stats.get(attacker);
+        StatsComponent defenderStats = Mappers.stats.get(defender);
+        if (!attackerStats.isAlive() || !defenderStats.isAlive())
+            return;
+
+        attackerStats.isAttacking = true;
+        float multiplier = attackerBody.getPosition().y > defenderBody.getPosition().y ? HIGH_GROUND_MULTIPLIER : 1;
+        defenderStats.decreaseHp(attackerStats.damage * multiplier);
+    }
+
+    public WorldContactListener<Entity> getContactListener() {
+        return contactListener;
+    }
+}
@@ -0,0 +1,41 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.PhysicsComponent;
+import com.capstone.game.Components.StateComponent;
+import com.capstone.game.Components.StatsComponent;
+import com.capstone.game.Sprites.Chicken;
+
+// removes a dead chicken once its death animation has played, so the other systems stop paying for it
+public class DeathSystem extends IteratingSystem {
+    private static final float DEATH_TIME = 0.4f;
+
+    private final World world;
+    private Engine engine;
+
+    public DeathSystem(World world, int priority) {
+        super(Family.all(PhysicsComponent.class, StatsComponent.class, StateComponent.class).get(), priority);
+        this.world = world;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        this.engine = engine;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        StateComponent state = Mappers.state.get(entity);
+        if (state.currentState != Chicken.State.DEAD || state.stateTimer < DEATH_TIME)
+            return;
+
+        world.destroyBody(Mappers.physics.get(entity).body);
+        engine.removeEntity(entity);
+    }
+}
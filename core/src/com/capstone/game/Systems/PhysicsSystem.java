@@ -0,0 +1,32 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.PhysicsComponent;
+import com.capstone.game.Simulation.Match;
+
+// steps the world once per engine update and records where every body ended up
+public class PhysicsSystem extends IteratingSystem {
+    private final World world;
+
+    public PhysicsSystem(World world, int priority) {
+        super(Family.all(PhysicsComponent.class).get(), priority);
+        this.world = world;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        world.step(deltaTime, Match.VELOCITY_ITERATIONS, Match.POSITION_ITERATIONS);
+        super.update(deltaTime);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PhysicsComponent physics = Mappers.physics.get(entity);
+        physics.previousPosition.set(physics.currentPosition);
+        physics.currentPosition.set(physics.body.getPosition());
+    }
+}
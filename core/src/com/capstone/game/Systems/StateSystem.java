@@ -0,0 +1,40 @@
+package com.capstone.game.Systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.math.Vector2;
+import com.capstone.game.Components.Mappers;
+import com.capstone.game.Components.PhysicsComponent;
+import com.capstone.game.Components.StateComponent;
+import com.capstone.game.Components.StatsComponent;
+import com.capstone.game.Sprites.Chicken;
+
+// the same state machine as Chicken.getState, run after the physics step
+public class StateSystem extends IteratingSystem {
+    public StateSystem(int priority) {
+        super(Family.all(PhysicsComponent.class, StatsComponent.class, StateComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        StateComponent state = Mappers.state.get(entity);
+        state.previousState = state.currentState;
+        state.currentState = getState(Mappers.stats.get(entity), state, Mappers.physics.get(entity).body.getLinearVelocity());
+        state.stateTimer = state.currentState == state.previousState ? state.stateTimer + deltaTime : 0;
+    }
+
+    private static Chicken.State getState(StatsComponent stats, StateComponent state, Vector2 velocity) {
+        if (!stats.isAlive()) {
+            return Chicken.State.DEAD;
+        } else if (stats.isAttacking) {
+            return Chicken.State.ATTACKING;
+        } else if (velocity.y > 0 || (velocity.y < 0 && state.previousState == Chicken.State.JUMPING)) {
+            return Chicken.State.JUMPING;
+        } else if (velocity.x != 0) {
+            return Chicken.State.RUNNING;
+        } else {
+            return Chicken.State.STANDING;
+        }
+    }
+}
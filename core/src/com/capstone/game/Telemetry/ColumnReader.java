@@ -0,0 +1,141 @@
+package com.capstone.game.Telemetry;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/*
+ * One column of a telemetry recording, mapped read-only in windows of up to
+ * a gigabyte. Rows are read straight out of the mapping, one at a time or in
+ * bulk into an array, so scanning a column over millions of ticks touches
+ * only that column's pages and never builds a row. The bulk reads move the
+ * buffers' positions, a reader is for one thread.
+ */
+public class ColumnReader {
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_BYTES = 1L << WINDOW_SHIFT;
+    private static final long WINDOW_MASK = WINDOW_BYTES - 1;
+
+    private final TelemetryColumn column;
+    private final long rows;
+    private final ByteBuffer[] windows;
+    private final FloatBuffer[] floats;
+    private final IntBuffer[] ints;
+
+    ColumnReader(RandomAccessFile file, TelemetryColumn column) throws IOException {
+        this.column = column;
+        FileChannel channel = file.getChannel();
+
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ColumnWriter.HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(0) != ColumnWriter.MAGIC || header.getShort(4) != ColumnWriter.VERSION)
+            throw new IOException("Not a telemetry column: " + column.getFileName());
+        if (header.get(6) != column.type.ordinal() || header.get(7) != column.type.width)
+            throw new IOException("Telemetry column " + column.getFileName() + " holds another type");
+        this.rows = header.getLong(ColumnWriter.ROWS_OFFSET);
+
+        long bytes = rows * column.type.width;
+        int windowCount = (int) ((bytes + WINDOW_BYTES - 1) >>> WINDOW_SHIFT);
+        this.windows = new ByteBuffer[windowCount];
+        this.floats = new FloatBuffer[windowCount];
+        this.ints = new IntBuffer[windowCount];
+        for (int i = 0; i < windowCount; i++) {
+            long offset = (long) i << WINDOW_SHIFT;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    ColumnWriter.HEADER_BYTES + offset, Math.min(WINDOW_BYTES, bytes - offset));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windows[i] = window;
+            if (column.type == TelemetryColumn.Type.FLOAT)
+                floats[i] = window.asFloatBuffer();
+            else if (column.type == TelemetryColumn.Type.INT)
+                ints[i] = window.asIntBuffer();
+        }
+    }
+
+
+    /* SINGLE ROWS */
+    public float getFloat(long row) {
+        long offset = row * 4;
+        return windows[(int) (offset >>> WINDOW_SHIFT)].getFloat((int) (offset & WINDOW_MASK));
+    }
+
+    public int getInt(long row) {
+        long offset = row * 4;
+        return windows[(int) (offset >>> WINDOW_SHIFT)].getInt((int) (offset & WINDOW_MASK));
+    }
+
+    public byte getByte(long row) {
+        return windows[(int) (row >>> WINDOW_SHIFT)].get((int) (row & WINDOW_MASK));
+    }
+
+
+    /* BULK */
+    // fills the array from the given row on, returns how many rows that was, fewer at the end of the column
+    public int readFloats(long row, float[] values, int offset, int length) {
+        checkType(TelemetryColumn.Type.FLOAT);
+        int count = (int) Math.min(length, rows - row);
+        int read = 0;
+        while (read < count) {
+            long byteOffset = (row + read) * 4;
+            FloatBuffer window = floats[(int) (byteOffset >>> WINDOW_SHIFT)];
+            int position = (int) ((byteOffset & WINDOW_MASK) >>> 2);
+            int chunk = Math.min(count - read, window.limit() - position);
+            window.position(position);
+            window.get(values, offset + read, chunk);
+            read += chunk;
+        }
+        return read;
+    }
+
+    public int readInts(long row, int[] values, int offset, int length) {
+        checkType(TelemetryColumn.Type.INT);
+        int count = (int) Math.min(length, rows - row);
+        int read = 0;
+        while (read < count) {
+            long byteOffset = (row + read) * 4;
+            IntBuffer window = ints[(int) (byteOffset >>> WINDOW_SHIFT)];
+            int position = (int) ((byteOffset & WINDOW_MASK) >>> 2);
+            int chunk = Math.min(count - read, window.limit() - position);
+            window.position(position);
+            window.get(values, offset + read, chunk);
+            read += chunk;
+        }
+        return read;
+    }
+
+    public int readBytes(long row, byte[] values, int offset, int length) {
+        checkType(TelemetryColumn.Type.BYTE);
+        int count = (int) Math.min(length, rows - row);
+        int read = 0;
+        while (read < count) {
+            long byteOffset = row + read;
+            ByteBuffer window = windows[(int) (byteOffset >>> WINDOW_SHIFT)];
+            int position = (int) (byteOffset & WINDOW_MASK);
+            int chunk = Math.min(count - read, window.limit() - position);
+            window.position(position);
+            window.get(values, offset + read, chunk);
+            read += chunk;
+        }
+        return read;
+    }
+
+    private void checkType(TelemetryColumn.Type type) {
+        if (column.type != type)
+            throw new IllegalStateException(column + " is a " + column.type + " column, not " + type);
+    }
+
+
+    /* GETTERS */
+    public TelemetryColumn getColumn() {
+        return column;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
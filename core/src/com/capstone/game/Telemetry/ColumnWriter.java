@@ -0,0 +1,220 @@
+package com.capstone.game.Telemetry;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/*
+ * Appends one column through a memory-mapped window. The recorder stages
+ * values and hands each column up to STAGED_ROWS of them at a time, they are
+ * copied into the mapping in one bulk put and the OS writes the pages out
+ * whenever it likes. A float is written as its raw bits, so float and int
+ * columns share the int view.
+ * While a window fills up, the recorder's preparer thread grows the file by
+ * the next one, maps it and faults in every page, so switching windows costs
+ * the thread writing rows nothing. The row count in the header only moves
+ * when the recorder commits, so a reader never sees half a match.
+ */
+final class ColumnWriter {
+    static final int MAGIC = 0x434B544C;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int ROWS_OFFSET = 8;
+    // a multiple of every column width, so a value never straddles two windows
+    static final int WINDOW_BYTES = 1 << 22;
+    static final int STAGED_ROWS = 1024;
+    // never written to, only copied from into the file
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(1 << 16);
+    // the smallest page any platform the game runs on uses, touching some pages twice costs next to nothing
+    private static final int PAGE_BYTES = 4096;
+
+    private final TelemetryColumn column;
+    private final int width;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ExecutorService preparer;
+
+    // the window and its int view, a byte column uses the window itself
+    private MappedByteBuffer window;
+    private IntBuffer intWindow;
+    private long windowOffset;
+    // the window after this one, being prepared on the preparer thread
+    private Future<MappedByteBuffer> next;
+    private long nextOffset;
+
+    // a byte column narrows its values here first
+    private final byte[] stagedBytes;
+    private long rows;
+
+    ColumnWriter(File file, TelemetryColumn column, ExecutorService preparer) throws IOException {
+        this.column = column;
+        this.preparer = preparer;
+        this.width = column.type.width;
+        this.file = new RandomAccessFile(file, "rw");
+        this.file.setLength(0);
+        this.channel = this.file.getChannel();
+
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putShort(4, VERSION);
+        header.put(6, (byte) column.type.ordinal());
+        header.put(7, (byte) width);
+        header.putLong(ROWS_OFFSET, 0);
+
+        this.stagedBytes = column.type == TelemetryColumn.Type.BYTE ? new byte[STAGED_ROWS] : null;
+
+        // the first window is prepared right here, the ones after it ahead of time
+        useWindow(prepare(HEADER_BYTES), HEADER_BYTES);
+        prepareNext();
+    }
+
+
+    /* APPENDING */
+    // count values starting at offset, across a window boundary when it has to
+    void write(int[] values, int offset, int count) {
+        if (stagedBytes != null) {
+            for (int i = 0; i < count; i++)
+                stagedBytes[i] = (byte) values[offset + i];
+        }
+
+        int written = 0;
+        while (written < count) {
+            int room = intWindow != null ? intWindow.remaining() : window.remaining();
+            if (room == 0) {
+                nextWindow();
+                continue;
+            }
+
+            int length = Math.min(count - written, room);
+            if (intWindow != null)
+                intWindow.put(values, offset + written, length);
+            else
+                window.put(stagedBytes, written, length);
+            written += length;
+        }
+    }
+
+    private void nextWindow() {
+        long offset = windowOffset + WINDOW_BYTES;
+        // only a rewind makes the prepared window the wrong one
+        MappedByteBuffer prepared = nextOffset == offset ? join() : null;
+        useWindow(prepared != null ? prepared : map(offset), offset);
+        prepareNext();
+    }
+
+    private void useWindow(MappedByteBuffer window, long offset) {
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        this.window = window;
+        this.windowOffset = offset;
+        this.intWindow = column.type != TelemetryColumn.Type.BYTE ? window.asIntBuffer() : null;
+    }
+
+    private void prepareNext() {
+        // one preparation per column at a time, a stale one may still be touching pages rows are about to go to
+        join();
+        final long offset = windowOffset + WINDOW_BYTES;
+        nextOffset = offset;
+        next = preparer.submit(new Callable<MappedByteBuffer>() {
+            @Override
+            public MappedByteBuffer call() {
+                return prepare(offset);
+            }
+        });
+    }
+
+    // the prepared window, waiting for it if it isn't done yet
+    private MappedByteBuffer join() {
+        if (next == null)
+            return null;
+
+        try {
+            return next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted growing telemetry column " + column, e);
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("Error growing telemetry column " + column, e.getCause());
+        } finally {
+            next = null;
+            nextOffset = 0;
+        }
+    }
+
+    // every page is written once so the OS maps it now, writing a byte back over itself keeps what was there
+    private MappedByteBuffer prepare(long offset) {
+        MappedByteBuffer window = map(offset);
+        for (int i = 0; i < WINDOW_BYTES; i += PAGE_BYTES)
+            window.put(i, window.get(i));
+        return window;
+    }
+
+    // from both threads, the file only ever grows under the lock so a late fill never writes over rows
+    private synchronized MappedByteBuffer map(long offset) {
+        try {
+            fill(offset);
+            return channel.map(FileChannel.MapMode.READ_WRITE, offset, WINDOW_BYTES);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error growing telemetry column " + column, e);
+        }
+    }
+
+    // a window mapped over a hole allocates every page inside a page fault the first time it is touched,
+    // writing zeros over the window first lets the OS allocate them in bulk, which is cheaper over a whole window
+    private void fill(long offset) throws IOException {
+        long position = channel.size();
+        ByteBuffer zeros = ZEROS.duplicate();
+        while (position < offset + WINDOW_BYTES) {
+            zeros.clear();
+            position += channel.write(zeros, position);
+        }
+    }
+
+    // back to the end of the given committed row
+    void rewind(long rows) {
+        long offset = rows * width;
+        long start = HEADER_BYTES + offset / WINDOW_BYTES * WINDOW_BYTES;
+        if (start != windowOffset)
+            useWindow(map(start), start);
+
+        int position = (int) (HEADER_BYTES + offset - windowOffset);
+        if (intWindow != null)
+            intWindow.position(position / width);
+        else
+            window.position(position);
+    }
+
+    // the values written so far become visible to readers
+    void commit(long rows) {
+        this.rows = rows;
+        header.putLong(ROWS_OFFSET, rows);
+    }
+
+
+    /* CLOSING */
+    // cuts the file down to the committed rows, anything written after the last commit is dropped
+    void close() throws IOException {
+        join();
+        window = null;
+        intWindow = null;
+        try {
+            channel.truncate(HEADER_BYTES + rows * width);
+        } catch (IOException e) {
+            // Windows refuses while a mapping is alive and Java can't unmap one, the header still says where the data ends
+            System.out.println("Error truncating telemetry column " + column + ", left padded to its last window: " + e.getMessage());
+        }
+        file.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.capstone.game.Telemetry;
+
+// Every field recorded per tick, each one its own fixed width file named after it
+public enum TelemetryColumn {
+    TICK(Type.INT),
+    CHICKEN1_X(Type.FLOAT),
+    CHICKEN1_Y(Type.FLOAT),
+    CHICKEN1_VELOCITY_X(Type.FLOAT),
+    CHICKEN1_VELOCITY_Y(Type.FLOAT),
+    CHICKEN1_STATE(Type.BYTE),
+    CHICKEN1_HP(Type.FLOAT),
+    CHICKEN1_STATE_TIMER(Type.FLOAT),
+    CHICKEN2_X(Type.FLOAT),
+    CHICKEN2_Y(Type.FLOAT),
+    CHICKEN2_VELOCITY_X(Type.FLOAT),
+    CHICKEN2_VELOCITY_Y(Type.FLOAT),
+    CHICKEN2_STATE(Type.BYTE),
+    CHICKEN2_HP(Type.FLOAT),
+    CHICKEN2_STATE_TIMER(Type.FLOAT);
+
+    // a state column holds Chicken.State ordinals
+    public enum Type {
+        BYTE(1), INT(4), FLOAT(4);
+
+        public final int width;
+
+        Type(int width) {
+            this.width = width;
+        }
+    }
+
+    public final Type type;
+
+    TelemetryColumn(Type type) {
+        this.type = type;
+    }
+
+    public String getFileName() {
+        return name().toLowerCase() + ".col";
+    }
+}
@@ -0,0 +1,118 @@
+package com.capstone.game.Telemetry;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/*
+ * Opens a directory a TelemetryRecorder wrote. The match index is read up
+ * front, the columns are only mapped when asked for, so a scan of one field
+ * never opens the other fourteen. Rows are numbered across all matches, a
+ * match's rows run from getMatchFirstRow for getMatchTicks rows.
+ */
+public class TelemetryReader implements Closeable {
+    private final File directory;
+    private final RandomAccessFile[] files = new RandomAccessFile[TelemetryColumn.values().length];
+    private final ColumnReader[] columns = new ColumnReader[TelemetryColumn.values().length];
+    private final long[] matchIds;
+    private final long[] matchFirstRows;
+    private final int[] matchTicks;
+    private final int matchCount;
+    private final long rows;
+
+    public TelemetryReader(File directory) throws IOException {
+        this.directory = directory;
+
+        // rows are committed to the columns after the index, so the columns decide what is complete
+        long committedRows = Long.MAX_VALUE;
+        for (TelemetryColumn column : TelemetryColumn.values())
+            committedRows = Math.min(committedRows, readRows(new File(directory, column.getFileName())));
+
+        File indexFile = new File(directory, TelemetryRecorder.INDEX_FILE);
+        int entries = (int) Math.max(0, (indexFile.length() - 6) / TelemetryRecorder.INDEX_ENTRY_BYTES);
+        this.matchIds = new long[entries];
+        this.matchFirstRows = new long[entries];
+        this.matchTicks = new int[entries];
+
+        DataInputStream index = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+        int count = 0;
+        try {
+            if (index.readInt() != TelemetryRecorder.INDEX_MAGIC || index.readShort() != ColumnWriter.VERSION)
+                throw new IOException("Not a telemetry index: " + indexFile);
+
+            for (int i = 0; i < entries; i++) {
+                long id = index.readLong();
+                long firstRow = index.readLong();
+                int ticks = index.readInt();
+                if (firstRow + ticks > committedRows)
+                    break;
+
+                matchIds[count] = id;
+                matchFirstRows[count] = firstRow;
+                matchTicks[count] = ticks;
+                count++;
+            }
+        } finally {
+            index.close();
+        }
+        this.matchCount = count;
+        this.rows = count > 0 ? matchFirstRows[count - 1] + matchTicks[count - 1] : 0;
+    }
+
+    public ColumnReader column(TelemetryColumn column) throws IOException {
+        int i = column.ordinal();
+        if (columns[i] == null) {
+            files[i] = new RandomAccessFile(new File(directory, column.getFileName()), "r");
+            columns[i] = new ColumnReader(files[i], column);
+        }
+        return columns[i];
+    }
+
+    // from the header alone, without mapping the column
+    private static long readRows(File file) throws IOException {
+        RandomAccessFile column = new RandomAccessFile(file, "r");
+        try {
+            if (column.length() < ColumnWriter.HEADER_BYTES)
+                throw new IOException("Not a telemetry column: " + file);
+            column.seek(ColumnWriter.ROWS_OFFSET);
+            return Long.reverseBytes(column.readLong());
+        } finally {
+            column.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RandomAccessFile file : files) {
+            if (file != null)
+                file.close();
+        }
+    }
+
+
+    /* GETTERS */
+    // every row of every complete match
+    public long getRowCount() {
+        return rows;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public long getMatchId(int match) {
+        return matchIds[match];
+    }
+
+    public long getMatchFirstRow(int match) {
+        return matchFirstRows[match];
+    }
+
+    public int getMatchTicks(int match) {
+        return matchTicks[match];
+    }
+}
@@ -0,0 +1,166 @@
+package com.capstone.game.Telemetry;
+
+import com.badlogic.gdx.math.Vector2;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Sprites.Chicken;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Records every tick of headless matches into a directory of column files,
+ * one per TelemetryColumn, plus matches.idx saying which rows belong to which
+ * match. A tick is fifteen stores into one staging array, read from what the
+ * chickens kept of the step rather than through JNI, and every
+ * ColumnWriter.STAGED_ROWS ticks each column bulk copies its slice into its
+ * memory-mapped file. No formatting and no allocation, and the OS hands out
+ * the pages on a thread of the recorder's own, a window ahead of the rows.
+ * Rows become visible to readers a whole match at a time, when endMatch
+ * commits them, and a match that never ends is overwritten by the next one.
+ * Only used from the thread that steps the matches.
+ */
+public class TelemetryRecorder implements Closeable {
+    public static final String INDEX_FILE = "matches.idx";
+    static final int INDEX_MAGIC = 0x434B5449;
+    // match id, first row and tick count
+    static final int INDEX_ENTRY_BYTES = 8 + 8 + 4;
+
+    // the seven columns of a chicken follow each other, chicken2's start seven after chicken1's
+    private static final int CHICKEN1 = TelemetryColumn.CHICKEN1_X.ordinal();
+    private static final int CHICKEN2 = TelemetryColumn.CHICKEN2_X.ordinal();
+    // slices a little longer than a page, so one row's fifteen stores don't all compete for the same cache set
+    private static final int SLICE = ColumnWriter.STAGED_ROWS + 16;
+
+    private final File directory;
+    private final ColumnWriter[] columns;
+    // grows and faults in the columns' next windows, one thread for all of them
+    private final ExecutorService preparer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "telemetry-windows");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    // a slice per column in column order, floats as their raw bits
+    private final int[] staged;
+    private int stagedRows;
+    private final DataOutputStream index;
+    private long rows;
+    private long committedRows;
+    private long matchId;
+    private boolean isRecording;
+    private int matches;
+
+    public TelemetryRecorder(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Can't create " + directory);
+
+        this.directory = directory;
+        TelemetryColumn[] values = TelemetryColumn.values();
+        this.columns = new ColumnWriter[values.length];
+        for (TelemetryColumn column : values)
+            columns[column.ordinal()] = new ColumnWriter(new File(directory, column.getFileName()), column, preparer);
+        this.staged = new int[SLICE * columns.length];
+
+        this.index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, INDEX_FILE))));
+        index.writeInt(INDEX_MAGIC);
+        index.writeShort(ColumnWriter.VERSION);
+    }
+
+
+    /* RECORDING */
+    public void beginMatch(long matchId) {
+        // whatever a match that was never ended recorded is overwritten
+        stagedRows = 0;
+        if (rows != committedRows) {
+            for (ColumnWriter column : columns)
+                column.rewind(committedRows);
+            rows = committedRows;
+        }
+
+        this.matchId = matchId;
+        this.isRecording = true;
+    }
+
+    // after the step, called by the match itself once it has a recorder
+    public void record(Match match) {
+        if (!isRecording)
+            return;
+
+        staged[TelemetryColumn.TICK.ordinal() * SLICE + stagedRows] = match.getTicks();
+        recordChicken(match.getChicken1(), CHICKEN1 * SLICE + stagedRows);
+        recordChicken(match.getChicken2(), CHICKEN2 * SLICE + stagedRows);
+        rows++;
+        if (++stagedRows == ColumnWriter.STAGED_ROWS)
+            flush();
+    }
+
+    // what the chicken kept from the step, the body itself is only reachable through JNI
+    private void recordChicken(Chicken chicken, int first) {
+        Vector2 position = chicken.getCurrentPosition();
+        Vector2 velocity = chicken.getCurrentVelocity();
+        staged[first] = Float.floatToRawIntBits(position.x);
+        staged[first + SLICE] = Float.floatToRawIntBits(position.y);
+        staged[first + 2 * SLICE] = Float.floatToRawIntBits(velocity.x);
+        staged[first + 3 * SLICE] = Float.floatToRawIntBits(velocity.y);
+        staged[first + 4 * SLICE] = chicken.currentState.ordinal();
+        staged[first + 5 * SLICE] = Float.floatToRawIntBits(chicken.getHp());
+        staged[first + 6 * SLICE] = Float.floatToRawIntBits(chicken.getStateTimer());
+    }
+
+    private void flush() {
+        for (int i = 0; i < columns.length; i++)
+            columns[i].write(staged, i * SLICE, stagedRows);
+        stagedRows = 0;
+    }
+
+    // the match's rows become readable
+    public void endMatch() throws IOException {
+        if (!isRecording)
+            return;
+
+        flush();
+        index.writeLong(matchId);
+        index.writeLong(committedRows);
+        index.writeInt((int) (rows - committedRows));
+        index.flush();
+        for (ColumnWriter column : columns)
+            column.commit(rows);
+
+        committedRows = rows;
+        isRecording = false;
+        matches++;
+    }
+
+
+    /* CLOSING */
+    @Override
+    public void close() throws IOException {
+        index.close();
+        for (ColumnWriter column : columns)
+            column.close();
+        preparer.shutdown();
+    }
+
+
+    /* GETTERS */
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getCommittedRows() {
+        return committedRows;
+    }
+
+    public int getMatches() {
+        return matches;
+    }
+}
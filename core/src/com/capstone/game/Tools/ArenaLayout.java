@@ -0,0 +1,101 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.capstone.game.CockfightGame;
+
+/*
+ * Describes an arena that is wider than its source map. The first and last
+ * tile columns of the map are the walls, everything in between is repeated
+ * as often as needed. Columns are grouped into fixed-size chunks, the unit
+ * in which tiles and colliders are streamed in and out.
+ */
+public class ArenaLayout {
+    public static final int CHUNK_COLUMNS = 9;
+
+    private final int sourceColumns;
+    private final int columns;
+    private final int rows;
+    private final int tileWidth;
+    private final int tileHeight;
+
+    public ArenaLayout(TiledMap map, int columns) {
+        this(map.getProperties().get("width", Integer.class),
+                map.getProperties().get("height", Integer.class),
+                map.getProperties().get("tilewidth", Integer.class),
+                map.getProperties().get("tileheight", Integer.class),
+                columns);
+    }
+
+    public ArenaLayout(int sourceColumns, int rows, int tileWidth, int tileHeight, int columns) {
+        this.sourceColumns = sourceColumns;
+        this.columns = Math.max(columns, sourceColumns);
+        this.rows = rows;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    // which column of the source map is shown at this arena column
+    public int getSourceColumn(int column) {
+        if (sourceColumns < 3 || column == 0)
+            return column % sourceColumns;
+        if (column == columns - 1)
+            return sourceColumns - 1;
+        return 1 + (column - 1) % (sourceColumns - 2);
+    }
+
+    public boolean isLastSourceColumn(int sourceColumn) {
+        return sourceColumn == sourceColumns - 1;
+    }
+
+
+    /* CHUNKS */
+    public int getChunkCount() {
+        return (columns + CHUNK_COLUMNS - 1) / CHUNK_COLUMNS;
+    }
+
+    public int getChunkColumns(int chunk) {
+        return Math.min(CHUNK_COLUMNS, columns - chunk * CHUNK_COLUMNS);
+    }
+
+    // left edge of a chunk in world units
+    public float getChunkX(int chunk) {
+        return chunk * CHUNK_COLUMNS * tileWidth / CockfightGame.PPM;
+    }
+
+    public float getChunkWidth() {
+        return CHUNK_COLUMNS * tileWidth / CockfightGame.PPM;
+    }
+
+    public int getChunkAt(float x) {
+        int chunk = (int) Math.floor(x / getChunkWidth());
+        return Math.max(0, Math.min(chunk, getChunkCount() - 1));
+    }
+
+    // whether a chunk touches the range [left - margin, right + margin], in world units
+    public boolean isInRange(int chunk, float left, float right, float margin) {
+        float chunkX = getChunkX(chunk);
+        return chunkX + getChunkWidth() >= left - margin && chunkX <= right + margin;
+    }
+
+
+    /* GETTERS */
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public float getWidth() {
+        return columns * tileWidth / CockfightGame.PPM;
+    }
+}
@@ -0,0 +1,109 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Disposable;
+import com.capstone.game.Sprites.ChickenAnimations;
+
+/*
+ * Loads atlases and maps through an AssetManager, which decodes the files
+ * off the render thread and keeps one copy per path with a reference count.
+ * Every queue call is one reference, every release gives one back, and the
+ * asset is disposed when the last user lets go of it.
+ */
+public class Assets implements Disposable {
+    /* ASSET PATHS */
+    public static final String MAP_FILE = "cockpit/cockpit-new.tmx";
+    public static final String PACKED_CHICKENS = "packed/chickens.atlas";
+    public static final String CHICKEN_PACK = "chicken_pack/";
+    public static final String CHICKEN_REGION = "chicken_attack";
+
+    /* CHICKEN SKINS, REGION NAMES IN THE PACKED ATLAS */
+    public static final String BLACK_CHICKEN = "black_chicken";
+    public static final String WHITE_CHICKEN = "white_chicken";
+    public static final String DARK_BROWN_CHICKEN = "d_brown_chicken";
+    public static final String LIGHT_BROWN_CHICKEN = "l_brown_chicken";
+
+    private final AssetManager manager;
+    private final boolean isPacked;
+
+    public Assets() {
+        InternalFileHandleResolver resolver = new InternalFileHandleResolver();
+        this.manager = new AssetManager(resolver);
+        this.manager.setLoader(TiledMap.class, new TmxMapLoader(resolver));
+
+        // the desktop build packs every skin into one page, without it each skin has its own atlas
+        this.isPacked = resolver.resolve(PACKED_CHICKENS).exists();
+    }
+
+    /* LOADING */
+    public void queueChicken(String skin) {
+        queueAtlas(getAtlasPath(skin));
+    }
+
+    public void queueAtlas(String path) {
+        manager.load(path, TextureAtlas.class);
+    }
+
+    public void queueMap(String path) {
+        manager.load(path, TiledMap.class);
+    }
+
+    // loads for at most the given time, returns true once everything queued is ready
+    public boolean update(int millis) {
+        return manager.update(millis);
+    }
+
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+
+    /* ACCESS */
+    public TextureAtlas.AtlasRegion getChickenRegion(String skin) {
+        TextureAtlas atlas = manager.get(getAtlasPath(skin), TextureAtlas.class);
+        return atlas.findRegion(isPacked ? skin : CHICKEN_REGION);
+    }
+
+    public String getAtlasPath(String skin) {
+        return isPacked ? PACKED_CHICKENS : CHICKEN_PACK + skin + ".txt";
+    }
+
+    public boolean isPacked() {
+        return isPacked;
+    }
+
+    public TiledMap getMap(String path) {
+        return manager.get(path, TiledMap.class);
+    }
+
+    public int getReferenceCount(String path) {
+        return manager.isLoaded(path) ? manager.getReferenceCount(path) : 0;
+    }
+
+    public void releaseChicken(String skin) {
+        if (skin != null)
+            release(getAtlasPath(skin));
+    }
+
+    public void release(String path) {
+        if (path == null || !manager.isLoaded(path))
+            return;
+
+        // the last reference disposes the textures, so the shared animations built on them go first
+        if (manager.getReferenceCount(path) == 1 && manager.isLoaded(path, TextureAtlas.class)) {
+            for (Texture texture : manager.get(path, TextureAtlas.class).getTextures())
+                ChickenAnimations.evict(texture);
+        }
+        manager.unload(path);
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
@@ -4,35 +4,57 @@ import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.physics.box2d.*;
-import com.capstone.game.CockfightGame;
+import com.badlogic.gdx.utils.Array;
 
 public class B2WorldCreator {
     /* LAYER INDICES FROM WORLD.TMX */
-    private static final int GROUND_LAYER = 1;
+    public static final int GROUND_LAYER = 1;
 
     public B2WorldCreator(World world, TiledMap map) {
         createLayer(world, map, GROUND_LAYER);
     }
 
-    private void createLayer(World world, TiledMap map, int layerIndex) {
-        BodyDef bodyDef = new BodyDef();
-        PolygonShape polygonShape = new PolygonShape();
-        FixtureDef fixtureDef = new FixtureDef();
-        Body body;
+    public B2WorldCreator(World world, BakedColliders colliders) {
+        createBody(world, colliders, 0, 0);
+    }
 
-        for (RectangleMapObject object : map.getLayers().get(layerIndex).getObjects().getByType(RectangleMapObject.class)) {
-            Rectangle rectangle = object.getRectangle();
+    private void createLayer(World world, TiledMap map, int layerIndex) {
+        createBody(world, ColliderBaker.bake(getRectangles(map, layerIndex)), 0, 0);
+    }
 
-            bodyDef.type = BodyDef.BodyType.StaticBody;
-            bodyDef.position.set(
-                    (rectangle.getX() + rectangle.getWidth() / 2) / CockfightGame.PPM,
-                    (rectangle.getY() + rectangle.getHeight() / 2) / CockfightGame.PPM);
+    public static Array<Rectangle> getRectangles(TiledMap map, int layerIndex) {
+        Array<Rectangle> rectangles = new Array<>();
+        for (RectangleMapObject object : map.getLayers().get(layerIndex).getObjects().getByType(RectangleMapObject.class))
+            rectangles.add(object.getRectangle());
+        return rectangles;
+    }
 
-            body = world.createBody(bodyDef);
+    // the whole arena is one static body with a chain fixture per baked outline
+    public static Body createBody(World world, BakedColliders colliders, float x, float y) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        bodyDef.position.set(x, y);
+        Body body = world.createBody(bodyDef);
 
-            polygonShape.setAsBox(rectangle.getWidth() / (2 * CockfightGame.PPM), rectangle.getHeight() / (2 * CockfightGame.PPM));
-            fixtureDef.shape = polygonShape;
+        FixtureDef fixtureDef = new FixtureDef();
+        for (int i = 0; i < colliders.getChainCount(); i++) {
+            ChainShape chainShape = new ChainShape();
+            if (colliders.isLoop(i))
+                chainShape.createLoop(colliders.getChain(i));
+            else
+                chainShape.createChain(colliders.getChain(i));
+
+            float[] previousGhost = colliders.getPreviousGhost(i);
+            if (previousGhost != null)
+                chainShape.setPrevVertex(previousGhost[0], previousGhost[1]);
+            float[] nextGhost = colliders.getNextGhost(i);
+            if (nextGhost != null)
+                chainShape.setNextVertex(nextGhost[0], nextGhost[1]);
+
+            fixtureDef.shape = chainShape;
             body.createFixture(fixtureDef);
+            chainShape.dispose();
         }
+        return body;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/*
+ * Arena collision geometry after baking: a handful of chains in world units,
+ * all meant for one static body. An open chain that continues in a
+ * neighbouring body carries ghost vertices, the points just past its ends,
+ * so Box2D slides bodies across the seam instead of catching on it. Stored
+ * as a small big-endian binary file: magic, version, chain count, then per
+ * chain a loop flag, the vertex count, the x/y pairs and both ghost vertices
+ * behind a presence flag each.
+ */
+public class BakedColliders {
+    private static final int MAGIC = 0x434B434C;
+    private static final short VERSION = 2;
+
+    private final Array<float[]> chains;
+    private final Array<Boolean> loops;
+    // {x, y} or null when the chain really ends there
+    private final Array<float[]> previousGhosts;
+    private final Array<float[]> nextGhosts;
+
+    public BakedColliders() {
+        this.chains = new Array<>();
+        this.loops = new Array<>();
+        this.previousGhosts = new Array<>();
+        this.nextGhosts = new Array<>();
+    }
+
+    public void addChain(float[] vertices, boolean isLoop) {
+        addChain(vertices, isLoop, null, null);
+    }
+
+    public void addChain(float[] vertices, boolean isLoop, float[] previousGhost, float[] nextGhost) {
+        chains.add(vertices);
+        loops.add(isLoop);
+        previousGhosts.add(previousGhost);
+        nextGhosts.add(nextGhost);
+    }
+
+    public int getChainCount() {
+        return chains.size;
+    }
+
+    public float[] getChain(int index) {
+        return chains.get(index);
+    }
+
+    public boolean isLoop(int index) {
+        return loops.get(index);
+    }
+
+    public float[] getPreviousGhost(int index) {
+        return previousGhosts.get(index);
+    }
+
+    public float[] getNextGhost(int index) {
+        return nextGhosts.get(index);
+    }
+
+
+    /* SERIALIZATION */
+    public void write(FileHandle file) throws IOException {
+        DataOutputStream out = new DataOutputStream(file.write(false));
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(chains.size);
+            for (int i = 0; i < chains.size; i++) {
+                float[] vertices = chains.get(i);
+                out.writeBoolean(loops.get(i));
+                out.writeInt(vertices.length / 2);
+                for (float value : vertices)
+                    out.writeFloat(value);
+                writeGhost(out, previousGhosts.get(i));
+                writeGhost(out, nextGhosts.get(i));
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    public static BakedColliders read(FileHandle file) throws IOException {
+        DataInputStream in = new DataInputStream(file.read(1024));
+        try {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION)
+                throw new IOException("Not a collider cache: " + file.path());
+
+            BakedColliders colliders = new BakedColliders();
+            int chainCount = in.readInt();
+            for (int i = 0; i < chainCount; i++) {
+                boolean isLoop = in.readBoolean();
+                float[] vertices = new float[in.readInt() * 2];
+                for (int j = 0; j < vertices.length; j++)
+                    vertices[j] = in.readFloat();
+                colliders.addChain(vertices, isLoop, readGhost(in), readGhost(in));
+            }
+            return colliders;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void writeGhost(DataOutputStream out, float[] ghost) throws IOException {
+        out.writeBoolean(ghost != null);
+        if (ghost != null) {
+            out.writeFloat(ghost[0]);
+            out.writeFloat(ghost[1]);
+        }
+    }
+
+    private static float[] readGhost(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new float[] {in.readFloat(), in.readFloat()} : null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/*
+ * The drawing half of a streamed arena. Only chunks near the camera exist as
+ * small tile maps; they borrow the tiles of the source map, so no texture is
+ * loaded twice, and released chunks go back to a pool to be refilled. The
+ * number of live chunks depends on the view size, not on the arena width.
+ */
+public class ChunkedArena {
+    private final TiledMap source;
+    private final ArenaLayout layout;
+    private final IntMap<TiledMap> loaded = new IntMap<>();
+    private final Array<TiledMap> pool = new Array<>();
+
+    public ChunkedArena(TiledMap source, ArenaLayout layout) {
+        this.source = source;
+        this.layout = layout;
+    }
+
+    /* STREAMING */
+    // load chunks within half a chunk of the view, drop them once they are a full chunk away
+    public void update(float left, float right) {
+        float margin = layout.getChunkWidth() / 2;
+
+        IntMap.Keys keys = loaded.keys();
+        while (keys.hasNext) {
+            int chunk = keys.next();
+            if (!layout.isInRange(chunk, left, right, 2 * margin)) {
+                pool.add(loaded.get(chunk));
+                keys.remove();
+            }
+        }
+
+        for (int chunk = layout.getChunkAt(left - margin); chunk <= layout.getChunkAt(right + margin); chunk++) {
+            if (!loaded.containsKey(chunk))
+                loaded.put(chunk, fill(pool.size > 0 ? pool.pop() : createChunk(), chunk));
+        }
+    }
+
+    private TiledMap createChunk() {
+        TiledMap chunkMap = new TiledMap();
+        for (MapLayer layer : source.getLayers()) {
+            if (!(layer instanceof TiledMapTileLayer))
+                continue;
+
+            TiledMapTileLayer tileLayer = new TiledMapTileLayer(ArenaLayout.CHUNK_COLUMNS, layout.getRows(), layout.getTileWidth(), layout.getTileHeight());
+            tileLayer.setName(layer.getName());
+            tileLayer.setVisible(layer.isVisible());
+            tileLayer.setOpacity(layer.getOpacity());
+            chunkMap.getLayers().add(tileLayer);
+        }
+        return chunkMap;
+    }
+
+    // copy the source columns of this chunk into the chunk map, reusing its cells
+    private TiledMap fill(TiledMap chunkMap, int chunk) {
+        int firstColumn = chunk * ArenaLayout.CHUNK_COLUMNS;
+        int columns = layout.getChunkColumns(chunk);
+
+        int index = 0;
+        for (MapLayer layer : source.getLayers()) {
+            if (!(layer instanceof TiledMapTileLayer))
+                continue;
+
+            TiledMapTileLayer sourceLayer = (TiledMapTileLayer) layer;
+            TiledMapTileLayer chunkLayer = (TiledMapTileLayer) chunkMap.getLayers().get(index++);
+            chunkLayer.setOffsetX(sourceLayer.getOffsetX() + firstColumn * layout.getTileWidth());
+            chunkLayer.setOffsetY(sourceLayer.getOffsetY());
+
+            for (int x = 0; x < ArenaLayout.CHUNK_COLUMNS; x++) {
+                for (int y = 0; y < layout.getRows(); y++) {
+                    TiledMapTileLayer.Cell sourceCell = x < columns
+                            ? sourceLayer.getCell(layout.getSourceColumn(firstColumn + x), y)
+                            : null;
+                    TiledMapTileLayer.Cell cell = chunkLayer.getCell(x, y);
+                    if (sourceCell == null) {
+                        // an empty tile is skipped by the renderer and keeps the cell for the next refill
+                        if (cell != null)
+                            cell.setTile(null);
+                        continue;
+                    }
+
+                    if (cell == null) {
+                        cell = new TiledMapTileLayer.Cell();
+                        chunkLayer.setCell(x, y, cell);
+                    }
+                    cell.setTile(sourceCell.getTile());
+                    cell.setFlipHorizontally(sourceCell.getFlipHorizontally());
+                    cell.setFlipVertically(sourceCell.getFlipVertically());
+                    cell.setRotation(sourceCell.getRotation());
+                }
+            }
+        }
+        return chunkMap;
+    }
+
+
+    /* RENDERING */
+    public void render(OrthogonalTiledMapRenderer renderer, OrthographicCamera camera) {
+        for (TiledMap chunkMap : loaded.values()) {
+            renderer.setMap(chunkMap);
+            renderer.setView(camera);
+            renderer.render();
+        }
+        renderer.setMap(source);
+    }
+
+    public int getLoadedChunkCount() {
+        return loaded.size;
+    }
+}
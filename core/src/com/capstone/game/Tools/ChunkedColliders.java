@@ -0,0 +1,222 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.CockfightGame;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/*
+ * The physics half of a streamed arena. Each chunk near a chicken gets one
+ * static body with its baked chains and loses it again once both chickens
+ * are far away. Chunks built from the same source columns share their baked
+ * geometry, the body is just placed at the chunk's offset. Each chunk is
+ * baked together with the columns on either side of it and then cut back to
+ * its own width, so the ground has no wall at the seam and the chains there
+ * end in ghost vertices that match the neighbouring chunk.
+ */
+public class ChunkedColliders {
+    private final World world;
+    private final ArenaLayout layout;
+    private final Array<Rectangle> source;
+    private final IntMap<Body> loaded = new IntMap<>();
+    private final ObjectMap<String, BakedColliders> baked = new ObjectMap<>();
+
+    public ChunkedColliders(World world, ArenaLayout layout, Array<Rectangle> source) {
+        this.world = world;
+        this.layout = layout;
+        this.source = source;
+    }
+
+    /* STREAMING */
+    // must run between world steps, bodies can't be created or destroyed during one
+    public void update(float x1, float x2) {
+        float margin = layout.getChunkWidth() / 2;
+
+        IntMap.Keys keys = loaded.keys();
+        while (keys.hasNext) {
+            int chunk = keys.next();
+            if (!layout.isInRange(chunk, x1, x1, 2 * margin) && !layout.isInRange(chunk, x2, x2, 2 * margin)) {
+                world.destroyBody(loaded.get(chunk));
+                keys.remove();
+            }
+        }
+
+        load(x1, margin);
+        load(x2, margin);
+    }
+
+    // for arenas where something is everywhere, e.g. a free-for-all, and for matches: a body that came and
+    // went with the chickens would sit at other broadphase proxies after a keyframe is restored
+    public void loadAll() {
+        for (int chunk = 0; chunk < layout.getChunkCount(); chunk++) {
+            if (!loaded.containsKey(chunk))
+                loaded.put(chunk, B2WorldCreator.createBody(world, getBaked(chunk), layout.getChunkX(chunk), 0));
+        }
+    }
+
+    private void load(float x, float margin) {
+        for (int chunk = layout.getChunkAt(x - margin); chunk <= layout.getChunkAt(x + margin); chunk++) {
+            if (!loaded.containsKey(chunk))
+                loaded.put(chunk, B2WorldCreator.createBody(world, getBaked(chunk), layout.getChunkX(chunk), 0));
+        }
+    }
+
+    private BakedColliders getBaked(int chunk) {
+        int firstColumn = chunk * ArenaLayout.CHUNK_COLUMNS;
+        int columns = layout.getChunkColumns(chunk);
+        // one neighbouring column on each side, so chains run on across the seam and give their ghost vertices
+        int from = chunk > 0 ? -1 : 0;
+        int to = chunk < layout.getChunkCount() - 1 ? columns + 1 : columns;
+
+        // the columns baked and which of them are neighbours
+        StringBuilder key = new StringBuilder().append(from).append(':').append(to - columns).append(':');
+        for (int x = from; x < to; x++)
+            key.append(layout.getSourceColumn(firstColumn + x)).append(',');
+
+        BakedColliders colliders = baked.get(key.toString());
+        if (colliders == null) {
+            float right = columns * layout.getTileWidth() / CockfightGame.PPM;
+            colliders = cut(ColliderBaker.bake(clip(firstColumn, from, to)), right, to == columns);
+            baked.put(key.toString(), colliders);
+        }
+        return colliders;
+    }
+
+    // the source rectangles cut to each column's source range, in pixels from the chunk's left edge
+    private Array<Rectangle> clip(int firstColumn, int from, int to) {
+        Array<Rectangle> rectangles = new Array<>();
+        int tileWidth = layout.getTileWidth();
+
+        for (int x = from; x < to; x++) {
+            int sourceColumn = layout.getSourceColumn(firstColumn + x);
+            float sourceLeft = sourceColumn * tileWidth;
+            float sourceRight = sourceLeft + tileWidth;
+            float offset = x * tileWidth - sourceLeft;
+
+            for (Rectangle r : source) {
+                if (r.width == 0) {
+                    // a wall on a column border belongs to the column on its right, the last one also keeps its right border
+                    boolean isInside = r.x >= sourceLeft && (r.x < sourceRight || (r.x == sourceRight && layout.isLastSourceColumn(sourceColumn)));
+                    if (isInside)
+                        rectangles.add(new Rectangle(r.x + offset, r.y, 0, r.height));
+                    continue;
+                }
+
+                float left = Math.max(r.x, sourceLeft);
+                float right = Math.min(r.x + r.width, sourceRight);
+                if (right > left)
+                    rectangles.add(new Rectangle(left + offset, r.y, right - left, r.height));
+            }
+        }
+        return rectangles;
+    }
+
+
+    /* SEAMS */
+    // keeps the parts of the chains between x = 0 and right, the points just outside become ghost vertices
+    static BakedColliders cut(BakedColliders wide, float right, boolean isLastChunk) {
+        BakedColliders colliders = new BakedColliders();
+        for (int i = 0; i < wide.getChainCount(); i++) {
+            float[] chain = wide.getChain(i);
+            boolean isLoop = wide.isLoop(i);
+            int points = chain.length / 2;
+            int segments = isLoop ? points : points - 1;
+
+            float[][] kept = new float[segments][];
+            int firstOutside = -1;
+            boolean isWhole = true;
+            for (int s = 0; s < segments; s++) {
+                int next = (s + 1) % points;
+                kept[s] = clipSegment(chain[2 * s], chain[2 * s + 1], chain[2 * next], chain[2 * next + 1], right, isLastChunk);
+                boolean isStartInside = kept[s] != null && kept[s][0] == chain[2 * s] && kept[s][1] == chain[2 * s + 1];
+                if (firstOutside < 0 && !isStartInside)
+                    firstOutside = s;
+                isWhole &= isStartInside && kept[s][2] == chain[2 * next] && kept[s][3] == chain[2 * next + 1];
+            }
+
+            if (isWhole) {
+                colliders.addChain(chain, isLoop, wide.getPreviousGhost(i), wide.getNextGhost(i));
+                continue;
+            }
+
+            // a loop that leaves the chunk is walked from where it re-enters, so no piece wraps around its end
+            int first = isLoop ? firstOutside : 0;
+            int s = 0;
+            while (s < segments) {
+                int segment = (first + s) % segments;
+                if (kept[segment] == null) {
+                    s++;
+                    continue;
+                }
+
+                FloatArray piece = new FloatArray();
+                piece.add(kept[segment][0], kept[segment][1]);
+                int last = segment;
+                while (true) {
+                    piece.add(kept[last][2], kept[last][3]);
+                    int following = (last + 1) % segments;
+                    boolean isCut = kept[last][2] != chain[2 * ((last + 1) % points)] || kept[last][3] != chain[2 * ((last + 1) % points) + 1];
+                    if (isCut || s + 1 >= segments || kept[following] == null
+                            || kept[following][0] != kept[last][2] || kept[following][1] != kept[last][3])
+                        break;
+                    last = following;
+                    s++;
+                }
+                s++;
+
+                colliders.addChain(piece.toArray(), false,
+                        getPreviousGhost(wide, i, segment, kept[segment]),
+                        getNextGhost(wide, i, last, kept[last]));
+            }
+        }
+        return colliders;
+    }
+
+    // a segment's part inside the chunk as {x1, y1, x2, y2}, null when none of it is. The chains are axis
+    // aligned, so only horizontal segments can cross a chunk edge. A wall on the right edge belongs to the next chunk.
+    private static float[] clipSegment(float x1, float y1, float x2, float y2, float right, boolean isLastChunk) {
+        if (x1 == x2) {
+            boolean isInside = x1 >= 0 && (x1 < right || (x1 == right && isLastChunk));
+            return isInside ? new float[] {x1, y1, x2, y2} : null;
+        }
+
+        float left = Math.max(Math.min(x1, x2), 0);
+        float end = Math.min(Math.max(x1, x2), right);
+        if (end <= left)
+            return null;
+        return x1 < x2 ? new float[] {left, y1, end, y2} : new float[] {end, y1, left, y2};
+    }
+
+    private static float[] getPreviousGhost(BakedColliders wide, int chain, int segment, float[] kept) {
+        float[] vertices = wide.getChain(chain);
+        int points = vertices.length / 2;
+        if (kept[0] != vertices[2 * segment] || kept[1] != vertices[2 * segment + 1])
+            return new float[] {vertices[2 * segment], vertices[2 * segment + 1]};
+        if (segment > 0 || wide.isLoop(chain)) {
+            int previous = (segment + points - 1) % points;
+            return new float[] {vertices[2 * previous], vertices[2 * previous + 1]};
+        }
+        return wide.getPreviousGhost(chain);
+    }
+
+    private static float[] getNextGhost(BakedColliders wide, int chain, int segment, float[] kept) {
+        float[] vertices = wide.getChain(chain);
+        int points = vertices.length / 2;
+        int end = (segment + 1) % points;
+        if (kept[2] != vertices[2 * end] || kept[3] != vertices[2 * end + 1])
+            return new float[] {vertices[2 * end], vertices[2 * end + 1]};
+        if (end + 1 < points || wide.isLoop(chain)) {
+            int next = (end + 1) % points;
+            return new float[] {vertices[2 * next], vertices[2 * next + 1]};
+        }
+        return wide.getNextGhost(chain);
+    }
+
+    public int getLoadedChunkCount() {
+        return loaded.size;
+    }
+}
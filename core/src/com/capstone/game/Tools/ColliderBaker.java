@@ -0,0 +1,257 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.capstone.game.CockfightGame;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Turns the rectangle objects of a map layer into a few chain shapes. Every
+ * rectangle becomes its outline edges, zero-width or zero-height objects
+ * become single edges, edges shared by two touching rectangles or buried
+ * inside one are dropped, collinear pieces are merged, and the remaining
+ * edges are linked into chains and loops. The result is cached on disk keyed
+ * by the TMX content hash and the baker version, so later matches skip the
+ * XML entirely and a changed merge never loads chains baked by an older one.
+ */
+public class ColliderBaker {
+    private static final String CACHE_DIRECTORY = ".cache/colliders/";
+    // bump whenever baking changes its output, BakedColliders.VERSION only covers the file layout
+    private static final int BAKER_VERSION = 1;
+
+    // content hash per path, size and modification time, so a TMX is read and hashed once per process
+    private static final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    private ColliderBaker() {}
+
+    /* CACHE */
+    public static BakedColliders load(FileHandle tmxFile, int layerIndex) {
+        FileHandle cacheFile = resolveLocal(CACHE_DIRECTORY + getHash(tmxFile) + "-" + layerIndex + "-v" + BAKER_VERSION + ".bin");
+        if (cacheFile.exists()) {
+            try {
+                return BakedColliders.read(cacheFile);
+            } catch (IOException | GdxRuntimeException e) {
+                System.out.println("Rebaking colliders, cache unreadable: " + e.getMessage());
+            }
+        }
+
+        BakedColliders colliders = bake(TmxColliderReader.read(tmxFile, layerIndex));
+        try {
+            colliders.write(cacheFile);
+        } catch (IOException | GdxRuntimeException e) {
+            System.out.println("Error writing collider cache: " + e.getMessage());
+        }
+        return colliders;
+    }
+
+    // files inside a jar report no modification time, they can't change while the process runs anyway
+    private static String getHash(FileHandle tmxFile) {
+        String key = tmxFile.type() + ":" + tmxFile.path() + ":" + tmxFile.length() + ":" + tmxFile.lastModified();
+        String hash = hashes.get(key);
+        if (hash == null) {
+            hash = hash(tmxFile.readBytes());
+            hashes.put(key, hash);
+        }
+        return hash;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FileHandle resolveLocal(String path) {
+        return Gdx.files != null ? Gdx.files.local(path) : new FileHandle(path);
+    }
+
+
+    /* BAKING */
+    public static BakedColliders bake(Array<Rectangle> rectangles) {
+        // every rectangle edge on its line, tagged with the side its rectangle is on
+        Map<Float, List<float[]>> horizontal = new TreeMap<>();
+        Map<Float, List<float[]>> vertical = new TreeMap<>();
+        for (Rectangle r : rectangles) {
+            if (r.width > 0 && r.height > 0) {
+                addEdge(horizontal, r.y, r.x, r.x + r.width, 1);
+                addEdge(horizontal, r.y + r.height, r.x, r.x + r.width, -1);
+                addEdge(vertical, r.x, r.y, r.y + r.height, 1);
+                addEdge(vertical, r.x + r.width, r.y, r.y + r.height, -1);
+            } else if (r.width > 0) {
+                addEdge(horizontal, r.y, r.x, r.x + r.width, 0);
+            } else if (r.height > 0) {
+                addEdge(vertical, r.x, r.y, r.y + r.height, 0);
+            }
+        }
+
+        List<float[]> segments = new ArrayList<>();
+        for (Map.Entry<Float, List<float[]>> line : horizontal.entrySet())
+            mergeLine(line.getKey(), line.getValue(), false, rectangles, segments);
+        for (Map.Entry<Float, List<float[]>> line : vertical.entrySet())
+            mergeLine(line.getKey(), line.getValue(), true, rectangles, segments);
+
+        return linkChains(segments);
+    }
+
+    private static void addEdge(Map<Float, List<float[]>> lines, float line, float from, float to, int side) {
+        List<float[]> edges = lines.get(line);
+        if (edges == null) {
+            edges = new ArrayList<>();
+            lines.put(line, edges);
+        }
+        edges.add(new float[] {from, to, side});
+    }
+
+    // cut the line at every edge end, keep the pieces with solid on exactly one side, merge neighbours
+    private static void mergeLine(float line, List<float[]> edges, boolean isVertical, Array<Rectangle> rectangles, List<float[]> segments) {
+        float[] cuts = new float[edges.size() * 2];
+        for (int i = 0; i < edges.size(); i++) {
+            cuts[2 * i] = edges.get(i)[0];
+            cuts[2 * i + 1] = edges.get(i)[1];
+        }
+        Arrays.sort(cuts);
+
+        float start = Float.NaN;
+        float end = Float.NaN;
+        for (int i = 0; i + 1 < cuts.length; i++) {
+            float from = cuts[i];
+            float to = cuts[i + 1];
+            if (from == to)
+                continue;
+
+            boolean isLine = false, isBelow = false, isAbove = false;
+            for (float[] edge : edges) {
+                if (edge[0] <= from && edge[1] >= to) {
+                    if (edge[2] == 0) isLine = true;
+                    else if (edge[2] > 0) isAbove = true;
+                    else isBelow = true;
+                }
+            }
+
+            float middle = (from + to) / 2;
+            boolean isKept = (isLine || isAbove != isBelow)
+                    && !isInside(rectangles, isVertical ? line : middle, isVertical ? middle : line);
+
+            if (isKept && end == from) {
+                end = to;
+            } else if (isKept) {
+                addSegment(segments, line, start, end, isVertical);
+                start = from;
+                end = to;
+            }
+        }
+        addSegment(segments, line, start, end, isVertical);
+    }
+
+    private static boolean isInside(Array<Rectangle> rectangles, float x, float y) {
+        for (Rectangle r : rectangles) {
+            if (x > r.x && x < r.x + r.width && y > r.y && y < r.y + r.height)
+                return true;
+        }
+        return false;
+    }
+
+    private static void addSegment(List<float[]> segments, float line, float start, float end, boolean isVertical) {
+        if (Float.isNaN(start))
+            return;
+
+        if (isVertical)
+            segments.add(new float[] {line, start, line, end});
+        else
+            segments.add(new float[] {start, line, end, line});
+    }
+
+    // walk segments through vertices shared by exactly two of them, open chains first, then loops
+    private static BakedColliders linkChains(List<float[]> segments) {
+        Map<Long, List<Integer>> vertices = new HashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            float[] segment = segments.get(i);
+            addVertex(vertices, key(segment[0], segment[1]), i);
+            addVertex(vertices, key(segment[2], segment[3]), i);
+        }
+
+        BakedColliders colliders = new BakedColliders();
+        boolean[] isUsed = new boolean[segments.size()];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < segments.size(); i++) {
+                if (isUsed[i])
+                    continue;
+
+                float[] segment = segments.get(i);
+                boolean isStartEnd = vertices.get(key(segment[0], segment[1])).size() != 2;
+                boolean isEndEnd = vertices.get(key(segment[2], segment[3])).size() != 2;
+                if (pass == 0 && !isStartEnd && !isEndEnd)
+                    continue;
+
+                // start open chains from their free end
+                float x = isStartEnd || pass == 1 ? segment[0] : segment[2];
+                float y = isStartEnd || pass == 1 ? segment[1] : segment[3];
+                colliders.addChain(walk(segments, vertices, isUsed, i, x, y), pass == 1);
+            }
+        }
+        return colliders;
+    }
+
+    private static float[] walk(List<float[]> segments, Map<Long, List<Integer>> vertices, boolean[] isUsed, int first, float x, float y) {
+        List<Float> points = new ArrayList<>();
+        points.add(x / CockfightGame.PPM);
+        points.add(y / CockfightGame.PPM);
+
+        int current = first;
+        while (current >= 0 && !isUsed[current]) {
+            int index = current;
+            isUsed[index] = true;
+            float[] segment = segments.get(index);
+            boolean isForward = segment[0] == x && segment[1] == y;
+            x = isForward ? segment[2] : segment[0];
+            y = isForward ? segment[3] : segment[1];
+
+            List<Integer> next = vertices.get(key(x, y));
+            current = -1;
+            if (next.size() == 2) {
+                current = next.get(0) == index ? next.get(1) : next.get(0);
+                if (isUsed[current])
+                    break;
+            }
+            points.add(x / CockfightGame.PPM);
+            points.add(y / CockfightGame.PPM);
+        }
+
+        float[] chain = new float[points.size()];
+        for (int i = 0; i < chain.length; i++)
+            chain[i] = points.get(i);
+        return chain;
+    }
+
+    private static void addVertex(Map<Long, List<Integer>> vertices, long key, int segment) {
+        List<Integer> segments = vertices.get(key);
+        if (segments == null) {
+            segments = new ArrayList<>(2);
+            vertices.put(key, segments);
+        }
+        segments.add(segment);
+    }
+
+    private static long key(float x, float y) {
+        return ((long) Float.floatToIntBits(x) << 32) | (Float.floatToIntBits(y) & 0xffffffffL);
+    }
+}
@@ -0,0 +1,80 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+/*
+ * Per-frame draw counters that can be read at runtime: sprite batch flushes
+ * for the whole frame and for the sprite pass alone, texture binds, GL draw
+ * calls and the largest number of sprites sent in one flush.
+ */
+public class RenderStats {
+    private final SpriteBatch spriteBatch;
+    private final GLProfiler profiler;
+
+    private int renderCalls;
+    private int spritePassRenderCalls;
+    private int textureBindings;
+    private int drawCalls;
+    private int maxSpritesInBatch;
+
+    public RenderStats(SpriteBatch spriteBatch) {
+        this.spriteBatch = spriteBatch;
+        this.profiler = new GLProfiler(Gdx.graphics);
+        this.profiler.enable();
+    }
+
+    public void beginFrame() {
+        profiler.reset();
+        spriteBatch.totalRenderCalls = 0;
+        spriteBatch.maxSpritesInBatch = 0;
+    }
+
+    // call right after the sprite batch that draws the chickens ends, one flush means one batch
+    public void recordSpritePass() {
+        spritePassRenderCalls = spriteBatch.renderCalls;
+    }
+
+    public void endFrame() {
+        renderCalls = spriteBatch.totalRenderCalls;
+        maxSpritesInBatch = spriteBatch.maxSpritesInBatch;
+        textureBindings = profiler.getTextureBindings();
+        drawCalls = profiler.getDrawCalls();
+    }
+
+    public void setEnabled(boolean isEnabled) {
+        if (isEnabled)
+            profiler.enable();
+        else
+            profiler.disable();
+    }
+
+    /* GETTERS */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+
+    public int getSpritePassRenderCalls() {
+        return spritePassRenderCalls;
+    }
+
+    public int getTextureBindings() {
+        return textureBindings;
+    }
+
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    public int getMaxSpritesInBatch() {
+        return maxSpritesInBatch;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats{renderCalls=" + renderCalls + ", spritePassRenderCalls=" + spritePassRenderCalls
+                + ", textureBindings=" + textureBindings + ", drawCalls=" + drawCalls
+                + ", maxSpritesInBatch=" + maxSpritesInBatch + "}";
+    }
+}
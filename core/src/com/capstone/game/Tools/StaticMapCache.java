@@ -0,0 +1,201 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import java.util.Arrays;
+
+/*
+ * Bakes the tile layers of a map into offscreen framebuffers once and then
+ * draws the arena as a single quad per frame. Animated tiles are baked once
+ * per animation frame, which works as long as every animated tile shares the
+ * same frame timing. The bake is redone only when the viewport's screen size
+ * changes or the cache is invalidated.
+ */
+public class StaticMapCache implements Disposable {
+    private static final int MAX_TEXTURE_SIZE = 4096;
+
+    private final TiledMap map;
+    private final float unitScale;
+    private final int mapPixelWidth;
+    private final int mapPixelHeight;
+
+    // shared animation timing of the map's tiles in milliseconds, null when the map can't be cached
+    private final int[] frameDurations;
+    private final int period;
+
+    private final Array<FrameBuffer> frameBuffers = new Array<>();
+    private final Array<TextureRegion> frames = new Array<>();
+    private final Matrix4 bakeProjection = new Matrix4();
+    private int bakedScreenWidth;
+    private int bakedScreenHeight;
+    private float stateTime;
+
+    public StaticMapCache(TiledMap map, float unitScale) {
+        this.map = map;
+        this.unitScale = unitScale;
+        this.mapPixelWidth = map.getProperties().get("width", Integer.class) * map.getProperties().get("tilewidth", Integer.class);
+        this.mapPixelHeight = map.getProperties().get("height", Integer.class) * map.getProperties().get("tileheight", Integer.class);
+        this.frameDurations = findFrameDurations(map);
+
+        int period = 0;
+        if (frameDurations != null)
+            for (int duration : frameDurations) period += duration;
+        this.period = period;
+    }
+
+    // every animated tile has to tick in lockstep, otherwise one baked image per frame isn't enough
+    private static int[] findFrameDurations(TiledMap map) {
+        int[] durations = {1};
+        boolean isAnimated = false;
+
+        for (MapLayer layer : map.getLayers()) {
+            if (!(layer instanceof TiledMapTileLayer))
+                continue;
+
+            TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+            for (int y = 0; y < tileLayer.getHeight(); y++) {
+                for (int x = 0; x < tileLayer.getWidth(); x++) {
+                    TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
+                    if (cell == null || cell.getTile() == null)
+                        continue;
+                    if (cell.getRotation() != TiledMapTileLayer.Cell.ROTATE_0)
+                        return null;
+                    if (!(cell.getTile() instanceof AnimatedTiledMapTile))
+                        continue;
+
+                    int[] intervals = ((AnimatedTiledMapTile) cell.getTile()).getAnimationIntervals();
+                    if (!isAnimated) {
+                        durations = intervals.clone();
+                        isAnimated = true;
+                    } else if (!Arrays.equals(durations, intervals)) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return durations;
+    }
+
+    public boolean isCacheable() {
+        return frameDurations != null;
+    }
+
+    public void invalidate() {
+        for (FrameBuffer frameBuffer : frameBuffers)
+            frameBuffer.dispose();
+        frameBuffers.clear();
+        frames.clear();
+    }
+
+    public void render(Viewport viewport, SpriteBatch batch, float delta) {
+        if (frames.size == 0 || viewport.getScreenWidth() != bakedScreenWidth || viewport.getScreenHeight() != bakedScreenHeight) {
+            invalidate();
+            bake(viewport, batch);
+
+            // framebuffers reset the gl viewport to the whole window
+            viewport.apply();
+        }
+
+        stateTime += delta;
+        TextureRegion frame = frames.get(getFrameIndex());
+
+        batch.setProjectionMatrix(viewport.getCamera().combined);
+        batch.begin();
+        batch.draw(frame, 0, 0, mapPixelWidth * unitScale, mapPixelHeight * unitScale);
+        batch.end();
+    }
+
+    private int getFrameIndex() {
+        if (frames.size == 1)
+            return 0;
+
+        long time = (long) (stateTime * 1000) % period;
+        for (int i = 0; i < frameDurations.length; i++) {
+            time -= frameDurations[i];
+            if (time < 0)
+                return i;
+        }
+        return frameDurations.length - 1;
+    }
+
+
+    /* BAKING */
+    private void bake(Viewport viewport, SpriteBatch batch) {
+        // bake at the resolution the arena is shown at, so it stays as sharp as live rendering
+        float pixelsPerUnit = viewport.getScreenWidth() / viewport.getWorldWidth();
+        int width = Math.max(1, Math.min(MAX_TEXTURE_SIZE, Math.round(mapPixelWidth * unitScale * pixelsPerUnit)));
+        int height = Math.max(1, Math.min(MAX_TEXTURE_SIZE, Math.round(mapPixelHeight * unitScale * pixelsPerUnit)));
+        bakeProjection.setToOrtho2D(0, 0, mapPixelWidth, mapPixelHeight);
+
+        for (int frameIndex = 0; frameIndex < frameDurations.length; frameIndex++) {
+            FrameBuffer frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+            frameBuffer.begin();
+            Gdx.gl.glClearColor(0, 0, 0, 0);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+            batch.setProjectionMatrix(bakeProjection);
+            batch.begin();
+            for (MapLayer layer : map.getLayers()) {
+                if (layer instanceof TiledMapTileLayer && layer.isVisible())
+                    bakeLayer((TiledMapTileLayer) layer, batch, frameIndex);
+            }
+            batch.end();
+            batch.setColor(1, 1, 1, 1);
+            frameBuffer.end();
+
+            // framebuffer textures are upside down
+            TextureRegion frame = new TextureRegion(frameBuffer.getColorBufferTexture());
+            frame.flip(false, true);
+            frameBuffers.add(frameBuffer);
+            frames.add(frame);
+        }
+
+        bakedScreenWidth = viewport.getScreenWidth();
+        bakedScreenHeight = viewport.getScreenHeight();
+    }
+
+    private void bakeLayer(TiledMapTileLayer layer, SpriteBatch batch, int frameIndex) {
+        float tileWidth = layer.getTileWidth();
+        float tileHeight = layer.getTileHeight();
+        batch.setColor(1, 1, 1, layer.getOpacity());
+
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell == null || cell.getTile() == null)
+                    continue;
+
+                TiledMapTile tile = cell.getTile();
+                if (tile instanceof AnimatedTiledMapTile)
+                    tile = ((AnimatedTiledMapTile) tile).getFrameTiles()[frameIndex];
+
+                TextureRegion region = tile.getTextureRegion();
+                batch.draw(region.getTexture(),
+                        x * tileWidth + tile.getOffsetX() + layer.getRenderOffsetX(),
+                        y * tileHeight + tile.getOffsetY() - layer.getRenderOffsetY(),
+                        region.getRegionWidth(), region.getRegionHeight(),
+                        region.getRegionX(), region.getRegionY(), region.getRegionWidth(), region.getRegionHeight(),
+                        cell.getFlipHorizontally(), cell.getFlipVertically());
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        invalidate();
+    }
+}
@@ -0,0 +1,61 @@
+package com.capstone.game.Tools;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.XmlReader;
+
+/*
+ * Reads the rectangle objects of a TMX object layer and the map size straight
+ * from the XML, without loading tilesets or textures, so colliders can be
+ * built on a machine with no OpenGL context.
+ */
+public class TmxColliderReader {
+    private TmxColliderReader() {}
+
+    public static Array<Rectangle> read(FileHandle tmxFile, int layerIndex) {
+        XmlReader.Element map = new XmlReader().parse(tmxFile);
+        float mapHeight = map.getIntAttribute("height", 0) * map.getIntAttribute("tileheight", 0);
+
+        // count layers the same way TmxMapLoader does, tilesets are not layers
+        int index = 0;
+        XmlReader.Element objectGroup = null;
+        for (int i = 0; i < map.getChildCount(); i++) {
+            XmlReader.Element child = map.getChild(i);
+            if (child.getName().equals("tileset") || child.getName().equals("properties"))
+                continue;
+
+            if (index++ == layerIndex) {
+                objectGroup = child;
+                break;
+            }
+        }
+
+        Array<Rectangle> colliders = new Array<>();
+        if (objectGroup == null || !objectGroup.getName().equals("objectgroup"))
+            return colliders;
+
+        for (XmlReader.Element object : objectGroup.getChildrenByName("object")) {
+            // only plain rectangles, the same objects TmxMapLoader turns into RectangleMapObjects
+            if (object.getChildByName("ellipse") != null || object.getChildByName("polygon") != null
+                    || object.getChildByName("polyline") != null || object.getChildByName("point") != null
+                    || object.getChildByName("text") != null || object.hasAttribute("gid"))
+                continue;
+
+            float width = object.getFloatAttribute("width", 0);
+            float height = object.getFloatAttribute("height", 0);
+            float x = object.getFloatAttribute("x", 0);
+
+            // flip y the same way TmxMapLoader does
+            float y = mapHeight - object.getFloatAttribute("y", 0) - height;
+            colliders.add(new Rectangle(x, y, width, height));
+        }
+        return colliders;
+    }
+
+    public static ArenaLayout readLayout(FileHandle tmxFile, int columns) {
+        XmlReader.Element map = new XmlReader().parse(tmxFile);
+        return new ArenaLayout(map.getIntAttribute("width", 0), map.getIntAttribute("height", 0),
+                map.getIntAttribute("tilewidth", 0), map.getIntAttribute("tileheight", 0), columns);
+    }
+}
@@ -1,28 +1,195 @@
 package com.capstone.game.Tools;
 
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
 import com.badlogic.gdx.physics.box2d.Manifold;
 
-public class WorldContactListener implements ContactListener {
+/*
+ * Records contacts between two bodies whose user data is of the given type
+ * into a preallocated ring buffer while the world steps, and hands them out
+ * in one pass after the step. Nothing touches a body inside the solver. The
+ * relative velocity is captured at contact time, before the solver changes
+ * it, and a pair that touched more than once in a step is handed out once.
+ * A pair can be marked as already touching when its bodies were rebuilt,
+ * Box2D begins its contact again on the next step but it is not a new one.
+ */
+public class WorldContactListener<T> implements ContactListener {
+    public interface ContactHandler<T> {
+        // relative velocity is b's velocity minus a's when the contact began
+        void onContact(T a, T b, float relativeVelocityX, float relativeVelocityY);
+    }
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Class<T> type;
+
+    // ring buffer of recorded contacts
+    private final Object[] contactsA;
+    private final Object[] contactsB;
+    private final float[] relativeVelocitiesX;
+    private final float[] relativeVelocitiesY;
+    private final int mask;
+    private int head;
+    private int tail;
+    private int droppedContacts;
+
+    // open addressing set of the pairs already handed out this drain, only the used slots are cleared
+    private final Object[] seenA;
+    private final Object[] seenB;
+    private final int[] usedSlots;
+    private int usedSlotCount;
+
+    // pairs touching before their bodies were rebuilt, only until the next drain
+    private final Object[] touchingA;
+    private final Object[] touchingB;
+    private int touchingCount;
+
+    public WorldContactListener(Class<T> type) {
+        this(type, DEFAULT_CAPACITY);
+    }
+
+    public WorldContactListener(Class<T> type, int capacity) {
+        this.type = type;
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.contactsA = new Object[size];
+        this.contactsB = new Object[size];
+        this.relativeVelocitiesX = new float[size];
+        this.relativeVelocitiesY = new float[size];
+        this.mask = size - 1;
+
+        this.seenA = new Object[size * 2];
+        this.seenB = new Object[size * 2];
+        this.usedSlots = new int[size];
+
+        this.touchingA = new Object[size];
+        this.touchingB = new Object[size];
+    }
+
+
+    /* RECORDING */
     @Override
     public void beginContact(Contact contact) {
+        Body bodyA = contact.getFixtureA().getBody();
+        Body bodyB = contact.getFixtureB().getBody();
+        if (!type.isInstance(bodyA.getUserData()) || !type.isInstance(bodyB.getUserData()))
+            return;
+        if (removeTouching(bodyA.getUserData(), bodyB.getUserData()))
+            return;
 
+        // a full buffer drops the newest contact instead of growing mid-step
+        if (tail - head > mask) {
+            droppedContacts++;
+            return;
+        }
+
+        Vector2 velocityA = bodyA.getLinearVelocity();
+        Vector2 velocityB = bodyB.getLinearVelocity();
+        int index = tail & mask;
+        contactsA[index] = bodyA.getUserData();
+        contactsB[index] = bodyB.getUserData();
+        relativeVelocitiesX[index] = velocityB.x - velocityA.x;
+        relativeVelocitiesY[index] = velocityB.y - velocityA.y;
+        tail++;
     }
 
     @Override
     public void endContact(Contact contact) {
-
     }
 
     @Override
     public void preSolve(Contact contact, Manifold oldManifold) {
-
     }
 
     @Override
     public void postSolve(Contact contact, ContactImpulse impulse) {
+    }
+
+
+    // after rebuilding the bodies, for a pair whose contact was touching before
+    public void addTouching(T a, T b) {
+        if (touchingCount < touchingA.length) {
+            touchingA[touchingCount] = a;
+            touchingB[touchingCount] = b;
+            touchingCount++;
+        }
+    }
+
+    public void clearTouching() {
+        for (int i = 0; i < touchingCount; i++) {
+            touchingA[i] = null;
+            touchingB[i] = null;
+        }
+        touchingCount = 0;
+    }
+
+    private boolean removeTouching(Object a, Object b) {
+        for (int i = 0; i < touchingCount; i++) {
+            if ((touchingA[i] == a && touchingB[i] == b) || (touchingA[i] == b && touchingB[i] == a)) {
+                touchingCount--;
+                touchingA[i] = touchingA[touchingCount];
+                touchingB[i] = touchingB[touchingCount];
+                touchingA[touchingCount] = null;
+                touchingB[touchingCount] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /* DRAINING */
+    // call after world.step, every distinct pair reaches the handler once in recording order
+    @SuppressWarnings("unchecked")
+    public int drain(ContactHandler<T> handler) {
+        int handled = 0;
+        while (head != tail) {
+            int index = head & mask;
+            Object a = contactsA[index];
+            Object b = contactsB[index];
+            contactsA[index] = null;
+            contactsB[index] = null;
+            head++;
+
+            if (markSeen(a, b)) {
+                handler.onContact((T) a, (T) b, relativeVelocitiesX[index], relativeVelocitiesY[index]);
+                handled++;
+            }
+        }
+
+        for (int i = 0; i < usedSlotCount; i++) {
+            seenA[usedSlots[i]] = null;
+            seenB[usedSlots[i]] = null;
+        }
+        usedSlotCount = 0;
+        // a marked pair that didn't begin again stopped touching in the step
+        clearTouching();
+        return handled;
+    }
+
+    // false when the unordered pair was already seen in this drain
+    private boolean markSeen(Object a, Object b) {
+        int slotMask = seenA.length - 1;
+        int slot = ((System.identityHashCode(a) ^ System.identityHashCode(b)) * 0x9E3779B9 >>> 8) & slotMask;
+        while (seenA[slot] != null) {
+            if ((seenA[slot] == a && seenB[slot] == b) || (seenA[slot] == b && seenB[slot] == a))
+                return false;
+            slot = (slot + 1) & slotMask;
+        }
+
+        seenA[slot] = a;
+        seenB[slot] = b;
+        usedSlots[usedSlotCount++] = slot;
+        return true;
+    }
+
+    public int getPendingContacts() {
+        return tail - head;
+    }
 
+    public int getDroppedContacts() {
+        return droppedContacts;
     }
 }
@@ -0,0 +1,152 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.ChickenSnapshot;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.WorldSnapshot;
+import com.capstone.game.Simulation.WorldStateCodec;
+import com.capstone.game.Simulation.WorldStateProto;
+import com.google.protobuf.Message;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Holds the hand-written WorldStateCodec to the classes protoc generates from core/proto/world_state.proto, run from
+// the assets directory. Every full and delta snapshot of a real match is encoded by the codec and parsed by the
+// generated classes, then built with the generated builders and decoded by the codec. Fails with a non-zero exit code
+// on the first message the two read differently.
+public class WorldStateSchemaCheck {
+	// a client a few steps behind acknowledges an older base, the delta spans more ticks
+	private static final int[] DELTA_DISTANCES = {1, 6, 30};
+
+	public static void main (String[] arg) throws IOException {
+		int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : 3600;
+		WorldSnapshot[] snapshots = CheckFixtures.record(ticks);
+
+		WorldStateCodec encoder = new WorldStateCodec();
+		WorldStateCodec decoder = new WorldStateCodec();
+		encoder.setMatchInfo(CheckFixtures.SEED, CockfightGame.ARENA_COLUMNS);
+		WorldSnapshot expected = new WorldSnapshot();
+		WorldSnapshot decoded = new WorldSnapshot();
+
+		int messages = 0;
+		for (int i = 0; i < snapshots.length; i++) {
+			// what any reader of this tick should end up with, the codec's reading of its own full snapshot
+			byte[] full = Arrays.copyOf(encoder.getBuffer(), encoder.encodeFull(snapshots[i]));
+			decoder.decode(full, 0, full.length, null, expected);
+
+			WorldStateProto.WorldState message = toMessage(snapshots[i], null);
+			check(full, message, "full snapshot of tick " + i);
+			decoder.decode(message.toByteArray(), 0, message.getSerializedSize(), null, decoded);
+			check(decoded, expected, "full snapshot of tick " + i);
+			if (decoder.getDecodedSeed() != CheckFixtures.SEED || decoder.getDecodedArenaColumns() != CockfightGame.ARENA_COLUMNS)
+				fail("the codec lost the match info of the generated full snapshot of tick " + i);
+			messages++;
+
+			for (int distance : DELTA_DISTANCES) {
+				if (i < distance)
+					continue;
+				WorldSnapshot base = snapshots[i - distance];
+				String name = "delta of tick " + i + " against tick " + base.tick;
+
+				byte[] delta = Arrays.copyOf(encoder.getBuffer(), encoder.encodeDelta(snapshots[i], base));
+				message = toMessage(snapshots[i], base);
+				check(delta, message, name);
+				decoder.decode(message.toByteArray(), 0, message.getSerializedSize(), base, decoded);
+				check(decoded, expected, name);
+				if (!decoder.isDecodedDelta() || decoder.getDecodedBaseTick() != base.tick)
+					fail("the codec did not read the generated " + name + " as a delta");
+				messages++;
+			}
+		}
+		System.out.printf("%d messages of %d ticks read the same by WorldStateCodec and the generated classes%n", messages, ticks);
+	}
+
+
+	/* GENERATED */
+	// the message the schema says a snapshot is, built only from the .proto's classes and the units in its comments
+	private static WorldStateProto.WorldState toMessage (WorldSnapshot snapshot, WorldSnapshot base) {
+		WorldStateProto.WorldState.Builder world = WorldStateProto.WorldState.newBuilder().setTick(snapshot.tick);
+		if (base != null) {
+			world.setBaseTick(base.tick);
+		} else {
+			world.setMatch(WorldStateProto.MatchInfo.newBuilder()
+					.setSeed(CheckFixtures.SEED)
+					.setArenaColumns(CockfightGame.ARENA_COLUMNS));
+		}
+
+		WorldStateProto.Chicken chicken1 = toMessage(1, snapshot.chicken1, base != null ? base.chicken1 : null);
+		WorldStateProto.Chicken chicken2 = toMessage(2, snapshot.chicken2, base != null ? base.chicken2 : null);
+		// a delta leaves out a chicken with nothing but its id set
+		if (base == null || !chicken1.equals(WorldStateProto.Chicken.newBuilder().setId(1).build()))
+			world.addChickens(chicken1);
+		if (base == null || !chicken2.equals(WorldStateProto.Chicken.newBuilder().setId(2).build()))
+			world.addChickens(chicken2);
+		return world.build();
+	}
+
+	private static WorldStateProto.Chicken toMessage (int id, ChickenSnapshot chicken, ChickenSnapshot base) {
+		WorldStateProto.ChickenState state = WorldStateProto.ChickenState.valueOf(chicken.currentState.name());
+		WorldStateProto.Facing facing = chicken.isFaceRight ? WorldStateProto.Facing.RIGHT : WorldStateProto.Facing.LEFT;
+		WorldStateProto.Chicken.Builder builder = WorldStateProto.Chicken.newBuilder()
+				.setId(id)
+				.setX(difference(chicken.x, base != null ? base.x : 0, 512))
+				.setY(difference(chicken.y, base != null ? base.y : 0, 512))
+				.setVelocityX(difference(chicken.velocityX, base != null ? base.velocityX : 0, 256))
+				.setVelocityY(difference(chicken.velocityY, base != null ? base.velocityY : 0, 256))
+				.setHp(difference(chicken.hp, base != null ? base.hp : 0, 100))
+				.setStateTicks(difference(chicken.stateTimer, base != null ? base.stateTimer : 0, 1 / Match.TIME_STEP));
+
+		// an enum that did not change is left at its UNCHANGED default
+		if (base == null || chicken.currentState != base.currentState)
+			builder.setState(state);
+		if (base == null || chicken.isFaceRight != base.isFaceRight)
+			builder.setFacing(facing);
+		return builder.build();
+	}
+
+	private static int difference (float value, float base, float scale) {
+		return Math.round(value * scale) - Math.round(base * scale);
+	}
+
+
+	/* CHECKS */
+	// the codec's bytes parse into exactly the generated message, with nothing the schema doesn't know
+	private static void check (byte[] encoded, WorldStateProto.WorldState message, String name) throws IOException {
+		WorldStateProto.WorldState parsed = WorldStateProto.WorldState.parseFrom(encoded);
+		if (hasUnknownFields(parsed))
+			fail("the " + name + " has fields world_state.proto doesn't declare: " + parsed);
+		if (!parsed.equals(message))
+			fail("the codec's " + name + " parses as\n" + parsed + "instead of\n" + message);
+		// both write fields in number order and leave defaults out, so the bytes are the same too
+		if (!Arrays.equals(encoded, message.toByteArray()))
+			fail("the codec's " + name + " holds the right fields in different bytes than the generated classes");
+	}
+
+	private static boolean hasUnknownFields (WorldStateProto.WorldState world) {
+		boolean isUnknown = hasOwnUnknownFields(world) || hasOwnUnknownFields(world.getMatch());
+		for (WorldStateProto.Chicken chicken : world.getChickensList())
+			isUnknown |= hasOwnUnknownFields(chicken);
+		return isUnknown;
+	}
+
+	private static boolean hasOwnUnknownFields (Message message) {
+		return !message.getUnknownFields().asMap().isEmpty();
+	}
+
+	// the codec decoded the generated message into the same snapshot as its own
+	private static void check (WorldSnapshot decoded, WorldSnapshot expected, String name) {
+		if (decoded.tick != expected.tick || !isSame(decoded.chicken1, expected.chicken1) || !isSame(decoded.chicken2, expected.chicken2))
+			fail("the codec decoded the generated " + name + " differently from its own");
+	}
+
+	private static boolean isSame (ChickenSnapshot a, ChickenSnapshot b) {
+		return a.x == b.x && a.y == b.y && a.velocityX == b.velocityX && a.velocityY == b.velocityY
+				&& a.currentState == b.currentState && a.hp == b.hp && a.isFaceRight == b.isFaceRight
+				&& a.stateTimer == b.stateTimer;
+	}
+
+	private static void fail (String message) {
+		System.err.println("World state schema mismatch: " + message);
+		System.exit(1);
+	}
+}
@@ -0,0 +1,70 @@
+package com.capstone.game;
+
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Events.CombatStats;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.Match;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// Fails with a non-zero exit code when a steady-state headless tick allocates, run from the assets directory.
+// The JIT still deoptimizes a method now and then long after warm-up and the VM allocates a few dozen bytes on this
+// thread for it, once; the tick path itself allocates nothing even interpreted. A tick that allocates does so in
+// every window, so the budget holds for the quietest one.
+public class AllocationBudgetCheck {
+	private static final int WARM_UP_TICKS = 20000;
+	private static final int WINDOWS = 5;
+	private static final long BUDGET_BYTES_PER_TICK = 0;
+
+	public static void main (String[] arg) {
+		int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : 50000;
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		threads.getThreadAllocatedBytes(threadId);
+
+		// every tick runs AI, input, jumps, contacts and attacks
+		HeadlessMatch headlessMatch = CheckFixtures.createHeadlessMatch();
+		Match match = headlessMatch.getMatch();
+
+		// combat events are published and consumed on this thread too, both sides have to stay allocation free
+		match.setEventBus(new CombatEventBus());
+		CombatStats stats = new CombatStats(match.getEventBus());
+		try {
+			int tick = 0;
+			for (; tick < WARM_UP_TICKS; tick++) {
+				match.update(Match.TIME_STEP, CheckFixtures.inputFor(tick), CheckFixtures.inputFor(tick + 7));
+				stats.poll();
+			}
+
+			int windowTicks = ticks / WINDOWS;
+			long[] windows = new long[WINDOWS];
+			for (int window = 0; window < WINDOWS; window++) {
+				long before = threads.getThreadAllocatedBytes(threadId);
+				for (int i = 0; i < windowTicks; i++, tick++) {
+					match.update(Match.TIME_STEP, CheckFixtures.inputFor(tick), CheckFixtures.inputFor(tick + 7));
+					stats.poll();
+				}
+				windows[window] = threads.getThreadAllocatedBytes(threadId) - before;
+			}
+
+			long allocated = 0;
+			long quietest = Long.MAX_VALUE;
+			for (long bytes : windows) {
+				allocated += bytes;
+				quietest = Math.min(quietest, bytes);
+			}
+			double perTick = quietest / (double) windowTicks;
+			System.out.printf("%d windows of %d ticks, %d bytes allocated in all, %s bytes per window%n", WINDOWS, windowTicks, allocated, Arrays.toString(windows));
+			System.out.printf("quietest window %.3f bytes/tick (budget %d)%n", perTick, BUDGET_BYTES_PER_TICK);
+			System.out.printf("%d combat events, %d hits, %d jumps%n", stats.getEvents(), stats.getHits(1) + stats.getHits(2), stats.getJumps(1) + stats.getJumps(2));
+			if (perTick > BUDGET_BYTES_PER_TICK) {
+				System.err.println("Allocation budget exceeded");
+				System.exit(1);
+			}
+		} finally {
+			headlessMatch.dispose();
+		}
+	}
+}
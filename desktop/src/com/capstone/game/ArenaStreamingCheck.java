@@ -0,0 +1,106 @@
+package com.capstone.game;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Tools.ArenaLayout;
+import com.capstone.game.Tools.ChunkedColliders;
+
+// Slides a box along the floor of a wide open arena streamed in chunks, the way a chicken would run across it.
+// Fails with a non-zero exit code when the box catches on a chunk seam or the arena is never actually streamed.
+public class ArenaStreamingCheck {
+	// five source columns of 1 m: walls in the first and last, floor all the way
+	private static final int SOURCE_COLUMNS = 5;
+	private static final int TILE_PIXELS = 100;
+	private static final float SPEED = 4;
+	private static final float BOX_HALF_SIZE = 0.2f;
+	// a snag shows up as the box being stopped or thrown up where two chunks meet
+	private static final float MIN_SPEED_RATIO = 0.95f;
+	private static final float MAX_VERTICAL_SPEED = 0.05f;
+
+	public static void main (String[] arg) {
+		Box2D.init();
+		int columns = arg.length > 0 ? Integer.parseInt(arg[0]) : 5 * ArenaLayout.CHUNK_COLUMNS;
+
+		Array<Rectangle> source = new Array<>();
+		source.add(new Rectangle(0, 0, SOURCE_COLUMNS * TILE_PIXELS, 10));
+		source.add(new Rectangle(0, 0, 5, 300));
+		source.add(new Rectangle(SOURCE_COLUMNS * TILE_PIXELS - 5, 0, 5, 300));
+		ArenaLayout layout = new ArenaLayout(SOURCE_COLUMNS, 3, TILE_PIXELS, TILE_PIXELS, columns);
+
+		World world = new World(new Vector2(0, CockfightGame.WORLD_GRAVITY), true);
+		try {
+			ChunkedColliders colliders = new ChunkedColliders(world, layout, source);
+			Body box = createBox(world, 1, 10 / CockfightGame.PPM + BOX_HALF_SIZE + 0.01f);
+			colliders.update(box.getPosition().x, box.getPosition().x);
+
+			float end = layout.getWidth() - 1;
+			float minSpeed = Float.MAX_VALUE;
+			float maxVerticalSpeed = 0;
+			int maxLoaded = 0;
+			int lastChunk = 0;
+			int seamsCrossed = 0;
+			int ticks = 0;
+			int maxTicks = (int) (layout.getWidth() / SPEED / Match.TIME_STEP) * 2;
+			while (box.getPosition().x < end && ticks < maxTicks) {
+				box.setLinearVelocity(SPEED, box.getLinearVelocity().y);
+				world.step(Match.TIME_STEP, 6, 2);
+				colliders.update(box.getPosition().x, box.getPosition().x);
+				ticks++;
+
+				int chunk = layout.getChunkAt(box.getPosition().x);
+				if (chunk != lastChunk) {
+					seamsCrossed++;
+					lastChunk = chunk;
+				}
+				maxLoaded = Math.max(maxLoaded, colliders.getLoadedChunkCount());
+
+				// once the box has settled on the floor
+				if (ticks > 30) {
+					minSpeed = Math.min(minSpeed, box.getLinearVelocity().x);
+					maxVerticalSpeed = Math.max(maxVerticalSpeed, Math.abs(box.getLinearVelocity().y));
+				}
+			}
+
+			boolean isAcross = box.getPosition().x >= end;
+			boolean isSmooth = minSpeed >= SPEED * MIN_SPEED_RATIO && maxVerticalSpeed <= MAX_VERTICAL_SPEED;
+			boolean isStreamed = layout.getChunkCount() > 1 && maxLoaded < layout.getChunkCount();
+			System.out.printf("%d columns in %d chunks: crossed %d seams in %d ticks, at most %d chunks loaded%n",
+					layout.getColumns(), layout.getChunkCount(), seamsCrossed, ticks, maxLoaded);
+			System.out.printf("  slowest %.3f m/s of %.1f, fastest vertical %.4f m/s%n", minSpeed, SPEED, maxVerticalSpeed);
+
+			if (!isAcross || !isSmooth || !isStreamed) {
+				System.err.println(!isAcross ? "The box never got across the arena"
+						: !isSmooth ? "The box caught on a chunk seam" : "The arena was never streamed");
+				System.exit(1);
+			}
+		} finally {
+			world.dispose();
+		}
+	}
+
+	private static Body createBox (World world, float x, float y) {
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyDef.BodyType.DynamicBody;
+		bodyDef.position.set(x, y);
+		bodyDef.fixedRotation = true;
+		Body body = world.createBody(bodyDef);
+
+		PolygonShape shape = new PolygonShape();
+		shape.setAsBox(BOX_HALF_SIZE, BOX_HALF_SIZE);
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = shape;
+		fixtureDef.density = 1;
+		fixtureDef.friction = 0;
+		body.createFixture(fixtureDef);
+		shape.dispose();
+		return body;
+	}
+}
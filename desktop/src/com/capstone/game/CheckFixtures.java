@@ -0,0 +1,60 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.ChickenInput;
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchSetup;
+import com.capstone.game.Simulation.WorldSnapshot;
+
+// The fight the desktop checks and benchmarks run, one definition so they all measure the same match. Both chickens
+// are too tough to die within any of the runs, so all of it is spent fighting, and their hp still fits the fixed point
+// range of the world state format.
+public class CheckFixtures {
+	public static final long SEED = 42;
+	// a 30 minute fight costs them a few ten thousand hp
+	public static final float HP = 1e6f;
+
+	public static ChickenSpec chicken1 () {
+		return ChickenSpec.left(HP, 20, 1);
+	}
+
+	public static ChickenSpec chicken2 () {
+		return ChickenSpec.right(HP, 10, 1);
+	}
+
+	public static MatchSetup createSetup (long seed) {
+		return new MatchSetup(seed, chicken1(), null, chicken2(), null, CockfightGame.ARENA_COLUMNS);
+	}
+
+	public static HeadlessMatch createHeadlessMatch () {
+		return new HeadlessMatch(chicken1(), chicken2(), SEED);
+	}
+
+	// a snapshot after every step under scripted input
+	public static WorldSnapshot[] record (int ticks) {
+		HeadlessMatch headlessMatch = createHeadlessMatch();
+		Match match = headlessMatch.getMatch();
+		try {
+			WorldSnapshot[] snapshots = new WorldSnapshot[ticks];
+			for (int i = 0; i < ticks; i++) {
+				match.update(Match.TIME_STEP, inputFor(i), inputFor(i + 7));
+				snapshots[i] = new WorldSnapshot();
+				snapshots[i].set(match, 0);
+			}
+			return snapshots;
+		} finally {
+			headlessMatch.dispose();
+		}
+	}
+
+	// scripted input so the player paths are exercised too, chicken2 plays it 7 ticks ahead
+	public static int inputFor (int tick) {
+		switch ((tick / 30) % 4) {
+			case 0: return ChickenInput.LEFT;
+			case 1: return ChickenInput.RIGHT | (tick % 30 == 0 ? ChickenInput.JUMP : 0);
+			case 2: return ChickenInput.NONE;
+			default: return ChickenInput.RIGHT;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.capstone.game;
+
+import com.capstone.game.Events.CombatEvent;
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Events.CombatLog;
+import com.capstone.game.Events.CombatStats;
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Sprites.Chicken;
+
+import java.io.Writer;
+import java.util.concurrent.locks.LockSupport;
+
+// Measures what publishing combat events costs: the bus alone with a stats, a log and a once-a-frame hud consumer
+// on their own threads, first paced like a match stepped 80 times faster than real time and then flooded as fast
+// as one thread can publish, then headless ticks with and without a bus. Run from the assets directory.
+public class CombatEventBenchmark {
+	private static final int EVENTS = 4000000;
+	private static final int EVENTS_PER_TICK = 16;
+	private static final int PACED_TICKS_PER_SECOND = 80 * 60;
+	private static final int TICKS = 200000;
+	private static final long HUD_FRAME_MILLIS = 16;
+
+	public static void main (String[] arg) throws Exception {
+		int events = arg.length > 0 ? Integer.parseInt(arg[0]) : EVENTS;
+		bus("paced", events, PACED_TICKS_PER_SECOND);
+		bus("flooded", events, 0);
+		ticks();
+	}
+
+	// zero ticks per second publishes without pausing, the consumers can't keep up and the bus drops instead of waiting
+	private static void bus (String label, int events, int ticksPerSecond) throws InterruptedException {
+		final CombatEventBus bus = new CombatEventBus();
+		final CombatStats stats = new CombatStats(bus);
+		final CountingWriter logOutput = new CountingWriter();
+		CombatLog log = new CombatLog(bus, logOutput);
+		final CombatEventBus.Subscriber hud = bus.subscribe();
+		final long[] hudEvents = new long[1];
+		final boolean[] isDone = new boolean[1];
+
+		Thread statsThread = new Thread(new Runnable() {
+			@Override
+			public void run () {
+				while (!isDone()) {
+					if (stats.poll() == 0)
+						Thread.yield();
+				}
+				stats.poll();
+			}
+
+			private boolean isDone () {
+				synchronized (isDone) {
+					return isDone[0];
+				}
+			}
+		}, "stats");
+
+		Thread hudThread = new Thread(new Runnable() {
+			@Override
+			public void run () {
+				CombatEventBus.Handler handler = new CombatEventBus.Handler() {
+					@Override
+					public void onEvent (CombatEvent event) {
+						hudEvents[0]++;
+					}
+				};
+				while (true) {
+					hud.poll(handler);
+					synchronized (isDone) {
+						if (isDone[0])
+							break;
+					}
+					try {
+						Thread.sleep(HUD_FRAME_MILLIS);
+					} catch (InterruptedException e) {
+						break;
+					}
+				}
+				hud.poll(handler);
+				hud.close();
+			}
+		}, "hud");
+
+		statsThread.start();
+		hudThread.start();
+		log.start();
+
+		CombatEvent.Type[] types = CombatEvent.Type.values();
+		long tickNanos = ticksPerSecond > 0 ? 1000000000L / ticksPerSecond : 0;
+		long nextTick = System.nanoTime();
+		long nanos = 0;
+		for (int i = 0; i < events; i += EVENTS_PER_TICK) {
+			long start = System.nanoTime();
+			bus.setTick(i / EVENTS_PER_TICK);
+			for (int e = i; e < i + EVENTS_PER_TICK; e++)
+				bus.publish(types[e % types.length], 1 + (e & 1), 2 - (e & 1), e & 31, 1, 1, Chicken.State.RUNNING, Chicken.State.STANDING);
+			nanos += System.nanoTime() - start;
+
+			nextTick += tickNanos;
+			while (tickNanos > 0 && System.nanoTime() < nextTick)
+				LockSupport.parkNanos(nextTick - System.nanoTime());
+		}
+
+		synchronized (isDone) {
+			isDone[0] = true;
+		}
+		statsThread.join();
+		hudThread.join();
+		log.stop();
+
+		System.out.printf("%s: %d events, %.1f ns per publish%n", label, events, (double) nanos / events);
+		System.out.printf("  dropped %d (%.2f%%), stats saw %d, hud saw %d, log wrote %d KB%n",
+				bus.getDroppedEvents(), 100.0 * bus.getDroppedEvents() / events, stats.getEvents(), hudEvents[0], logOutput.chars >> 10);
+	}
+
+	// the same scripted fight with and without events, immortal chickens so every tick has contacts and attacks
+	private static void ticks () {
+		double withoutBus = ticksPerSecond(false);
+		double withBus = ticksPerSecond(true);
+		System.out.printf("headless: %.0f ticks/s without events, %.0f ticks/s publishing (%+.2f%%)%n",
+				withoutBus, withBus, (withBus / withoutBus - 1) * 100);
+	}
+
+	private static double ticksPerSecond (boolean isPublishing) {
+		HeadlessMatch headlessMatch = new HeadlessMatch(ChickenSpec.left(Float.MAX_VALUE, 10, 1), ChickenSpec.right(Float.MAX_VALUE, 10, 1), 42);
+		Match match = headlessMatch.getMatch();
+		CombatStats stats = null;
+		if (isPublishing) {
+			match.setEventBus(new CombatEventBus());
+			stats = new CombatStats(match.getEventBus());
+		}
+		try {
+			for (int i = 0; i < TICKS / 4; i++)
+				step(match, stats);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < TICKS; i++)
+				step(match, stats);
+			return TICKS / ((System.nanoTime() - start) / 1e9);
+		} finally {
+			headlessMatch.dispose();
+		}
+	}
+
+	// the consumer runs once a frame worth of ticks, like the hud would
+	private static void step (Match match, CombatStats stats) {
+		match.update(Match.TIME_STEP);
+		if (stats != null && match.getTicks() % 4 == 0)
+			stats.poll();
+	}
+
+	private static class CountingWriter extends Writer {
+		long chars;
+
+		@Override
+		public void write (char[] buffer, int offset, int length) {
+			chars += length;
+		}
+
+		@Override
+		public void write (String text) {
+			chars += text.length();
+		}
+
+		@Override
+		public void flush () {
+		}
+
+		@Override
+		public void close () {
+		}
+	}
+}
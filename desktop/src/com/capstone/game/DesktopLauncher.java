@@ -2,14 +2,89 @@ package com.capstone.game;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.capstone.game.Network.NetworkConditions;
+import com.capstone.game.Network.RollbackSession;
+import com.capstone.game.Persistence.ResultWriter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Random;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
 public class DesktopLauncher {
-	public static void main (String[] arg) {
+	private static final long CONNECT_TIMEOUT_MILLIS = 60000;
+
+	public static void main (String[] arg) throws IOException, InterruptedException {
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setForegroundFPS(60);
 		config.setWindowedMode(1080, 540);
 		config.setTitle("CockfightGame");
-		new Lwjgl3Application(new CockfightGame(), config);
+
+		// "--arena-columns n" anywhere plays the one on one match in an arena n columns wide, streamed in chunks
+		int arenaColumns = CockfightGame.ARENA_COLUMNS;
+		for (int i = 0; i + 1 < arg.length; i++) {
+			if (arg[i].equals("--arena-columns"))
+				arenaColumns = Integer.parseInt(arg[i + 1]);
+		}
+
+		// "--replay file" plays back a recorded match, a chicken count starts a free-for-all
+		CockfightGame game;
+		if (arg.length > 1 && arg[0].equals("--replay")) {
+			game = new CockfightGame(arg[1]);
+		} else if (arg.length > 1 && (arg[0].equals("--host") || arg[0].equals("--join"))) {
+			// "--host port" waits for one player, "--join host:port" joins one, "--rtt ms" and "--loss percent" fake a bad line
+			game = new CockfightGame(connect(arg, arenaColumns));
+		} else if (arg.length > 0 && !arg[0].startsWith("--")) {
+			game = new CockfightGame(Integer.parseInt(arg[0]));
+		} else {
+			game = new CockfightGame();
+		}
+
+		// "--spectators port" anywhere streams the match to venue screens and remote viewers,
+		// "--results target" stores finished matches in a CSV file or a jdbc:mysql:// database,
+		// "--combat-log file" writes every hit, jump and death of the match as text
+		for (int i = 0; i + 1 < arg.length; i++) {
+			if (arg[i].equals("--spectators"))
+				game.setSpectatorPort(Integer.parseInt(arg[i + 1]));
+			else if (arg[i].equals("--results"))
+				game.setResultWriter(ResultWriter.open(arg[i + 1]));
+			else if (arg[i].equals("--combat-log"))
+				game.setCombatLogPath(arg[i + 1]);
+		}
+		game.setArenaColumns(arenaColumns);
+		new Lwjgl3Application(game, config);
+	}
+
+	private static RollbackSession connect (String[] arg, int arenaColumns) throws IOException, InterruptedException {
+		int roundTripMillis = 0;
+		float lossRate = 0;
+		for (int i = 2; i + 1 < arg.length; i += 2) {
+			if (arg[i].equals("--rtt"))
+				roundTripMillis = Integer.parseInt(arg[i + 1]);
+			else if (arg[i].equals("--loss"))
+				lossRate = Integer.parseInt(arg[i + 1]) / 100f;
+		}
+		NetworkConditions conditions = new NetworkConditions(roundTripMillis, roundTripMillis / 10, lossRate, System.nanoTime());
+
+		RollbackSession session;
+		if (arg[0].equals("--host")) {
+			session = RollbackSession.host(Integer.parseInt(arg[1]), CockfightGame.createMatchSetup(new Random().nextLong(), arenaColumns), conditions);
+			System.out.println("Waiting for a player on port " + arg[1]);
+		} else {
+			int colon = arg[1].lastIndexOf(':');
+			session = RollbackSession.join(new InetSocketAddress(arg[1].substring(0, colon), Integer.parseInt(arg[1].substring(colon + 1))), conditions);
+			System.out.println("Joining " + arg[1]);
+		}
+
+		// the window only opens once both sides know each other and the setup
+		long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+		while (!session.poll(System.nanoTime())) {
+			if (System.currentTimeMillis() > deadline) {
+				session.close();
+				throw new IOException("No other player after " + CONNECT_TIMEOUT_MILLIS / 1000 + " s");
+			}
+			Thread.sleep(10);
+		}
+		return session;
 	}
 }
@@ -0,0 +1,37 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.FreeForAll;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Systems.AiSystem;
+
+// Measures the cost of one free-for-all tick at growing chicken counts, run from the assets directory
+public class FreeForAllBenchmark {
+	private static final int[] CHICKEN_COUNTS = {16, 64, 128, 256, 512, 1024};
+
+	public static void main (String[] arg) {
+		int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : 600;
+
+		// warm up the JIT before measuring, its line is printed too
+		run(128, ticks);
+
+		System.out.println();
+		System.out.printf("%d ticks per run, budget %.2f ms per tick%n", ticks, Match.TIME_STEP * 1000);
+		for (int chickens : CHICKEN_COUNTS)
+			run(chickens, ticks);
+	}
+
+	private static void run(int chickens, int ticks) {
+		FreeForAll freeForAll = FreeForAll.headless(chickens, 42);
+		try {
+			long start = System.nanoTime();
+			for (int i = 0; i < ticks && !freeForAll.isOver(); i++)
+				freeForAll.update();
+			double millisPerTick = (System.nanoTime() - start) / 1e6 / Math.max(1, freeForAll.getTicks());
+
+			System.out.printf("%5d chickens: %8.3f ms/tick  %8.2f us/chicken  %s%n", chickens, millisPerTick, millisPerTick * 1000 / chickens,
+					freeForAll.getEngine().getSystem(AiSystem.class).getScheduler());
+		} finally {
+			freeForAll.dispose();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.capstone.game;
+
+import com.capstone.game.Persistence.ChickenStats;
+import com.capstone.game.Persistence.Leaderboard;
+import com.capstone.game.Persistence.MatchRecord;
+import com.capstone.game.Persistence.ResultWriter;
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.MatchResult;
+import com.capstone.game.Telemetry.TelemetryRecorder;
+
+import java.io.File;
+import java.io.IOException;
+
+// Runs matches without a window, must be started from the assets directory. A second argument,
+// a CSV file or a jdbc:mysql:// url, stores every result and prints the leaderboard over everything
+// stored there, an empty one stores nothing. A third one, a directory, records every tick as telemetry.
+public class HeadlessLauncher {
+	public static void main (String[] arg) throws Exception {
+		int matches = arg.length > 0 ? Integer.parseInt(arg[0]) : 1000;
+		ChickenSpec chicken1 = ChickenSpec.left(100, 20, 1);
+		ChickenSpec chicken2 = ChickenSpec.right(100, 10, 1);
+		Leaderboard leaderboard = new Leaderboard();
+		ResultWriter writer = arg.length > 1 && !arg[1].isEmpty() ? ResultWriter.open(arg[1], leaderboard) : null;
+		TelemetryRecorder telemetry = arg.length > 2 ? new TelemetryRecorder(new File(arg[2])) : null;
+
+		int[] wins = new int[3];
+		long ticks = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < matches; i++) {
+			MatchResult result = telemetry != null ? playRecorded(chicken1, chicken2, telemetry, i) : HeadlessMatch.play(chicken1, chicken2);
+			wins[result.getWinner()]++;
+			ticks += result.getTicks();
+			if (writer != null)
+				writer.submit(new MatchRecord(chicken1, chicken2, result));
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%d matches in %.2fs (%.0f matches/min, %.0f ticks/s)%n",
+				matches, seconds, matches / seconds * 60, ticks / seconds);
+		System.out.printf("chicken1 %d, chicken2 %d, draws %d%n", wins[MatchResult.CHICKEN_1], wins[MatchResult.CHICKEN_2], wins[MatchResult.DRAW]);
+
+		if (telemetry != null) {
+			telemetry.close();
+			System.out.printf("telemetry: %d ticks of %d matches in %s%n", telemetry.getCommittedRows(), telemetry.getMatches(), telemetry.getDirectory());
+		}
+		if (writer != null) {
+			writer.close();
+			System.out.printf("results: %d stored in %d batches, %d dropped, %d lost, %d failed writes%n",
+					writer.getWrittenRecords(), writer.getWrittenBatches(), writer.getDroppedRecords(), writer.getLostRecords(), writer.getFailedWrites());
+			for (ChickenStats stats : leaderboard.getTop(5))
+				System.out.printf("hp %.0f damage %.0f speed %.1f: %d-%d-%d, %.1f damage per match%n", stats.chicken.hp, stats.chicken.damage,
+						stats.chicken.speed, stats.wins, stats.losses, stats.draws, stats.getAverageDamage());
+		}
+	}
+
+	private static MatchResult playRecorded (ChickenSpec chicken1, ChickenSpec chicken2, TelemetryRecorder telemetry, int match) throws IOException {
+		HeadlessMatch headlessMatch = new HeadlessMatch(chicken1, chicken2);
+		try {
+			headlessMatch.getMatch().setTelemetry(telemetry);
+			telemetry.beginMatch(match);
+			MatchResult result = headlessMatch.run(HeadlessMatch.DEFAULT_MAX_TICKS);
+			telemetry.endMatch();
+			return result;
+		} finally {
+			headlessMatch.dispose();
+		}
+	}
+}
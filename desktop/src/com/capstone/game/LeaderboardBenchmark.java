@@ -0,0 +1,205 @@
+package com.capstone.game;
+
+import com.capstone.game.Persistence.ChickenStats;
+import com.capstone.game.Persistence.FileResultSink;
+import com.capstone.game.Persistence.Leaderboard;
+import com.capstone.game.Persistence.MatchRecord;
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.MatchResult;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Fills a result file with a million matches, loads it into a Leaderboard and measures the lobby queries against it,
+// alone and while results keep coming in
+public class LeaderboardBenchmark {
+	private static final int BATCH_SIZE = 10000;
+	private static final int QUERIES = 200000;
+	private static final int TOP = 10;
+	// most lookups are for the few chickens people are betting on
+	private static final int POPULAR_CHICKENS = 500;
+	private static final int READERS = 4;
+
+	public static void main (String[] arg) throws Exception {
+		int matches = arg.length > 0 ? Integer.parseInt(arg[0]) : 1000000;
+
+		// 80 hp values, 20 damage values, 5 speeds
+		List<ChickenSpec> chickens = new ArrayList<>();
+		for (int hp = 60; hp < 140; hp++)
+			for (int damage = 5; damage < 25; damage++)
+				for (int speed = 1; speed <= 5; speed++)
+					chickens.add(ChickenSpec.left(hp, damage, speed));
+
+		Random random = new Random(42);
+		File file = File.createTempFile("match-results", ".csv");
+		file.deleteOnExit();
+		FileResultSink sink = new FileResultSink(file);
+		long start = System.nanoTime();
+		List<MatchRecord> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < matches; i++) {
+			batch.add(randomRecord(random, chickens));
+			if (batch.size() == BATCH_SIZE || i == matches - 1) {
+				sink.write(batch);
+				batch.clear();
+			}
+		}
+		sink.close();
+		System.out.printf("%d matches between %d chickens stored in %.2fs, %d MB%n",
+				matches, chickens.size(), (System.nanoTime() - start) / 1e9, file.length() >> 20);
+
+		Leaderboard leaderboard = new Leaderboard();
+		start = System.nanoTime();
+		new FileResultSink(file).loadInto(leaderboard);
+		System.out.printf("loaded in %.2fs, %d records%n", (System.nanoTime() - start) / 1e9, leaderboard.getRecordCount());
+
+		// warm up the JIT on every path before measuring
+		for (int i = 0; i < QUERIES; i++) {
+			leaderboard.getTop(TOP);
+			leaderboard.getStats(pickChicken(random, chickens));
+		}
+
+		long[] latencies = new long[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			long queryStart = System.nanoTime();
+			leaderboard.getTop(TOP);
+			latencies[i] = System.nanoTime() - queryStart;
+		}
+		print("top " + TOP + ", unchanged", latencies);
+
+		long[] addLatencies = new long[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			MatchRecord record = randomRecord(random, chickens);
+			long addStart = System.nanoTime();
+			leaderboard.add(record);
+			addLatencies[i] = System.nanoTime() - addStart;
+
+			long queryStart = System.nanoTime();
+			leaderboard.getTop(TOP);
+			latencies[i] = System.nanoTime() - queryStart;
+		}
+		print("add", addLatencies);
+		print("top " + TOP + " after every add", latencies);
+
+		leaderboard.getCache().clear();
+		int hits = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			ChickenSpec chicken = pickChicken(random, chickens);
+			boolean isCached = leaderboard.getCache().get(chicken) != null;
+			long queryStart = System.nanoTime();
+			leaderboard.getStats(chicken);
+			latencies[i] = System.nanoTime() - queryStart;
+			if (isCached)
+				hits++;
+		}
+		print("chicken stats", latencies);
+		System.out.printf("  cache hit rate %.1f%%, %d cached%n", 100.0 * hits / QUERIES, leaderboard.getCache().size());
+
+		print(READERS + " lobby threads, writer adding 50k/s", concurrent(leaderboard, chickens, true));
+
+		// stats lookups alone, through the cache and built from the entry every time by a board that caches nothing
+		Leaderboard uncached = new Leaderboard(0);
+		new FileResultSink(file).loadInto(uncached);
+		concurrent(uncached, chickens, false);
+		print(READERS + " lobby threads, chicken stats", concurrent(leaderboard, chickens, false));
+		print(READERS + " lobby threads, chicken stats uncached", concurrent(uncached, chickens, false));
+
+		List<ChickenStats> top = leaderboard.getTop(3);
+		for (int i = 0; i < top.size(); i++) {
+			ChickenStats stats = top.get(i);
+			System.out.printf("#%d hp %.0f damage %.0f speed %.0f: %d-%d-%d, %.1f damage per match%n", i + 1,
+					stats.chicken.hp, stats.chicken.damage, stats.chicken.speed, stats.wins, stats.losses, stats.draws, stats.getAverageDamage());
+		}
+	}
+
+	// lobby threads query while a writer adds a stored batch every 10 ms, half of the queries are top lists unless only stats are
+	private static long[] concurrent (final Leaderboard leaderboard, final List<ChickenSpec> chickens, final boolean isTopQueried) throws InterruptedException {
+		final long[][] latencies = new long[READERS][QUERIES / READERS];
+		final boolean[] isDone = new boolean[1];
+
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run () {
+				Random random = new Random(7);
+				List<MatchRecord> batch = new ArrayList<>();
+				while (true) {
+					synchronized (isDone) {
+						if (isDone[0])
+							return;
+					}
+					batch.clear();
+					for (int i = 0; i < 500; i++)
+						batch.add(randomRecord(random, chickens));
+					leaderboard.addAll(batch);
+					try {
+						Thread.sleep(10);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}, "leaderboard-writer");
+		writer.start();
+
+		Thread[] threads = new Thread[READERS];
+		for (int r = 0; r < READERS; r++) {
+			final int reader = r;
+			threads[r] = new Thread(new Runnable() {
+				@Override
+				public void run () {
+					Random random = new Random(reader);
+					long[] own = latencies[reader];
+					for (int i = 0; i < own.length; i++) {
+						long queryStart = System.nanoTime();
+						if (isTopQueried && (i & 1) == 0)
+							leaderboard.getTop(TOP);
+						else
+							leaderboard.getStats(pickChicken(random, chickens));
+						own[i] = System.nanoTime() - queryStart;
+					}
+				}
+			}, "lobby-" + r);
+			threads[r].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		synchronized (isDone) {
+			isDone[0] = true;
+		}
+		writer.join();
+
+		long[] all = new long[QUERIES / READERS * READERS];
+		for (int r = 0; r < READERS; r++)
+			System.arraycopy(latencies[r], 0, all, r * latencies[r].length, latencies[r].length);
+		return all;
+	}
+
+	private static MatchRecord randomRecord (Random random, List<ChickenSpec> chickens) {
+		ChickenSpec chicken1 = chickens.get(random.nextInt(chickens.size()));
+		ChickenSpec chicken2 = chickens.get(random.nextInt(chickens.size())).atRight();
+
+		// the stronger chicken wins more often
+		float strength1 = chicken1.hp * chicken1.damage * chicken1.speed;
+		float strength2 = chicken2.hp * chicken2.damage * chicken2.speed;
+		float roll = random.nextFloat() * (strength1 + strength2);
+		int winner = random.nextInt(20) == 0 ? MatchResult.DRAW : roll < strength1 ? MatchResult.CHICKEN_1 : MatchResult.CHICKEN_2;
+
+		float chicken1Hp = winner == MatchResult.CHICKEN_1 ? random.nextInt((int) chicken1.hp) + 1 : winner == MatchResult.DRAW ? random.nextInt((int) chicken1.hp) : 0;
+		float chicken2Hp = winner == MatchResult.CHICKEN_2 ? random.nextInt((int) chicken2.hp) + 1 : winner == MatchResult.DRAW ? random.nextInt((int) chicken2.hp) : 0;
+		return new MatchRecord(chicken1, chicken2, new MatchResult(winner, chicken1Hp, chicken2Hp,
+				600 + random.nextInt(3000), random.nextInt(20), random.nextInt(20)));
+	}
+
+	private static ChickenSpec pickChicken (Random random, List<ChickenSpec> chickens) {
+		return random.nextInt(10) < 8 ? chickens.get(random.nextInt(POPULAR_CHICKENS)) : chickens.get(random.nextInt(chickens.size()));
+	}
+
+	private static void print (String label, long[] latencies) {
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-40s p50 %6.2f us, p99 %6.2f us, max %8.1f us%n", label,
+				sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99)] / 1e3, sorted[sorted.length - 1] / 1e3);
+	}
+}
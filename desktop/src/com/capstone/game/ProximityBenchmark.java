@@ -0,0 +1,93 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.ProximityGrid;
+
+import java.util.Random;
+
+// Compares the proximity grid against brute force at 10, 1,000 and 100,000 entities
+public class ProximityBenchmark {
+	private static final int[] ENTITY_COUNTS = {10, 1000, 100000};
+	private static final int BRUTE_FORCE_LIMIT = 10000;
+	private static final int REPEATS = 20;
+
+	// roughly one chicken per square meter, about the density of a crowded arena
+	private static final float AREA_PER_ENTITY = 1f;
+
+	public static void main (String[] arg) {
+		// warm up the JIT before measuring
+		for (int i = 0; i < 5; i++)
+			measure(1000, false);
+
+		for (int entities : ENTITY_COUNTS)
+			measure(entities, true);
+	}
+
+	private static void measure(int entities, boolean isPrinted) {
+		Random random = new Random(42);
+		float side = (float) Math.sqrt(entities * AREA_PER_ENTITY);
+		float[] xs = new float[entities];
+		float[] ys = new float[entities];
+		for (int i = 0; i < entities; i++) {
+			xs[i] = random.nextFloat() * side;
+			ys[i] = random.nextFloat() * side;
+		}
+
+		ProximityGrid grid = new ProximityGrid(Match.JUMP_DISTANCE, entities);
+		int[] nearest = new int[entities];
+		int pairs = 0;
+		long start = System.nanoTime();
+		for (int r = 0; r < REPEATS; r++) {
+			grid.clear();
+			for (int i = 0; i < entities; i++)
+				grid.add(i, xs[i], ys[i]);
+			grid.build();
+
+			for (int i = 0; i < entities; i++)
+				nearest[i] = grid.findNearest(xs[i], ys[i], Match.JUMP_DISTANCE, i);
+			pairs = grid.forEachPairWithin(Match.ATTACK_DISTANCE, (a, b, distance2) -> {});
+		}
+		double gridMillis = (System.nanoTime() - start) / 1e6 / REPEATS;
+
+		if (!isPrinted)
+			return;
+
+		String bruteForce = "skipped";
+		if (entities <= BRUTE_FORCE_LIMIT) {
+			start = System.nanoTime();
+			int bruteForcePairs = 0;
+			int mismatches = 0;
+			for (int r = 0; r < REPEATS; r++) {
+				bruteForcePairs = 0;
+				mismatches = 0;
+				for (int i = 0; i < entities; i++) {
+					int closest = -1;
+					float closestDistance2 = Match.JUMP_DISTANCE * Match.JUMP_DISTANCE;
+					for (int j = 0; j < entities; j++) {
+						if (j == i)
+							continue;
+						float distance2 = distance2(xs, ys, i, j);
+						if (distance2 <= closestDistance2) {
+							closestDistance2 = distance2;
+							closest = j;
+						}
+						if (j > i && distance2 < Match.ATTACK_DISTANCE * Match.ATTACK_DISTANCE)
+							bruteForcePairs++;
+					}
+					if (closest != nearest[i] && (closest < 0 || nearest[i] < 0 || distance2(xs, ys, i, closest) != distance2(xs, ys, i, nearest[i])))
+						mismatches++;
+				}
+			}
+			double bruteForceMillis = (System.nanoTime() - start) / 1e6 / REPEATS;
+			bruteForce = String.format("%10.3f ms  (%d pairs, %d mismatches)", bruteForceMillis, bruteForcePairs, mismatches);
+		}
+
+		System.out.printf("%6d entities: grid %10.3f ms  (%d pairs)   brute force %s%n", entities, gridMillis, pairs, bruteForce);
+	}
+
+	private static float distance2(float[] xs, float[] ys, int i, int j) {
+		float distanceX = xs[j] - xs[i];
+		float distanceY = ys[j] - ys[i];
+		return distanceX * distanceX + distanceY * distanceY;
+	}
+}
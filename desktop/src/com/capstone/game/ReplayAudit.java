@@ -0,0 +1,45 @@
+package com.capstone.game;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.capstone.game.Simulation.MatchResult;
+import com.capstone.game.Simulation.Replay;
+
+import java.io.IOException;
+
+// Re-simulates recorded matches at full speed and checks they end as recorded, must be started from the assets directory
+public class ReplayAudit {
+	public static void main (String[] arg) throws IOException {
+		if (arg.length == 0) {
+			System.out.println("usage: ReplayAudit <file.replay | directory> ...");
+			return;
+		}
+
+		int mismatches = 0;
+		for (String path : arg) {
+			FileHandle file = new FileHandle(path);
+			FileHandle[] replays = file.isDirectory() ? file.list(".replay") : new FileHandle[] {file};
+			for (FileHandle replayFile : replays) {
+				if (!audit(replayFile))
+					mismatches++;
+			}
+		}
+		System.exit(mismatches == 0 ? 0 : 1);
+	}
+
+	private static boolean audit (FileHandle file) throws IOException {
+		Replay replay = Replay.read(file);
+
+		long start = System.nanoTime();
+		MatchResult result = replay.simulate();
+		double millis = (System.nanoTime() - start) / 1e6;
+
+		boolean isReproduced = replay.isReproducedBy(result);
+		System.out.printf("%s: %d ticks (%d bytes) in %.1fms, %s%n",
+				file.name(), replay.getTicks(), file.length(), millis, isReproduced ? "reproduced" : "MISMATCH");
+		System.out.println("  " + replay.getSetup());
+		System.out.println("  recorded  " + replay.getResult());
+		if (!isReproduced)
+			System.out.println("  simulated " + result);
+		return isReproduced;
+	}
+}
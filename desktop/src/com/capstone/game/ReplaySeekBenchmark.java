@@ -0,0 +1,105 @@
+package com.capstone.game;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.Simulation.ChickenInput;
+import com.capstone.game.Simulation.KeyframeStore;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchResult;
+import com.capstone.game.Simulation.MatchSetup;
+import com.capstone.game.Simulation.Replay;
+import com.capstone.game.Simulation.ReplayRecorder;
+import com.capstone.game.Simulation.ReplayTimeline;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Seeks around a 30 minute replay and reports seek times and drift, must be started from the assets directory.
+// A seek has to land exactly on the straight run, any drift fails with a non-zero exit code.
+public class ReplaySeekBenchmark {
+	private static final int MINUTES = 30;
+	private static final int SEEKS = 1000;
+	// a held input lasts about half a second, like a player tapping the keys
+	private static final int INPUT_RUN_TICKS = 30;
+	private static final int POSITION_FLOATS = 4;
+
+	public static void main (String[] arg) {
+		int ticks = (arg.length > 0 ? Integer.parseInt(arg[0]) : MINUTES) * 60 * 60;
+		Replay replay = createReplay(ticks, CheckFixtures.SEED);
+
+		// the reference run, every tick straight from tick 0
+		long start = System.nanoTime();
+		float[] reference = new float[(ticks + 1) * POSITION_FLOATS];
+		World world = Match.createWorld();
+		Match match = replay.createMatch(world);
+		savePositions(match, reference, 0);
+		for (int tick = 0; tick < ticks; tick++) {
+			match.update(Match.TIME_STEP, replay.getChicken1Input(tick), replay.getChicken2Input(tick));
+			savePositions(match, reference, tick + 1);
+		}
+		world.dispose();
+		System.out.printf("straight run: %d ticks in %.0f ms%n", ticks, (System.nanoTime() - start) / 1e6);
+
+		start = System.nanoTime();
+		KeyframeStore keyframes = new KeyframeStore();
+		replay.simulate(keyframes);
+		System.out.printf("keyframe pass: %.0f ms, %d keyframes every %d ticks%n",
+				(System.nanoTime() - start) / 1e6, keyframes.getSize(), keyframes.getInterval());
+
+		world = Match.createWorld();
+		match = replay.createMatch(world);
+		ReplayTimeline timeline = new ReplayTimeline(match, replay, keyframes);
+
+		Random random = new Random(7);
+		double[] seekMillis = new double[SEEKS];
+		float[] positions = new float[POSITION_FLOATS];
+		float maxDrift = 0;
+		for (int i = 0; i < SEEKS; i++) {
+			int target = random.nextInt(ticks + 1);
+			start = System.nanoTime();
+			timeline.seek(target);
+			seekMillis[i] = (System.nanoTime() - start) / 1e6;
+			savePositions(match, positions, 0);
+			for (int j = 0; j < POSITION_FLOATS; j++)
+				maxDrift = Math.max(maxDrift, Math.abs(positions[j] - reference[target * POSITION_FLOATS + j]));
+		}
+		world.dispose();
+
+		Arrays.sort(seekMillis);
+		double total = 0;
+		for (double millis : seekMillis)
+			total += millis;
+		System.out.printf("%d seeks: avg %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+				SEEKS, total / SEEKS, seekMillis[SEEKS / 2], seekMillis[SEEKS * 99 / 100], seekMillis[SEEKS - 1]);
+		System.out.printf("max drift from the straight run: %.5f m%n", maxDrift);
+		if (maxDrift != 0) {
+			System.err.println("A seek left the recorded fight");
+			System.exit(1);
+		}
+	}
+
+	// both chickens' x and y
+	private static void savePositions (Match match, float[] positions, int tick) {
+		int offset = tick * POSITION_FLOATS;
+		positions[offset] = match.getChicken1().body.getPosition().x;
+		positions[offset + 1] = match.getChicken1().body.getPosition().y;
+		positions[offset + 2] = match.getChicken2().body.getPosition().x;
+		positions[offset + 3] = match.getChicken2().body.getPosition().y;
+	}
+
+	private static Replay createReplay(int ticks, long seed) {
+		MatchSetup setup = CheckFixtures.createSetup(seed);
+
+		Random random = new Random(seed);
+		ReplayRecorder recorder = new ReplayRecorder(setup);
+		int chicken1Input = ChickenInput.NONE;
+		int chicken2Input = ChickenInput.NONE;
+		for (int tick = 0; tick < ticks; tick++) {
+			if (tick % INPUT_RUN_TICKS == 0) {
+				chicken1Input = random.nextInt(ChickenInput.RIGHT << 1);
+				chicken2Input = random.nextInt(ChickenInput.RIGHT << 1);
+			}
+			recorder.record(chicken1Input, chicken2Input);
+		}
+		return recorder.finish(new MatchResult(MatchResult.DRAW, 0, 0, ticks));
+	}
+}
@@ -0,0 +1,117 @@
+package com.capstone.game;
+
+import com.capstone.game.Persistence.FileResultSink;
+import com.capstone.game.Persistence.JdbcResultSink;
+import com.capstone.game.Persistence.MatchRecord;
+import com.capstone.game.Persistence.ResultSink;
+import com.capstone.game.Persistence.ResultWriter;
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.MatchResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+// Submits synthetic results from several threads into a sink that is slow and fails every few writes,
+// showing that submitting stays cheap whatever the storage does. A jdbc url argument uses that database.
+public class ResultWriterBenchmark {
+	private static final int PRODUCERS = 4;
+	private static final int RECORDS_PER_PRODUCER = 50000;
+	private static final long SINK_DELAY_MILLIS = 20;
+	private static final int SINK_FAILURE_EVERY = 5;
+
+	public static void main (String[] arg) throws Exception {
+		File file = null;
+		ResultSink target;
+		if (arg.length > 0) {
+			target = new JdbcResultSink(arg[0], System.getenv("MYSQL_USER"), System.getenv("MYSQL_PASSWORD"));
+		} else {
+			file = File.createTempFile("match-results", ".csv");
+			file.deleteOnExit();
+			target = new FileResultSink(file);
+		}
+
+		final ResultWriter writer = new ResultWriter(new FlakySink(target));
+		writer.start();
+
+		final long[][] latencies = new long[PRODUCERS][RECORDS_PER_PRODUCER];
+		final CountDownLatch done = new CountDownLatch(PRODUCERS);
+		long start = System.nanoTime();
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			new Thread(new Runnable() {
+				@Override
+				public void run () {
+					Random random = new Random(producer);
+					for (int i = 0; i < RECORDS_PER_PRODUCER; i++) {
+						ChickenSpec chicken1 = ChickenSpec.left(80 + random.nextInt(41), 10 + random.nextInt(11), 1);
+						ChickenSpec chicken2 = ChickenSpec.right(80 + random.nextInt(41), 10 + random.nextInt(11), 1);
+						MatchResult result = new MatchResult(random.nextInt(3), random.nextInt(100), random.nextInt(100),
+								600 + random.nextInt(3000), random.nextInt(20), random.nextInt(20));
+						MatchRecord record = new MatchRecord(chicken1, chicken2, result);
+
+						long submitStart = System.nanoTime();
+						writer.submit(record);
+						latencies[producer][i] = System.nanoTime() - submitStart;
+
+						// a match finishes every few hundred microseconds on a busy tournament thread
+						if ((i & 63) == 0)
+							Thread.yield();
+					}
+					done.countDown();
+				}
+			}, "producer-" + p).start();
+		}
+		done.await();
+		double submitSeconds = (System.nanoTime() - start) / 1e9;
+
+		writer.close();
+		double totalSeconds = (System.nanoTime() - start) / 1e9;
+
+		long[] all = new long[PRODUCERS * RECORDS_PER_PRODUCER];
+		for (int p = 0; p < PRODUCERS; p++)
+			System.arraycopy(latencies[p], 0, all, p * RECORDS_PER_PRODUCER, RECORDS_PER_PRODUCER);
+		Arrays.sort(all);
+
+		System.out.printf("%d records from %d threads submitted in %.2fs, writer closed after %.2fs%n",
+				all.length, PRODUCERS, submitSeconds, totalSeconds);
+		System.out.printf("submit latency p50 %.1f us, p99 %.1f us, max %.1f us%n",
+				all[all.length / 2] / 1e3, all[(int) (all.length * 0.99)] / 1e3, all[all.length - 1] / 1e3);
+		System.out.printf("%d stored in %d batches, %d failed writes, %d dropped, %d lost%n",
+				writer.getWrittenRecords(), writer.getWrittenBatches(), writer.getFailedWrites(),
+				writer.getDroppedRecords(), writer.getLostRecords());
+		if (file != null)
+			System.out.printf("%s: %d bytes%n", file.getPath(), file.length());
+	}
+
+	// stands in for a remote database: every write takes a while and some of them fail before storing anything
+	private static class FlakySink implements ResultSink {
+		private final ResultSink sink;
+		private int writes;
+
+		FlakySink (ResultSink sink) {
+			this.sink = sink;
+		}
+
+		@Override
+		public void write (List<MatchRecord> batch) throws IOException {
+			try {
+				Thread.sleep(SINK_DELAY_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted");
+			}
+			if (++writes % SINK_FAILURE_EVERY == 0)
+				throw new IOException("Simulated connection failure on write " + writes);
+			sink.write(batch);
+		}
+
+		@Override
+		public void close () throws IOException {
+			sink.close();
+		}
+	}
+}
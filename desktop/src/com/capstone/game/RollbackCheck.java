@@ -0,0 +1,181 @@
+package com.capstone.game;
+
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.capstone.game.Events.CombatEvent;
+import com.capstone.game.Events.CombatEventBus;
+import com.capstone.game.Network.NetworkConditions;
+import com.capstone.game.Network.RollbackSession;
+import com.capstone.game.Simulation.ChickenInput;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.MatchKeyframe;
+import com.capstone.game.Simulation.MatchResult;
+import com.capstone.game.Simulation.MatchSetup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Random;
+
+// Plays two rollback sessions against each other over localhost with simulated latency and loss,
+// must be started from the assets directory. Time is virtual, every loop is one 60 Hz frame on both sides.
+public class RollbackCheck {
+	private static final int SECONDS = 60;
+	private static final long FRAME_NANOS = 1000000000L / 60;
+	private static final int INPUT_RUN_TICKS = 30;
+	// round trip ms, jitter ms, loss percent
+	private static final int[][] CONDITIONS = {{0, 0, 0}, {60, 6, 2}, {150, 15, 5}, {250, 25, 10}};
+	// hp summed up from damage events differs from the chicken's own in the last bits at most
+	private static final float MAX_HP_DRIFT = 0.01f;
+
+	public static void main (String[] arg) throws IOException {
+		Box2D.init();
+		int frames = (arg.length > 0 ? Integer.parseInt(arg[0]) : SECONDS) * 60;
+
+		boolean isInSync = true;
+		for (int[] condition : CONDITIONS)
+			isInSync &= play(frames, condition[0], condition[1], condition[2] / 100f);
+
+		if (!isInSync)
+			System.exit(1);
+	}
+
+	private static boolean play (int frames, int roundTripMillis, int jitterMillis, float lossRate) throws IOException {
+		MatchSetup setup = CheckFixtures.createSetup(CheckFixtures.SEED);
+
+		RollbackSession host = RollbackSession.host(0, setup, new NetworkConditions(roundTripMillis, jitterMillis, lossRate, 1));
+		RollbackSession client = RollbackSession.join(new InetSocketAddress("127.0.0.1", host.getLocalPort()), new NetworkConditions(roundTripMillis, jitterMillis, lossRate, 2));
+		World hostWorld = Match.createWorld();
+		World clientWorld = Match.createWorld();
+		try {
+			long now = 0;
+			while (!host.poll(now) | !client.poll(now))
+				now += FRAME_NANOS;
+			Match hostMatch = setup.createMatch(hostWorld);
+			Match clientMatch = client.getSetup().createMatch(clientWorld);
+			HpTracker hostHp = new HpTracker(hostMatch);
+			HpTracker clientHp = new HpTracker(clientMatch);
+			host.start(hostMatch);
+			client.start(clientMatch);
+
+			// each side plays its own script, indexed by its own steps so a stall doesn't skip input
+			byte[] hostInputs = createInputs(frames, 1);
+			byte[] clientInputs = createInputs(frames, 2);
+			long[] advanceNanos = new long[frames * 2];
+			for (int frame = 0; frame < frames; frame++, now += FRAME_NANOS) {
+				long start = System.nanoTime();
+				host.advance(hostInputs[host.getTick()], now);
+				advanceNanos[frame * 2] = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				client.advance(clientInputs[client.getTick()], now);
+				advanceNanos[frame * 2 + 1] = System.nanoTime() - start;
+
+				hostHp.update(host);
+				clientHp.update(client);
+			}
+
+			int lastTick = Math.min(host.getLastHashedTick(), client.getLastHashedTick());
+			boolean isInSync = lastTick >= 0 && host.getHash(lastTick) == client.getHash(lastTick);
+			boolean isStraight = lastTick >= 0 && host.getHash(lastTick) == simulateStraight(setup, hostInputs, clientInputs, lastTick);
+
+			Arrays.sort(advanceNanos);
+			System.out.printf("%d ms rtt, %d ms jitter, %.0f%% loss: %d ticks, measured rtt %d ms%n",
+					roundTripMillis, jitterMillis, lossRate * 100, lastTick + 1, host.getRoundTripMillis());
+			print("host", host);
+			print("client", client);
+			System.out.printf("  advance: p50 %.1f us, p99 %.1f us, max %.1f us%n",
+					advanceNanos[advanceNanos.length / 2] / 1e3, advanceNanos[advanceNanos.length * 99 / 100] / 1e3, advanceNanos[advanceNanos.length - 1] / 1e3);
+			System.out.printf("  in sync at tick %d: %s, same as a straight run: %s%n", lastTick, isInSync ? "yes" : "NO", isStraight ? "yes" : "no");
+			boolean isHpShown = hostHp.maxDrift <= MAX_HP_DRIFT && clientHp.maxDrift <= MAX_HP_DRIFT;
+			// a resync is only a safety net, rollback alone has to keep both sides on the straight run
+			boolean isExact = isStraight && host.getDesyncedTicks() == 0 && client.getDesyncedTicks() == 0
+					&& host.getResyncs() == 0 && client.getResyncs() == 0;
+			System.out.printf("  hp from events off by at most %.4f on the host, %.4f on the client, %.0f hp lost%n",
+					hostHp.maxDrift, clientHp.maxDrift, 2 * CheckFixtures.HP - hostMatch.getChicken1().getHp() - hostMatch.getChicken2().getHp());
+			return isInSync && isExact && isHpShown;
+		} finally {
+			host.close();
+			client.close();
+			hostWorld.dispose();
+			clientWorld.dispose();
+		}
+	}
+
+	// the hp a consumer of the combat events adds up, started over from the chickens after a rewind
+	private static class HpTracker implements CombatEventBus.Handler {
+		private final Match match;
+		private final CombatEventBus.Subscriber subscriber;
+		private final float[] hp = new float[3];
+		private float maxDrift;
+
+		HpTracker (Match match) {
+			CombatEventBus events = new CombatEventBus();
+			match.setEventBus(events);
+			this.match = match;
+			this.subscriber = events.subscribe();
+			set();
+		}
+
+		void update (RollbackSession session) {
+			if (session.isRewound()) {
+				subscriber.poll(event -> { });
+				set();
+			} else {
+				subscriber.poll(this);
+			}
+			maxDrift = Math.max(maxDrift, Math.abs(hp[MatchResult.CHICKEN_1] - match.getChicken1().getHp()));
+			maxDrift = Math.max(maxDrift, Math.abs(hp[MatchResult.CHICKEN_2] - match.getChicken2().getHp()));
+		}
+
+		private void set () {
+			hp[MatchResult.CHICKEN_1] = match.getChicken1().getHp();
+			hp[MatchResult.CHICKEN_2] = match.getChicken2().getHp();
+		}
+
+		@Override
+		public void onEvent (CombatEvent event) {
+			if (event.type == CombatEvent.Type.DAMAGE && event.other < hp.length)
+				hp[event.other] = Math.max(0, hp[event.other] - event.amount);
+			else if (event.type == CombatEvent.Type.DEATH && event.chicken < hp.length)
+				hp[event.chicken] = 0;
+		}
+	}
+
+	private static void print (String side, RollbackSession session) {
+		System.out.printf("  %-6s rollbacks %d, avg depth %.1f, max depth %d, stalled frames %d, desynced ticks %d, resyncs %d%n",
+				side, session.getRollbacks(), session.getRollbacks() > 0 ? (float) session.getResimulatedTicks() / session.getRollbacks() : 0f,
+				session.getMaxRollbackTicks(), session.getStalledFrames(), session.getDesyncedTicks(), session.getResyncs());
+	}
+
+	// the same inputs stepped once each without any rollback, hashed after the last tick
+	private static long simulateStraight (MatchSetup setup, byte[] hostInputs, byte[] clientInputs, int lastTick) {
+		World world = Match.createWorld();
+		try {
+			Match match = setup.createMatch(world);
+			match.setKeyframeInterval(RollbackSession.KEYFRAME_INTERVAL);
+			for (int tick = 0; tick <= lastTick; tick++)
+				match.update(Match.TIME_STEP, hostInputs[tick], clientInputs[tick]);
+
+			MatchKeyframe keyframe = new MatchKeyframe();
+			match.saveKeyframe(keyframe);
+			return keyframe.hash();
+		} finally {
+			world.dispose();
+		}
+	}
+
+	private static byte[] createInputs (int ticks, long seed) {
+		Random random = new Random(seed);
+		byte[] inputs = new byte[ticks + 1];
+		int[] moves = {ChickenInput.NONE, ChickenInput.LEFT, ChickenInput.RIGHT};
+		for (int tick = 0; tick < inputs.length; tick += INPUT_RUN_TICKS) {
+			int move = moves[random.nextInt(moves.length)];
+			for (int i = tick; i < Math.min(tick + INPUT_RUN_TICKS, inputs.length); i++)
+				inputs[i] = (byte) move;
+			if (random.nextBoolean())
+				inputs[tick] |= ChickenInput.JUMP;
+		}
+		return inputs;
+	}
+}
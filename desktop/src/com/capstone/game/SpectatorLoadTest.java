@@ -0,0 +1,243 @@
+package com.capstone.game;
+
+import com.capstone.game.Network.SpectatorServer;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Simulation.WorldSnapshot;
+import com.capstone.game.Simulation.WorldStateCodec;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Connects thousands of spectators to a SpectatorServer over localhost and reports how long a broadcast
+// takes to reach them, must be started from the assets directory. A few spectators only read a trickle
+// of bytes to show that slow ones skip frames instead of holding up the rest. Needs an open file limit
+// of about twice the spectator count.
+public class SpectatorLoadTest {
+	private static final int SPECTATORS = 5000;
+	private static final int SECONDS = 10;
+	private static final int BROADCAST_RATE = 30;
+	private static final int READER_THREADS = 4;
+	private static final int SLOW_SPECTATORS = 50;
+	// fewer bytes a second than the full stream needs
+	private static final long SLOW_READ_INTERVAL_MILLIS = 100;
+	private static final int SLOW_READ_BYTES = 64;
+	private static final int SLOW_RECEIVE_BUFFER = 1024;
+
+	public static void main (String[] arg) throws Exception {
+		int spectators = arg.length > 0 ? Integer.parseInt(arg[0]) : SPECTATORS;
+		int seconds = arg.length > 1 ? Integer.parseInt(arg[1]) : SECONDS;
+		int broadcastRate = arg.length > 2 ? Integer.parseInt(arg[2]) : BROADCAST_RATE;
+
+		// the server may broadcast twice as often as the match publishes, so every publish goes out at once
+		// and the measured time is the fanout alone, not the wait for the next broadcast slot
+		SpectatorServer server = new SpectatorServer(0, broadcastRate * 2, spectators + SLOW_SPECTATORS);
+		server.start();
+		InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getPort());
+
+		HeadlessMatch headlessMatch = CheckFixtures.createHeadlessMatch();
+		Match match = headlessMatch.getMatch();
+		int stepsPerBroadcast = Math.max(1, Math.round(1 / (Match.TIME_STEP * broadcastRate)));
+		int broadcasts = seconds * broadcastRate;
+		AtomicLongArray publishNanos = new AtomicLongArray(broadcasts * stepsPerBroadcast + 1);
+
+		Reader[] readers = new Reader[READER_THREADS];
+		for (int i = 0; i < READER_THREADS; i++)
+			readers[i] = new Reader(publishNanos, (long) broadcasts * (spectators / READER_THREADS + 1));
+		Reader slowReader = new Reader(publishNanos, (long) broadcasts * SLOW_SPECTATORS);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < spectators; i++)
+			readers[i % READER_THREADS].connect(address, false);
+		for (int i = 0; i < SLOW_SPECTATORS; i++)
+			slowReader.connect(address, true);
+		while (server.getSpectatorCount() < spectators + SLOW_SPECTATORS)
+			Thread.sleep(10);
+		System.out.printf("%d spectators connected in %.0f ms, %d of them slow%n",
+				spectators + SLOW_SPECTATORS, (System.nanoTime() - start) / 1e6, SLOW_SPECTATORS);
+
+		Thread[] threads = new Thread[READER_THREADS + 1];
+		for (int i = 0; i < READER_THREADS; i++)
+			threads[i] = start(readers[i], "spectator-reader-" + i, 0);
+		threads[READER_THREADS] = start(slowReader, "spectator-reader-slow", SLOW_READ_INTERVAL_MILLIS);
+
+		// publish at the broadcast rate from this thread, like a PlayScreen publishing after its steps
+		long broadcastNanos = 1000000000L / broadcastRate;
+		long next = System.nanoTime();
+		for (int i = 0; i < broadcasts; i++) {
+			for (int step = 0; step < stepsPerBroadcast; step++)
+				match.update(Match.TIME_STEP);
+			LockSupport.parkNanos(next - System.nanoTime());
+			publishNanos.set(match.getTicks(), System.nanoTime());
+			server.publish(match);
+			next += broadcastNanos;
+		}
+
+		// give the last frames time to arrive, the stats are taken before the spectators hang up
+		Thread.sleep(500);
+		long broadcastFrames = server.getBroadcastFrames();
+		long skippedFrames = server.getSkippedFrames();
+		long droppedSpectators = server.getDroppedSpectators();
+		for (Reader reader : readers)
+			reader.isRunning = false;
+		slowReader.isRunning = false;
+		for (Thread thread : threads)
+			thread.join();
+		server.stop();
+		headlessMatch.dispose();
+
+		long[] latencies = merge(readers);
+		long received = latencies.length;
+		long expected = broadcastFrames * spectators;
+		System.out.printf("server: %d frames broadcast, %d skipped for slow spectators, %d spectators dropped%n",
+				broadcastFrames, skippedFrames, droppedSpectators);
+		System.out.printf("fast spectators: %d of %d frames received (%.2f%%)%n", received, expected, 100.0 * received / expected);
+		System.out.printf("slow spectators: %d frames received, %.1f per spectator per second%n",
+				slowReader.count, (double) slowReader.count / SLOW_SPECTATORS / seconds);
+		if (received > 0) {
+			System.out.printf("fanout latency: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+					percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+					percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+		}
+	}
+
+	private static Thread start (final Reader reader, String name, final long intervalMillis) {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run () {
+				reader.run(intervalMillis);
+			}
+		}, name);
+		thread.start();
+		return thread;
+	}
+
+	private static long[] merge (Reader[] readers) {
+		int size = 0;
+		for (Reader reader : readers)
+			size += reader.count;
+		long[] latencies = new long[size];
+		int offset = 0;
+		for (Reader reader : readers) {
+			int count = Math.min(reader.count, reader.latencies.length);
+			System.arraycopy(reader.latencies, 0, latencies, offset, count);
+			offset += count;
+		}
+		Arrays.sort(latencies, 0, offset);
+		return Arrays.copyOf(latencies, offset);
+	}
+
+	private static double percentile (long[] sorted, double percentile) {
+		return sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)] / 1e6;
+	}
+
+	// one selector thread reading a share of the spectators, it decodes every frame like a real viewer would
+	private static class Reader {
+		final Selector selector;
+		final AtomicLongArray publishNanos;
+		final long[] latencies;
+		final WorldStateCodec codec = new WorldStateCodec();
+		final WorldSnapshot snapshot = new WorldSnapshot();
+		volatile boolean isRunning = true;
+		int count;
+
+		Reader (AtomicLongArray publishNanos, long capacity) throws IOException {
+			this.selector = Selector.open();
+			this.publishNanos = publishNanos;
+			this.latencies = new long[(int) Math.min(capacity, Integer.MAX_VALUE - 8)];
+		}
+
+		void connect (InetSocketAddress address, boolean isSlow) throws IOException {
+			SocketChannel channel = SocketChannel.open();
+			// a small window fills up after a few frames, so the server sees the slow spectator falling behind
+			if (isSlow)
+				channel.setOption(StandardSocketOptions.SO_RCVBUF, SLOW_RECEIVE_BUFFER);
+			channel.connect(address);
+			channel.configureBlocking(false);
+			channel.register(selector, SelectionKey.OP_READ, new Connection(channel, isSlow));
+		}
+
+		void run (long intervalMillis) {
+			try {
+				while (isRunning) {
+					if (intervalMillis > 0)
+						Thread.sleep(intervalMillis);
+					if (selector.select(100) == 0)
+						continue;
+
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						read((Connection) key.attachment(), System.nanoTime());
+					}
+				}
+				for (SelectionKey key : selector.keys())
+					key.channel().close();
+				selector.close();
+			} catch (IOException | InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		void read (Connection connection, long now) throws IOException {
+			ByteBuffer buffer = connection.buffer;
+			do {
+				// a slow spectator takes only a few bytes per wakeup
+				if (connection.isSlow)
+					buffer.limit(Math.min(buffer.capacity(), buffer.position() + SLOW_READ_BYTES));
+				if (connection.channel.read(buffer) <= 0)
+					return;
+
+				buffer.flip();
+				while (true) {
+					// a varint length, then the WorldState
+					int start = buffer.position();
+					int length = 0;
+					int shift = 0;
+					boolean isComplete = false;
+					while (buffer.hasRemaining()) {
+						byte b = buffer.get();
+						length |= (b & 0x7F) << shift;
+						shift += 7;
+						if (b >= 0) {
+							isComplete = true;
+							break;
+						}
+					}
+					if (!isComplete || buffer.remaining() < length) {
+						buffer.position(start);
+						break;
+					}
+
+					codec.decode(buffer.array(), buffer.position(), length, null, snapshot);
+					buffer.position(buffer.position() + length);
+					if (count < latencies.length)
+						latencies[count] = now - publishNanos.get(snapshot.tick);
+					count++;
+				}
+				buffer.compact();
+			} while (!connection.isSlow);
+		}
+	}
+
+	private static class Connection {
+		final SocketChannel channel;
+		final ByteBuffer buffer = ByteBuffer.allocate(4096);
+		final boolean isSlow;
+
+		Connection (SocketChannel channel, boolean isSlow) {
+			this.channel = channel;
+			this.isSlow = isSlow;
+		}
+	}
+}
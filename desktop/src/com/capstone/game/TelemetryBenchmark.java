@@ -0,0 +1,189 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.Match;
+import com.capstone.game.Sprites.Chicken;
+import com.capstone.game.Telemetry.ColumnReader;
+import com.capstone.game.Telemetry.TelemetryColumn;
+import com.capstone.game.Telemetry.TelemetryReader;
+import com.capstone.game.Telemetry.TelemetryRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+// Measures what recording telemetry adds to a headless tick, then scans single columns of the recording,
+// run from the assets directory. Records under the given directory, the temporary one by default, since the file
+// system decides what new pages cost; the recorder takes them on its own thread, which on a single core still competes
+// with the rows. Fails with a non-zero exit code when recording costs 1% or more.
+public class TelemetryBenchmark {
+	private static final int TICKS_PER_MATCH = HeadlessMatch.DEFAULT_MAX_TICKS;
+	private static final int ROUNDS = 5;
+	private static final double BUDGET_PERCENT = 1;
+	private static final int SCAN_CHUNK = 1 << 16;
+
+	public static void main (String[] arg) throws Exception {
+		int matches = arg.length > 0 ? Integer.parseInt(arg[0]) : 40;
+		File directory = arg.length > 1 ? Files.createTempDirectory(new File(arg[1]).toPath(), "telemetry").toFile()
+				: Files.createTempDirectory("telemetry").toFile();
+
+		// a whole tick with and without recording differs by far more than 1% from one run to the next, so the
+		// recorder is timed on its own against the plain tick. Rounds alternate so JIT and thermal drift hit both
+		// sides alike, all but the first count, so the recorder pays for every new window it maps.
+		TelemetryRecorder recorder = new TelemetryRecorder(directory);
+		double plain = 0;
+		double recording = 0;
+		long matchId = 0;
+		for (int round = 0; round <= ROUNDS; round++) {
+			double tick = nanosPerTick(matches);
+			double row = nanosPerRow(matches, recorder, matchId);
+			matchId += matches;
+			if (round > 0) {
+				plain += tick / ROUNDS;
+				recording += row / ROUNDS;
+			}
+		}
+		recorder.close();
+
+		double overhead = recording / plain * 100;
+		System.out.printf("%.0f ns per tick, %.1f ns per recorded row (%.2f%%, budget %.0f%%)%n", plain, recording, overhead, BUDGET_PERCENT);
+		deleteFiles(directory);
+
+		// real matches to scan, recorded as they are stepped
+		recorder = new TelemetryRecorder(directory);
+		for (int i = 0; i < matches; i++)
+			recordMatch(i, recorder);
+		recorder.close();
+
+		TelemetryReader reader = new TelemetryReader(directory);
+		try {
+			System.out.printf("%d ticks of %d matches, %d MB on disk%n", reader.getRowCount(), reader.getMatchCount(), size(directory) >> 20);
+			scan(reader);
+		} finally {
+			reader.close();
+			deleteFiles(directory);
+			directory.delete();
+		}
+
+		if (overhead >= BUDGET_PERCENT) {
+			System.err.println("Telemetry budget exceeded");
+			System.exit(1);
+		}
+	}
+
+	// immortal chickens so every match runs its full length with contacts and attacks the whole way
+	private static HeadlessMatch createMatch (long seed) {
+		return new HeadlessMatch(ChickenSpec.left(Float.MAX_VALUE, 10, 1), ChickenSpec.right(Float.MAX_VALUE, 10, 1), seed);
+	}
+
+	private static double nanosPerTick (int matches) {
+		long nanos = 0;
+		for (int i = 0; i < matches; i++) {
+			HeadlessMatch headlessMatch = createMatch(i);
+			Match match = headlessMatch.getMatch();
+			try {
+				long start = System.nanoTime();
+				for (int tick = 0; tick < TICKS_PER_MATCH; tick++)
+					match.update(Match.TIME_STEP);
+				nanos += System.nanoTime() - start;
+			} finally {
+				headlessMatch.dispose();
+			}
+		}
+		return nanos / ((double) matches * TICKS_PER_MATCH);
+	}
+
+	// a match's worth of rows at a time, commit included. What a row costs doesn't depend on its values,
+	// so the stepped match is recorded as it stands after the last step.
+	private static double nanosPerRow (int matches, TelemetryRecorder recorder, long firstMatchId) throws IOException {
+		long nanos = 0;
+		for (int i = 0; i < matches; i++) {
+			HeadlessMatch headlessMatch = createMatch(i);
+			Match match = headlessMatch.getMatch();
+			try {
+				for (int tick = 0; tick < TICKS_PER_MATCH; tick++)
+					match.update(Match.TIME_STEP);
+
+				long start = System.nanoTime();
+				recorder.beginMatch(firstMatchId + i);
+				for (int tick = 0; tick < TICKS_PER_MATCH; tick++)
+					recorder.record(match);
+				recorder.endMatch();
+				nanos += System.nanoTime() - start;
+			} finally {
+				headlessMatch.dispose();
+			}
+		}
+		return nanos / ((double) matches * TICKS_PER_MATCH);
+	}
+
+	private static void recordMatch (long matchId, TelemetryRecorder recorder) throws IOException {
+		HeadlessMatch headlessMatch = createMatch(matchId);
+		Match match = headlessMatch.getMatch();
+		try {
+			match.setTelemetry(recorder);
+			recorder.beginMatch(matchId);
+			for (int tick = 0; tick < TICKS_PER_MATCH; tick++)
+				match.update(Match.TIME_STEP);
+			recorder.endMatch();
+		} finally {
+			headlessMatch.dispose();
+		}
+	}
+
+	private static void scan (TelemetryReader reader) throws IOException {
+		long rows = reader.getRowCount();
+
+		// one float column in bulk: the highest speed chicken1 ever reached
+		ColumnReader velocityX = reader.column(TelemetryColumn.CHICKEN1_VELOCITY_X);
+		float[] floats = new float[SCAN_CHUNK];
+		long start = System.nanoTime();
+		float maxSpeed = 0;
+		for (long row = 0; row < rows; row += SCAN_CHUNK) {
+			int count = velocityX.readFloats(row, floats, 0, SCAN_CHUNK);
+			for (int i = 0; i < count; i++)
+				maxSpeed = Math.max(maxSpeed, Math.abs(floats[i]));
+		}
+		report("chicken1 velocity x, bulk", rows, System.nanoTime() - start, "max speed " + maxSpeed);
+
+		// the same column a row at a time
+		start = System.nanoTime();
+		maxSpeed = 0;
+		for (long row = 0; row < rows; row++)
+			maxSpeed = Math.max(maxSpeed, Math.abs(velocityX.getFloat(row)));
+		report("chicken1 velocity x, by row", rows, System.nanoTime() - start, "max speed " + maxSpeed);
+
+		// a byte column: how much of the fight chicken2 spent attacking
+		ColumnReader state = reader.column(TelemetryColumn.CHICKEN2_STATE);
+		byte[] bytes = new byte[SCAN_CHUNK];
+		byte attacking = (byte) Chicken.State.ATTACKING.ordinal();
+		start = System.nanoTime();
+		long attackingTicks = 0;
+		for (long row = 0; row < rows; row += SCAN_CHUNK) {
+			int count = state.readBytes(row, bytes, 0, SCAN_CHUNK);
+			for (int i = 0; i < count; i++) {
+				if (bytes[i] == attacking)
+					attackingTicks++;
+			}
+		}
+		report("chicken2 state, bulk", rows, System.nanoTime() - start,
+				String.format("attacking %.1f%% of ticks", 100.0 * attackingTicks / Math.max(1, rows)));
+	}
+
+	private static void report (String label, long rows, long nanos, String result) {
+		System.out.printf("%-30s %6.0f M rows/s  (%s)%n", label, rows / (nanos / 1e9) / 1e6, result);
+	}
+
+	private static void deleteFiles (File directory) {
+		for (File file : directory.listFiles())
+			file.delete();
+	}
+
+	private static long size (File directory) {
+		long bytes = 0;
+		for (File file : directory.listFiles())
+			bytes += file.length();
+		return bytes;
+	}
+}
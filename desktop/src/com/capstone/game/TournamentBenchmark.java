@@ -0,0 +1,55 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.ChickenSpec;
+import com.capstone.game.Simulation.HeadlessMatch;
+import com.capstone.game.Simulation.Pairing;
+import com.capstone.game.Simulation.Tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Measures matches/sec of the tournament runner at 1, 2, 4 and N threads, run from the assets directory
+public class TournamentBenchmark {
+	public static void main (String[] arg) {
+		int matches = arg.length > 0 ? Integer.parseInt(arg[0]) : 2000;
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		// fixed set of random pairings so every thread count runs the same work
+		Random random = new Random(42);
+		List<Pairing> pairings = new ArrayList<>(matches);
+		for (int i = 0; i < matches; i++) {
+			pairings.add(new Pairing(
+					ChickenSpec.left(80 + random.nextInt(41), 10 + random.nextInt(11), 1),
+					ChickenSpec.right(80 + random.nextInt(41), 10 + random.nextInt(11), 1)));
+		}
+
+		// parse the arena once and warm up the JIT before measuring
+		HeadlessMatch.getColliders();
+		run(cores, pairings.subList(0, Math.min(200, matches)));
+
+		List<Integer> threadCounts = new ArrayList<>();
+		for (int threads : new int[] {1, 2, 4})
+			if (threads < cores) threadCounts.add(threads);
+		threadCounts.add(cores);
+
+		double baseline = 0;
+		System.out.printf("%d matches per run, %d cores%n", matches, cores);
+		for (int threads : threadCounts) {
+			double matchesPerSecond = run(threads, pairings);
+			if (baseline == 0) baseline = matchesPerSecond;
+			System.out.printf("%3d threads: %10.1f matches/s  (%.2fx)%n", threads, matchesPerSecond, matchesPerSecond / baseline);
+		}
+	}
+
+	private static double run(int threads, List<Pairing> pairings) {
+		Tournament tournament = new Tournament(threads);
+		try {
+			long start = System.nanoTime();
+			tournament.runMatches(pairings);
+			return pairings.size() / ((System.nanoTime() - start) / 1e9);
+		} finally {
+			tournament.shutdown();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.capstone.game;
+
+import com.capstone.game.Simulation.WorldSnapshot;
+import com.capstone.game.Simulation.WorldStateCodec;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+// Reports bytes per snapshot and encode/decode throughput of the world state format, run from the assets directory
+public class WorldStateBenchmark {
+	private static final int REPEATS = 20;
+	// a client a few steps behind acknowledges an older base, the delta spans more ticks
+	private static final int[] DELTA_DISTANCES = {1, 6, 30};
+
+	public static void main (String[] arg) throws IOException {
+		int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : 18000;
+		WorldSnapshot[] snapshots = CheckFixtures.record(ticks);
+
+		// the same fields as plain floats, a state byte and a facing byte per chicken, plus the tick
+		int rawBytes = 2 * (6 * 4 + 2) + 4;
+		System.out.printf("%d snapshots of a real match, raw state %d bytes%n", ticks, rawBytes);
+
+		WorldStateCodec encoder = new WorldStateCodec();
+		WorldStateCodec decoder = new WorldStateCodec();
+		encoder.setMatchInfo(CheckFixtures.SEED, CockfightGame.ARENA_COLUMNS);
+		byte[] wire = new byte[1024];
+		WorldSnapshot decoded = new WorldSnapshot();
+
+		// warm up the JIT on both paths
+		measure(encoder, decoder, snapshots, 0, wire, decoded, false);
+		measure(encoder, decoder, snapshots, 1, wire, decoded, false);
+
+		measure(encoder, decoder, snapshots, 0, wire, decoded, true);
+		for (int distance : DELTA_DISTANCES)
+			measure(encoder, decoder, snapshots, distance, wire, decoded, true);
+	}
+
+	// zero distance encodes full snapshots
+	private static void measure (WorldStateCodec encoder, WorldStateCodec decoder, WorldSnapshot[] snapshots, int distance,
+			byte[] wire, WorldSnapshot decoded, boolean isPrinted) throws IOException {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+		long bytes = 0;
+		long encodeNanos = 0;
+		long decodeNanos = 0;
+		int count = 0;
+		for (int r = 0; r < REPEATS; r++) {
+			for (int i = Math.max(distance, 1); i < snapshots.length; i++) {
+				WorldSnapshot base = distance == 0 ? null : snapshots[i - distance];
+
+				long start = System.nanoTime();
+				int length = distance == 0 ? encoder.encodeFull(snapshots[i]) : encoder.encodeDelta(snapshots[i], base);
+				System.arraycopy(encoder.getBuffer(), 0, wire, 0, length);
+				long encoded = System.nanoTime();
+				decoder.decode(wire, 0, length, base, decoded);
+				decodeNanos += System.nanoTime() - encoded;
+				encodeNanos += encoded - start;
+
+				bytes += length;
+				count++;
+			}
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		if (!isPrinted)
+			return;
+		System.out.printf("%-14s %6.1f bytes, encode %5.2f M/s, decode %5.2f M/s, %.3f bytes allocated per round trip%n",
+				distance == 0 ? "full" : "delta " + distance + " tick" + (distance > 1 ? "s" : ""),
+				bytes / (double) count, count / (encodeNanos / 1e3), count / (decodeNanos / 1e3), allocated / (double) count);
+	}
+}